@@ -26,6 +26,14 @@ tasks {
     compileJava {
         options.encoding = "UTF-8"
     }
+
+    test {
+        useJUnitPlatform()
+    }
+}
+
+configurations.testImplementation {
+    extendsFrom(configurations.compileOnly.get())
 }
 
 repositories {
@@ -36,7 +44,11 @@ repositories {
 }
 
 dependencies {
+    compileOnly("io.prometheus:simpleclient:0.16.0")
 
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 fun getGitVersion(): Pair<String, Boolean> {
@@ -3,12 +3,30 @@ package net.jirayu.fortify;
 import dev.arbjerg.lavalink.api.RestInterceptor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import net.jirayu.fortify.admission.AdmissionQueue;
+import net.jirayu.fortify.admission.ResumeStormGuard;
+import net.jirayu.fortify.audit.AuditEventType;
+import net.jirayu.fortify.audit.AuditLog;
+import net.jirayu.fortify.blocklist.BlocklistService;
 import net.jirayu.fortify.config.BypassConfig;
-import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.config.JfrConfig;
 import net.jirayu.fortify.config.PathBlockConfig;
 import net.jirayu.fortify.config.ProxyConfig;
-import net.jirayu.fortify.config.RateLimitConfig;
+import net.jirayu.fortify.geoip.GeoIpResult;
+import net.jirayu.fortify.geoip.GeoIpService;
+import net.jirayu.fortify.heavyhitter.HeavyHitterTracker;
+import net.jirayu.fortify.jfr.RateLimitRejectionEvent;
+import net.jirayu.fortify.jfr.RestDecisionEvent;
+import net.jirayu.fortify.loadshed.LatencyShedder;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.metrics.FortifyMetrics.Decision;
+import net.jirayu.fortify.monitor.ResourceMonitor;
 import net.jirayu.fortify.notification.NotificationService;
+import net.jirayu.fortify.playerlimit.PlayerAccounting;
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.policy.ShadowPolicies;
+import net.jirayu.fortify.ratelimit.ConcurrencyLimiter;
 import net.jirayu.fortify.ratelimit.RateLimiter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -19,34 +37,77 @@ import org.springframework.stereotype.Service;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class FortifyRest implements RestInterceptor {
     private static final Logger log = LoggerFactory.getLogger(FortifyRest.class);
+    private static final String START_ATTRIBUTE = FortifyRest.class.getName() + ".start";
+    private static final String PRIORITY_ATTRIBUTE = FortifyRest.class.getName() + ".priority";
+    private static final String STRIPE_ATTRIBUTE = FortifyRest.class.getName() + ".stripe";
+    private static final String CLIENT_IP_ATTRIBUTE = FortifyRest.class.getName() + ".ip";
+    private static final String LOAD_TRACKS_PATH = "/v4/loadtracks";
+    private static final String LOAD_SEARCH_PATH = "/v4/loadsearch";
 
-    private final RateLimitConfig rateLimitConfig;
+    private final PolicyStore policyStore;
     private final ProxyConfig proxyConfig;
     private final BypassConfig bypassConfig;
-    private final NotificationConfig notificationConfig;
     private final PathBlockConfig pathBlockConfig;
     private final RateLimiter rateLimiter;
     private final NotificationService notificationService;
+    private final GeoIpService geoIpService;
+    private final BlocklistService blocklistService;
+    private final AdmissionQueue admissionQueue;
+    private final ResumeStormGuard stormGuard;
+    private final PlayerAccounting playerAccounting;
+    private final LatencyShedder latencyShedder;
+    private final ResourceMonitor resourceMonitor;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final FortifyMetrics metrics;
+    private final JfrConfig jfrConfig;
+    private final HeavyHitterTracker heavyHitters;
+    private final AuditLog auditLog;
+    private final ShadowPolicies shadowPolicies;
     private final Map<String, Long> windowStartMap = new ConcurrentHashMap<>();
 
-    public FortifyRest(RateLimitConfig rateLimitConfig,
+    public FortifyRest(PolicyStore policyStore,
                        ProxyConfig proxyConfig,
                        BypassConfig bypassConfig,
-                       NotificationConfig notificationConfig,
                        PathBlockConfig pathBlockConfig,
                        RateLimiter rateLimiter,
-                       NotificationService notificationService) {
-        this.rateLimitConfig = rateLimitConfig;
+                       NotificationService notificationService,
+                       GeoIpService geoIpService,
+                       BlocklistService blocklistService,
+                       AdmissionQueue admissionQueue,
+                       ResumeStormGuard stormGuard,
+                       PlayerAccounting playerAccounting,
+                       LatencyShedder latencyShedder,
+                       ResourceMonitor resourceMonitor,
+                       ConcurrencyLimiter concurrencyLimiter,
+                       FortifyMetrics metrics,
+                       JfrConfig jfrConfig,
+                       HeavyHitterTracker heavyHitters,
+                       AuditLog auditLog,
+                       ShadowPolicies shadowPolicies) {
+        this.policyStore = policyStore;
         this.proxyConfig = proxyConfig;
         this.bypassConfig = bypassConfig;
-        this.notificationConfig = notificationConfig;
         this.pathBlockConfig = pathBlockConfig;
         this.rateLimiter = rateLimiter;
         this.notificationService = notificationService;
+        this.geoIpService = geoIpService;
+        this.blocklistService = blocklistService;
+        this.admissionQueue = admissionQueue;
+        this.stormGuard = stormGuard;
+        this.playerAccounting = playerAccounting;
+        this.latencyShedder = latencyShedder;
+        this.resourceMonitor = resourceMonitor;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.metrics = metrics;
+        this.jfrConfig = jfrConfig;
+        this.heavyHitters = heavyHitters;
+        this.auditLog = auditLog;
+        this.shadowPolicies = shadowPolicies;
     }
 
     @Override
@@ -55,61 +116,252 @@ public class FortifyRest implements RestInterceptor {
                              @NotNull Object handler) {
         String ip = FortifyTools.getIp(request, proxyConfig);
         String path = request.getRequestURI();
+        long start = System.nanoTime();
+        FortifyMetrics.Route route = FortifyMetrics.route(path);
+        RestDecisionEvent event = new RestDecisionEvent();
+        event.begin();
+
+        LatencyShedder.Priority priority = null;
+        if (latencyShedder.isEnabled()) {
+            priority = latencyShedder.classify(path);
+            request.setAttribute(START_ATTRIBUTE, start);
+            request.setAttribute(PRIORITY_ATTRIBUTE, priority);
+        }
         log.debug("Processing request from IP {} to path {}", ip, path);
 
+        if (blocklistService.isBlocked(ip) && !isAllowedIp(ip)) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            log.debug("Blocked request from blocklisted IP {} to {}", ip, path);
+            record(Decision.BLOCKLISTED, route, start, ip, event);
+            return false;
+        }
+
+        heavyHitters.record(ip, path);
+
+        if (shadowPolicies.isActive() && !isAllowedIp(ip)) {
+            shadowPolicies.evaluatePath(ip, path);
+        }
+
         if (pathBlockConfig.isEnabled() && pathBlockConfig.isPathBlocked(path) && !isAllowedIp(ip)) {
             response.setStatus(HttpStatus.FORBIDDEN.value());
             log.warn("Blocked request to restricted path: {} from IP {}", path, ip);
 
-            if (notificationConfig.getEnabled().isPathBlock()) {
-                notificationService.sendPathBlockNotification(ip, path);
-            }
+            notificationService.sendPathBlockNotification(ip, path);
+            auditLog.record(AuditEventType.PATH_DENIED, ip, path, 0);
 
+            record(Decision.PATH_BLOCKED, route, start, ip, event);
             return false;
         }
 
         if (isAllowedIp(ip)) {
             log.debug("Request allowed for whitelisted IP {}", ip);
+            record(Decision.BYPASSED, route, start, ip, event);
+            enterShedder(priority);
             return true;
         }
 
+        if (priority != null && latencyShedder.shouldShed(priority)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", String.valueOf(latencyShedder.getRetryAfterSeconds()));
+            log.debug("Shed {} priority request from IP {} to {}: request latency above target", priority, ip, path);
+            record(Decision.SHED, route, start, ip, event);
+            return false;
+        }
+
+        if (admissionQueue.hasPending() && admissionQueue.isPending(FortifyTools.getSessionId(path))) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", String.valueOf(admissionQueue.getRetryAfterSeconds()));
+            log.debug("Deferred request from IP {} to {}: session is waiting for admission", ip, path);
+            record(Decision.PENDING_ADMISSION, route, start, ip, event);
+            return false;
+        }
+
+        if (resourceMonitor.isThrottling() && resourceMonitor.getPolicy().isBlockSearch() && isSearchRequest(request, path)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", String.valueOf(getPressureRetryAfterSeconds()));
+            log.debug("Blocked search from IP {} to {}: pressure level {}", ip, path, resourceMonitor.getLevel());
+            record(Decision.SEARCH_BLOCKED, route, start, ip, event);
+            return false;
+        }
+
+        boolean admitNewPlayers = resourceMonitor.getPolicy().isAdmitNewPlayers();
+        if ((!admitNewPlayers || stormGuard.isActive()) && "PATCH".equals(request.getMethod()) && isPlayerCreation(path)) {
+            if (!admitNewPlayers) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader("Retry-After", String.valueOf(getPressureRetryAfterSeconds()));
+                log.debug("Deferred player creation from IP {} to {}: pressure level {}", ip, path, resourceMonitor.getLevel());
+                record(Decision.PLAYER_DEFERRED, route, start, ip, event);
+                return false;
+            }
+
+            if (stormGuard.isActive() && !stormGuard.tryAdmitPlayer(FortifyTools.getSessionId(path))) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader("Retry-After", String.valueOf(stormGuard.getPlayerRetryAfterSeconds()));
+                log.debug("Deferred player creation from IP {} to {}: reconnect storm in progress", ip, path);
+                record(Decision.PLAYER_DEFERRED, route, start, ip, event);
+                return false;
+            }
+        }
+
+        if (geoIpService.isEnabled()) {
+            GeoIpResult geoIp = geoIpService.lookup(ip);
+
+            if (geoIpService.isBlocked(geoIp)) {
+                response.setStatus(HttpStatus.FORBIDDEN.value());
+                log.debug("Blocked request from IP {} (country={}, asn={}) to {}",
+                        ip, geoIp.getCountry(), geoIp.getAsn(), path);
+                record(Decision.GEO_BLOCKED, route, start, ip, event);
+                return false;
+            }
+
+            String networkKey = geoIpService.getLimitedNetworkKey(geoIp);
+            if (networkKey != null && !geoIpService.isNetworkAllowed(networkKey)) {
+                long networkReset = geoIpService.getNetworkWindowReset(networkKey);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("X-RateLimit-Reset", String.valueOf(networkReset));
+                response.setHeader("Retry-After", String.valueOf(
+                        Math.max(1, (networkReset - System.currentTimeMillis() + 999) / 1000)));
+                log.debug("Rate limited request from IP {} on network {} to {}", ip, networkKey, path);
+                record(Decision.NETWORK_LIMITED, route, start, ip, event);
+                return false;
+            }
+        }
+
         boolean wasAlreadyBlocked = rateLimiter.isBlocked(ip);
         boolean allowed = rateLimiter.isAllowed(ip);
         long windowStart = rateLimiter.getWindowStart(ip);
-        long resetTime = windowStart + (rateLimitConfig.getDuration() * 1000L);
+        FortifyPolicy.RateLimit limits = policyStore.get().getRateLimit();
+        long resetTime = windowStart + limits.getWindowMillis();
 
         if (!allowed) {
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimitConfig.getMaxRequests()));
+            response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimiter.getMaxRequests()));
             response.setHeader("X-RateLimit-Remaining", "0");
-            response.setHeader("X-RateLimit-Used", String.valueOf(rateLimitConfig.getMaxRequests()));
+            response.setHeader("X-RateLimit-Used", String.valueOf(rateLimiter.getMaxRequests()));
             response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
-            response.setHeader("Retry-After", String.valueOf(rateLimitConfig.getDuration()));
+            response.setHeader("Retry-After", String.valueOf(limits.getDuration()));
 
             if (rateLimiter.isBlocked(ip)) {
                 log.warn("Blocked request from IP {} to {}", ip, path);
 
-                if (!wasAlreadyBlocked && notificationConfig.getEnabled().isRatelimit()) {
+                if (!wasAlreadyBlocked) {
                     notificationService.sendBlockNotification(ip, path);
                 }
+                record(Decision.IP_BLOCKED, route, start, ip, event);
             } else {
                 log.debug("Rate limited request from IP {} to {}", ip, path);
+                record(Decision.RATE_LIMITED, route, start, ip, event);
             }
 
             return false;
         }
 
+        if (concurrencyLimiter.isEnabled()) {
+            int stripe = concurrencyLimiter.tryAcquire(ip);
+
+            if (stripe < 0) {
+                boolean ipLimit = stripe == ConcurrencyLimiter.IP_LIMIT;
+                response.setStatus(ipLimit
+                        ? HttpStatus.TOO_MANY_REQUESTS.value()
+                        : HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader("Retry-After", "1");
+                log.debug("Rejected request from IP {} to {}: {} limit", ip, path, ipLimit ? "per-IP" : "global");
+                record(Decision.CONCURRENCY_LIMITED, route, start, ip, event);
+                return false;
+            }
+
+            request.setAttribute(STRIPE_ATTRIBUTE, stripe);
+            request.setAttribute(CLIENT_IP_ATTRIBUTE, ip);
+            if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long)) {
+                request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            }
+        }
+
         int remaining = rateLimiter.getRemainingRequests(ip);
-        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimitConfig.getMaxRequests()));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimiter.getMaxRequests()));
         response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
-        response.setHeader("X-RateLimit-Used", String.valueOf(rateLimitConfig.getMaxRequests() - remaining));
+        response.setHeader("X-RateLimit-Used", String.valueOf(rateLimiter.getMaxRequests() - remaining));
         response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
 
         log.debug("Request allowed for IP {}: {}/{} requests used", ip,
-                rateLimitConfig.getMaxRequests() - remaining, rateLimitConfig.getMaxRequests());
+                rateLimiter.getMaxRequests() - remaining, rateLimiter.getMaxRequests());
+        record(Decision.ALLOWED, route, start, ip, event);
+        enterShedder(priority);
         return true;
     }
 
+    @Override
+    public void afterCompletion(@NotNull HttpServletRequest request,
+                                @NotNull HttpServletResponse response,
+                                @NotNull Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        long latency = start instanceof Long ? System.nanoTime() - (Long) start : 0;
+
+        Object stripe = request.getAttribute(STRIPE_ATTRIBUTE);
+        if (stripe instanceof Integer) {
+            request.removeAttribute(STRIPE_ATTRIBUTE);
+            concurrencyLimiter.release((String) request.getAttribute(CLIENT_IP_ATTRIBUTE), (Integer) stripe, latency);
+        }
+
+        Object priority = request.getAttribute(PRIORITY_ATTRIBUTE);
+        if (start instanceof Long && priority instanceof LatencyShedder.Priority) {
+            latencyShedder.record((LatencyShedder.Priority) priority, latency);
+        }
+    }
+
+    private void enterShedder(LatencyShedder.Priority priority) {
+        if (priority != null) {
+            latencyShedder.enter();
+        }
+    }
+
+    private void record(Decision decision, FortifyMetrics.Route route, long start, String ip, RestDecisionEvent event) {
+        metrics.recordDecision(decision, route, start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.decision = decision.name();
+            event.route = route.name();
+            event.ip = ip;
+            event.commit();
+        }
+
+        int sampleRate = jfrConfig.getRejectionSampleRate();
+        if (decision != Decision.ALLOWED && decision != Decision.BYPASSED && sampleRate > 0 &&
+                ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            RateLimitRejectionEvent rejection = new RateLimitRejectionEvent();
+            if (rejection.shouldCommit()) {
+                rejection.decision = decision.name();
+                rejection.route = route.name();
+                rejection.ip = ip;
+                rejection.sampleRate = sampleRate;
+                rejection.commit();
+            }
+        }
+    }
+
+    private boolean isPlayerCreation(String path) {
+        String sessionId = FortifyTools.getSessionId(path);
+        long guildId = FortifyTools.getGuildId(path);
+        return sessionId != null && guildId >= 0 && !playerAccounting.hasPlayer(sessionId, guildId);
+    }
+
+    private boolean isSearchRequest(HttpServletRequest request, String path) {
+        if (path.startsWith(LOAD_SEARCH_PATH)) {
+            return true;
+        }
+        if (!path.startsWith(LOAD_TRACKS_PATH)) {
+            return false;
+        }
+        String identifier = request.getParameter("identifier");
+        return identifier != null && identifier.contains("search:");
+    }
+
+    private long getPressureRetryAfterSeconds() {
+        return Math.max(1, (resourceMonitor.getConnectionDelay() + 999) / 1000);
+    }
+
     private boolean isAllowedIp(String ip) {
         return Arrays.asList(bypassConfig.getAllowedIps()).contains(ip);
     }
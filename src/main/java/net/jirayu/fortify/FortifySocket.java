@@ -3,65 +3,90 @@ package net.jirayu.fortify;
 import dev.arbjerg.lavalink.api.IPlayer;
 import dev.arbjerg.lavalink.api.ISocketContext;
 import dev.arbjerg.lavalink.api.PluginEventHandler;
+import net.jirayu.fortify.admission.AdmissionQueue;
+import net.jirayu.fortify.admission.ConnectionLimiter;
+import net.jirayu.fortify.admission.ResumeStormGuard;
 import net.jirayu.fortify.config.BypassConfig;
-import net.jirayu.fortify.config.NotificationConfig;
-import net.jirayu.fortify.config.PlayerLimitConfig;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.metrics.FortifyMetrics.SocketRejection;
 import net.jirayu.fortify.notification.NotificationService;
 import net.jirayu.fortify.monitor.ResourceMonitor;
+import net.jirayu.fortify.playerlimit.PlayerAccounting;
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.session.SessionRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class FortifySocket extends PluginEventHandler {
     private static final Logger log = LoggerFactory.getLogger(FortifySocket.class);
-    private final Map<String, ISocketContext> connectedSockets = new ConcurrentHashMap<>();
 
-    private final PlayerLimitConfig playerLimitConfig;
-    private final NotificationConfig notificationConfig;
+    private final PolicyStore policyStore;
     private final BypassConfig bypassConfig;
     private final NotificationService notificationService;
     private final ResourceMonitor resourceMonitor;
-
-    public FortifySocket(PlayerLimitConfig playerLimitConfig,
-                         NotificationConfig notificationConfig,
+    private final AdmissionQueue admissionQueue;
+    private final PlayerAccounting playerAccounting;
+    private final ConnectionLimiter connectionLimiter;
+    private final ResumeStormGuard stormGuard;
+    private final SessionRegistry sessionRegistry;
+    private final FortifyMetrics metrics;
+
+    public FortifySocket(PolicyStore policyStore,
                          BypassConfig bypassConfig,
                          NotificationService notificationService,
-                         ResourceMonitor resourceMonitor) {
-        this.playerLimitConfig = playerLimitConfig;
-        this.notificationConfig = notificationConfig;
+                         ResourceMonitor resourceMonitor,
+                         AdmissionQueue admissionQueue,
+                         PlayerAccounting playerAccounting,
+                         ConnectionLimiter connectionLimiter,
+                         ResumeStormGuard stormGuard,
+                         SessionRegistry sessionRegistry,
+                         FortifyMetrics metrics) {
+        this.policyStore = policyStore;
         this.bypassConfig = bypassConfig;
         this.notificationService = notificationService;
         this.resourceMonitor = resourceMonitor;
-
-        log.info("Player limit configuration: enabled={}, maxPlayers={}",
-                playerLimitConfig.isEnabled(), playerLimitConfig.getMaxPlayers());
+        this.admissionQueue = admissionQueue;
+        this.playerAccounting = playerAccounting;
+        this.connectionLimiter = connectionLimiter;
+        this.stormGuard = stormGuard;
+        this.sessionRegistry = sessionRegistry;
+        this.metrics = metrics;
+
+        metrics.gauge("fortify_sessions", "Open Lavalink WebSocket sessions", sessionRegistry::getSessionCount);
+        metrics.gauge("fortify_players", "Players admitted on this node", playerAccounting::getNodePlayers);
+
+        FortifyPolicy.PlayerLimit playerLimit = policyStore.get().getPlayerLimit();
+        log.info("Player limit configuration: enabled={}, maxPlayers={}, maxPlayersPerUser={}, maxPlayersPerNode={}",
+                playerLimit.isEnabled(), playerLimit.getMaxPlayers(),
+                playerLimit.getMaxPlayersPerUser(), playerLimit.getMaxPlayersPerNode());
     }
 
     @Override
     public void onNewPlayer(@NotNull ISocketContext context, @NotNull IPlayer player) {
         log.debug("New player request from userId={}, sessionId={}, current players={}/{}",
-                context.getUserId(), context.getSessionId(), context.getPlayers().size(), playerLimitConfig.getMaxPlayers());
+                context.getUserId(), context.getSessionId(),
+                playerAccounting.getSessionPlayers(context.getSessionId()), policyStore.get().getPlayerLimit().getMaxPlayers());
 
-        if (!isAllowedId(context.getUserId()) &&
-                playerLimitConfig.isEnabled() &&
-                context.getPlayers().size() >= playerLimitConfig.getMaxPlayers()) {
+        PlayerAccounting.Result result = playerAccounting.acquire(context.getSessionId(), context.getUserId(),
+                player.getGuildId(), isAllowedId(context.getUserId()));
+
+        if (result != PlayerAccounting.Result.ADMITTED) {
             String sessionId = context.getSessionId();
             Long userId = context.getUserId();
 
-            log.warn("Player rejected due to player limit: sessionId={}, userId={}",
-                    sessionId, userId);
+            log.warn("Player rejected due to player limit ({}): sessionId={}, userId={}, userPlayers={}, nodePlayers={}",
+                    result, sessionId, userId, playerAccounting.getUserPlayers(userId), playerAccounting.getNodePlayers());
 
-            if (notificationConfig.getEnabled().isPlayerLimit()) {
-                notificationService.sendPlayerLimitNotification(sessionId, userId);
-            }
+            metrics.recordSocketRejection(SocketRejection.PLAYER_LIMIT);
+            notificationService.sendPlayerLimitNotification(sessionId, userId);
 
-            if (playerLimitConfig.isCloseOnExceed()) {
+            if (policyStore.get().getPlayerLimit().isCloseOnExceed()) {
                 context.closeWebSocket(1008, "Player limit exceeded");
             }
 
@@ -69,42 +94,70 @@ public class FortifySocket extends PluginEventHandler {
             return;
         }
 
+        sessionRegistry.updatePlayers(context.getSessionId(), playerAccounting.getSessionPlayers(context.getSessionId()));
         super.onNewPlayer(context, player);
     }
 
+    @Override
+    public void onDestroyPlayer(@NotNull ISocketContext context, @NotNull IPlayer player) {
+        playerAccounting.release(context.getSessionId(), player.getGuildId());
+        sessionRegistry.updatePlayers(context.getSessionId(), playerAccounting.getSessionPlayers(context.getSessionId()));
+        super.onDestroyPlayer(context, player);
+    }
+
     @Override
     public void onWebSocketOpen(@NotNull ISocketContext context, boolean resumed) {
         log.info("New connection: sessionId={}, userId={}, resumed={}, current total={}",
-                context.getSessionId(), context.getUserId(), resumed, connectedSockets.size());
-
-        if (resourceMonitor.isThrottling() && !isAllowedId(context.getUserId())) {
-            try {
-                int delay = resourceMonitor.getConnectionDelay();
-                log.info("Throttling connection for user {} by {}ms", context.getUserId(), delay);
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                context.getSessionId(), context.getUserId(), resumed, sessionRegistry.getSessionCount());
+
+        if (connectionLimiter.isEnabled() && !isAllowedId(context.getUserId())) {
+            if (!connectionLimiter.tryAcquireUser(context.getUserId())) {
+                log.warn("Connection rejected for user {}: connection rate exceeded", context.getUserId());
+                metrics.recordSocketRejection(SocketRejection.CONNECTION_RATE);
+                context.closeWebSocket(ConnectionLimiter.CLOSE_POLICY_VIOLATION, "Connection rate limit exceeded");
+                return;
             }
+
+            if (!resumed && connectionLimiter.isSessionLimitReached(getSessionCount(context.getUserId()))) {
+                log.warn("Connection rejected for user {}: {} concurrent sessions",
+                        context.getUserId(), getSessionCount(context.getUserId()));
+                metrics.recordSocketRejection(SocketRejection.SESSION_LIMIT);
+                context.closeWebSocket(ConnectionLimiter.CLOSE_POLICY_VIOLATION, "Too many concurrent sessions");
+                return;
+            }
+        }
+
+        boolean storm = stormGuard.recordOpen(context.getSessionId(), context.getUserId(), resumed);
+
+        if ((resourceMonitor.isThrottling() || storm) && !isAllowedId(context.getUserId()) &&
+                !admissionQueue.park(context)) {
+            metrics.recordSocketRejection(SocketRejection.ADMISSION_QUEUE_FULL);
+            stormGuard.forget(context.getSessionId());
+            return;
         }
 
-        this.connectedSockets.put(context.getSessionId(), context);
+        sessionRegistry.register(context, isAllowedId(context.getUserId()), resumed,
+                resumed ? playerAccounting.getSessionPlayers(context.getSessionId()) : 0);
         log.debug("Socket connection opened: sessionId={}, current players={}/{}",
-                context.getSessionId(), connectedSockets.size(), playerLimitConfig.getMaxPlayers());
+                context.getSessionId(), sessionRegistry.getSessionCount(), policyStore.get().getPlayerLimit().getMaxPlayers());
     }
 
     @Override
     public void onSocketContextDestroyed(@NotNull ISocketContext context) {
-        this.connectedSockets.remove(context.getSessionId());
+        sessionRegistry.unregister(context.getSessionId());
+        admissionQueue.remove(context.getSessionId());
+        stormGuard.forget(context.getSessionId());
+        playerAccounting.releaseSession(context.getSessionId());
         log.debug("Socket connection closed: sessionId={}, current players={}/{}",
-                context.getSessionId(), context.getPlayers().size(), playerLimitConfig.getMaxPlayers());
+                context.getSessionId(), context.getPlayers().size(), policyStore.get().getPlayerLimit().getMaxPlayers());
     }
 
-    public Map<String, ISocketContext> getConnectedSockets() {
-        return connectedSockets;
+    public int getSessionCount(long userId) {
+        return sessionRegistry.getSessionCount(userId);
     }
 
     public int getCurrentPlayerCount(String sessionId) {
-        ISocketContext context = connectedSockets.get(sessionId);
+        ISocketContext context = sessionRegistry.getContext(sessionId);
         if (context != null) {
             return context.getPlayers().size();
         }
@@ -2,13 +2,107 @@ package net.jirayu.fortify;
 
 import jakarta.servlet.http.HttpServletRequest;
 import net.jirayu.fortify.config.ProxyConfig;
+import net.jirayu.fortify.ip.ForwardedHeaderParser;
+import net.jirayu.fortify.ip.IpIntervalSet;
+import net.jirayu.fortify.ip.PackedIp;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
 
 public class FortifyTools {
+    private static final String SESSIONS_PATH = "/v4/sessions/";
+    private static final String PLAYERS_SEGMENT = "/players/";
+    private static final ThreadLocal<PackedIp[]> ADDRESSES =
+            ThreadLocal.withInitial(() -> new PackedIp[]{new PackedIp(), new PackedIp()});
+
     public static String getIp(HttpServletRequest request, ProxyConfig proxyConfig) {
-        String ip = proxyConfig.isTrustProxy()
-                ? request.getHeader(proxyConfig.getProxyHeader())
-                : request.getRemoteAddr();
+        String remoteAddr = request.getRemoteAddr();
+        PackedIp[] addresses = ADDRESSES.get();
+        PackedIp client = addresses[0];
+
+        if (!client.parse(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        if (!proxyConfig.isTrustProxy()) {
+            return client.toCanonicalString();
+        }
+
+        IpIntervalSet trusted = proxyConfig.getTrustedProxySet();
+        if (!trusted.isEmpty() && !trusted.containsPacked(client.getHigh(), client.getLow())) {
+            return client.toCanonicalString();
+        }
+
+        Enumeration<String> headers = request.getHeaders(proxyConfig.getProxyHeader());
+        if (headers == null || !headers.hasMoreElements()) {
+            return client.toCanonicalString();
+        }
+
+        boolean rfc7239 = proxyConfig.isForwardedHeader();
+        String header = headers.nextElement();
+
+        if (!headers.hasMoreElements()) {
+            ForwardedHeaderParser.walk(header, rfc7239, trusted, addresses[1], client);
+            return client.toCanonicalString();
+        }
+
+        List<String> values = new ArrayList<>();
+        values.add(header);
+        while (headers.hasMoreElements()) {
+            values.add(headers.nextElement());
+        }
+
+        for (int i = values.size() - 1; i >= 0; i--) {
+            if (ForwardedHeaderParser.walk(values.get(i), rfc7239, trusted, addresses[1], client)) {
+                break;
+            }
+        }
+
+        return client.toCanonicalString();
+    }
+
+    public static String getSessionId(String path) {
+        if (path == null || !path.startsWith(SESSIONS_PATH)) {
+            return null;
+        }
+
+        int end = path.indexOf('/', SESSIONS_PATH.length());
+        return path.substring(SESSIONS_PATH.length(), end < 0 ? path.length() : end);
+    }
+
+    public static String getRouteTemplate(String path) {
+        String sessionId = getSessionId(path);
+        if (sessionId == null) {
+            return path;
+        }
+
+        StringBuilder route = new StringBuilder(path.length()).append(SESSIONS_PATH).append("{sessionId}");
+        int rest = SESSIONS_PATH.length() + sessionId.length();
+        if (path.startsWith(PLAYERS_SEGMENT, rest)) {
+            int end = path.indexOf('/', rest + PLAYERS_SEGMENT.length());
+            route.append(PLAYERS_SEGMENT).append("{guildId}");
+            rest = end < 0 ? path.length() : end;
+        }
+        return route.append(path, rest, path.length()).toString();
+    }
+
+    public static long getGuildId(String path) {
+        if (path == null || !path.startsWith(SESSIONS_PATH)) {
+            return -1;
+        }
+
+        int players = path.indexOf(PLAYERS_SEGMENT, SESSIONS_PATH.length());
+        if (players < 0) {
+            return -1;
+        }
 
-        return (ip == null || ip.isEmpty()) ? request.getRemoteAddr() : ip;
+        int start = players + PLAYERS_SEGMENT.length();
+        int end = path.indexOf('/', start);
+        try {
+            return Long.parseLong(path.substring(start, end < 0 ? path.length() : end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
@@ -0,0 +1,232 @@
+package net.jirayu.fortify.admission;
+
+import dev.arbjerg.lavalink.api.ISocketContext;
+import net.jirayu.fortify.config.ThrottleConfig;
+import net.jirayu.fortify.monitor.ResourceMonitor;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class AdmissionQueue {
+    private static final Logger log = LoggerFactory.getLogger(AdmissionQueue.class);
+
+    public static final int CLOSE_TRY_AGAIN_LATER = 1013;
+    private static final long TICK_MILLIS = 50;
+
+    private final ThrottleConfig throttleConfig;
+    private final ResourceMonitor resourceMonitor;
+    private final ResumeStormGuard stormGuard;
+    private final Map<String, ParkedSession> pending = new ConcurrentHashMap<>();
+    private final PriorityLevel[] levels = new PriorityLevel[ResumeStormGuard.PRIORITY_LEVELS];
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private double tokens = 0;
+    private long lastTick = System.nanoTime();
+
+    public AdmissionQueue(ThrottleConfig throttleConfig, ResourceMonitor resourceMonitor,
+                          ResumeStormGuard stormGuard, FortifyScheduler scheduler) {
+        this.throttleConfig = throttleConfig;
+        this.resourceMonitor = resourceMonitor;
+        this.stormGuard = stormGuard;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new PriorityLevel();
+        }
+
+        if (throttleConfig.isEnabled() || stormGuard.isEnabled()) {
+            scheduler.scheduleWithFixedDelay("admission release", this::release, TICK_MILLIS, TICK_MILLIS);
+            log.info("Connection admission queue started: {} sessions/s, max depth {}",
+                    throttleConfig.getAdmissionRate(), throttleConfig.getMaxQueueDepth());
+        }
+    }
+
+    public boolean park(ISocketContext context) {
+        String sessionId = context.getSessionId();
+        long userId = context.getUserId();
+        int priority = stormGuard.getPriority(sessionId);
+        long delay = resourceMonitor.getConnectionDelay();
+        if (stormGuard.isActive()) {
+            delay += stormGuard.getSessionJitterMillis();
+        }
+        int depth;
+
+        synchronized (this) {
+            depth = pending.size();
+            if (depth < throttleConfig.getMaxQueueDepth()) {
+                ParkedSession session = new ParkedSession(sessionId, userId, priority,
+                        System.currentTimeMillis() + delay);
+                pending.put(sessionId, session);
+                levels[priority].add(session);
+                depth++;
+            } else {
+                depth = -1;
+            }
+        }
+
+        if (depth < 0) {
+            rejected.incrementAndGet();
+            log.warn("Admission queue full, rejecting session {} for user {}", sessionId, userId);
+            context.closeWebSocket(CLOSE_TRY_AGAIN_LATER, "Server overloaded, try again later");
+            return false;
+        }
+
+        log.info("Parked connection for user {} (session {}), queue depth {}", userId, sessionId, depth);
+        return true;
+    }
+
+    public boolean isPending(String sessionId) {
+        return sessionId != null && !pending.isEmpty() && pending.containsKey(sessionId);
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    public synchronized void remove(String sessionId) {
+        ParkedSession session = pending.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+
+        levels[session.priority].remove(session);
+    }
+
+    public long getRetryAfterSeconds() {
+        double rate = Math.max(0.1, getRate());
+        long queued = Math.max(1, pending.size());
+        return Math.max(1, (long) Math.ceil(queued / rate + resourceMonitor.getConnectionDelay() / 1000.0));
+    }
+
+    public synchronized Map<String, Object> getInfo() {
+        Map<String, Object> pendingByPriority = new HashMap<>();
+        pendingByPriority.put("priorityClients", levels[ResumeStormGuard.PRIORITY_CLIENT].size());
+        pendingByPriority.put("resumed", levels[ResumeStormGuard.PRIORITY_RESUMED].size());
+        pendingByPriority.put("new", levels[ResumeStormGuard.PRIORITY_NEW].size());
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("pending", pending.size());
+        info.put("pendingByPriority", pendingByPriority);
+        info.put("admitted", admitted.get());
+        info.put("rejected", rejected.get());
+        info.put("admissionRate", throttleConfig.getAdmissionRate());
+        info.put("maxQueueDepth", throttleConfig.getMaxQueueDepth());
+        return info;
+    }
+
+    private synchronized void release() {
+        long nowNanos = System.nanoTime();
+        double elapsedSeconds = (nowNanos - lastTick) / 1_000_000_000.0;
+        lastTick = nowNanos;
+
+        stormGuard.update(pending.size());
+
+        if (pending.isEmpty()) {
+            tokens = 0;
+            return;
+        }
+
+        boolean paced = resourceMonitor.isThrottling() || stormGuard.isActive();
+        double rate = getRate();
+        tokens = Math.min(Math.max(1, rate), tokens + rate * elapsedSeconds);
+
+        long now = System.currentTimeMillis();
+        for (PriorityLevel level : levels) {
+            if (paced && tokens < 1) {
+                break;
+            }
+
+            boolean releasedInPass = true;
+            while (releasedInPass && !level.userOrder.isEmpty() && (!paced || tokens >= 1)) {
+                releasedInPass = false;
+
+                for (int i = level.userOrder.size(); i > 0 && (!paced || tokens >= 1); i--) {
+                    Long userId = level.userOrder.pollFirst();
+                    ArrayDeque<ParkedSession> queue = level.queuesByUser.get(userId);
+                    ParkedSession head = queue.peekFirst();
+
+                    if (!paced || head.eligibleAt <= now) {
+                        queue.pollFirst();
+                        pending.remove(head.sessionId);
+                        admitted.incrementAndGet();
+                        releasedInPass = true;
+                        if (paced) {
+                            tokens -= 1;
+                        }
+                        log.debug("Admitted parked session {} for user {}", head.sessionId, userId);
+                    }
+
+                    if (queue.isEmpty()) {
+                        level.queuesByUser.remove(userId);
+                    } else {
+                        level.userOrder.addLast(userId);
+                    }
+                }
+            }
+        }
+    }
+
+    private double getRate() {
+        if (!stormGuard.isActive()) {
+            return throttleConfig.getAdmissionRate();
+        }
+        if (!resourceMonitor.isThrottling()) {
+            return stormGuard.getSessionRate();
+        }
+        return Math.min(throttleConfig.getAdmissionRate(), stormGuard.getSessionRate());
+    }
+
+    private static class PriorityLevel {
+        private final Map<Long, ArrayDeque<ParkedSession>> queuesByUser = new HashMap<>();
+        private final ArrayDeque<Long> userOrder = new ArrayDeque<>();
+
+        void add(ParkedSession session) {
+            ArrayDeque<ParkedSession> queue = queuesByUser.get(session.userId);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queuesByUser.put(session.userId, queue);
+                userOrder.addLast(session.userId);
+            }
+            queue.addLast(session);
+        }
+
+        void remove(ParkedSession session) {
+            ArrayDeque<ParkedSession> queue = queuesByUser.get(session.userId);
+            if (queue != null) {
+                queue.remove(session);
+                if (queue.isEmpty()) {
+                    queuesByUser.remove(session.userId);
+                    userOrder.remove(session.userId);
+                }
+            }
+        }
+
+        int size() {
+            int total = 0;
+            for (ArrayDeque<ParkedSession> queue : queuesByUser.values()) {
+                total += queue.size();
+            }
+            return total;
+        }
+    }
+
+    private static class ParkedSession {
+        private final String sessionId;
+        private final long userId;
+        private final int priority;
+        private final long eligibleAt;
+
+        ParkedSession(String sessionId, long userId, int priority, long eligibleAt) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.priority = priority;
+            this.eligibleAt = eligibleAt;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package net.jirayu.fortify.admission;
+
+import net.jirayu.fortify.config.ConnectionLimitConfig;
+import net.jirayu.fortify.ratelimit.TokenBucket;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ConnectionLimiter {
+    private static final Logger log = LoggerFactory.getLogger(ConnectionLimiter.class);
+
+    public static final int CLOSE_POLICY_VIOLATION = 1008;
+
+    private final ConnectionLimitConfig config;
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong rejectedByIp = new AtomicLong();
+    private final AtomicLong rejectedByUser = new AtomicLong();
+    private final AtomicLong rejectedBySessions = new AtomicLong();
+
+    public ConnectionLimiter(ConnectionLimitConfig config, FortifyScheduler scheduler) {
+        this.config = config;
+
+        if (config.isEnabled()) {
+            scheduler.scheduleWithFixedDelay("connection limiter cleanup", this::cleanup, 60000, 60000);
+
+            log.info("Connection limiter initialized: {}/min per user, {}/min per IP, max {} sessions per user",
+                    config.getUserConnectionsPerMinute(), config.getIpConnectionsPerMinute(),
+                    config.getMaxSessionsPerUser());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public boolean tryAcquireIp(String ip) {
+        TokenBucket bucket = ipBuckets.computeIfAbsent(ip,
+                k -> new TokenBucket(config.getIpBurst(), config.getIpConnectionsPerMinute()));
+        if (bucket.tryConsume()) {
+            return true;
+        }
+        rejectedByIp.incrementAndGet();
+        return false;
+    }
+
+    public long getIpRetryAfterSeconds(String ip) {
+        TokenBucket bucket = ipBuckets.get(ip);
+        return bucket != null ? Math.max(1, Math.min(3600, bucket.getSecondsUntilAvailable())) : 1;
+    }
+
+    public boolean tryAcquireUser(long userId) {
+        TokenBucket bucket = userBuckets.computeIfAbsent(userId,
+                k -> new TokenBucket(config.getUserBurst(), config.getUserConnectionsPerMinute()));
+        if (bucket.tryConsume()) {
+            return true;
+        }
+        rejectedByUser.incrementAndGet();
+        return false;
+    }
+
+    public boolean isSessionLimitReached(int currentSessions) {
+        if (config.getMaxSessionsPerUser() > 0 && currentSessions >= config.getMaxSessionsPerUser()) {
+            rejectedBySessions.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("trackedUsers", userBuckets.size());
+        info.put("trackedIps", ipBuckets.size());
+        info.put("rejectedByIp", rejectedByIp.get());
+        info.put("rejectedByUser", rejectedByUser.get());
+        info.put("rejectedBySessions", rejectedBySessions.get());
+        return info;
+    }
+
+    private void cleanup() {
+        userBuckets.values().removeIf(TokenBucket::isFull);
+        ipBuckets.values().removeIf(TokenBucket::isFull);
+    }
+}
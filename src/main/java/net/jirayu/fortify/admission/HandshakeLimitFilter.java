@@ -0,0 +1,61 @@
+package net.jirayu.fortify.admission;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.jirayu.fortify.FortifyTools;
+import net.jirayu.fortify.config.BypassConfig;
+import net.jirayu.fortify.config.ProxyConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+@Component
+public class HandshakeLimitFilter implements Filter {
+    private static final Logger log = LoggerFactory.getLogger(HandshakeLimitFilter.class);
+    private static final String WEBSOCKET_PATH = "/v4/websocket";
+
+    private final ConnectionLimiter connectionLimiter;
+    private final ProxyConfig proxyConfig;
+    private final BypassConfig bypassConfig;
+
+    public HandshakeLimitFilter(ConnectionLimiter connectionLimiter,
+                                ProxyConfig proxyConfig,
+                                BypassConfig bypassConfig) {
+        this.connectionLimiter = connectionLimiter;
+        this.proxyConfig = proxyConfig;
+        this.bypassConfig = bypassConfig;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (connectionLimiter.isEnabled() &&
+                request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+
+            if (WEBSOCKET_PATH.equals(httpRequest.getRequestURI())) {
+                String ip = FortifyTools.getIp(httpRequest, proxyConfig);
+
+                if (!Arrays.asList(bypassConfig.getAllowedIps()).contains(ip) && !connectionLimiter.tryAcquireIp(ip)) {
+                    HttpServletResponse httpResponse = (HttpServletResponse) response;
+                    httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    httpResponse.setHeader("Retry-After", String.valueOf(connectionLimiter.getIpRetryAfterSeconds(ip)));
+                    log.warn("Rejected WebSocket handshake from IP {} (user {}): connection rate exceeded",
+                            ip, httpRequest.getHeader("User-Id"));
+                    return;
+                }
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,207 @@
+package net.jirayu.fortify.admission;
+
+import net.jirayu.fortify.config.StormConfig;
+import net.jirayu.fortify.ratelimit.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ResumeStormGuard {
+    private static final Logger log = LoggerFactory.getLogger(ResumeStormGuard.class);
+
+    public static final int PRIORITY_CLIENT = 0;
+    public static final int PRIORITY_RESUMED = 1;
+    public static final int PRIORITY_NEW = 2;
+    public static final int PRIORITY_LEVELS = 3;
+
+    private final StormConfig config;
+    private final Map<String, Integer> sessionPriorities = new ConcurrentHashMap<>();
+    private final long[] openSeconds;
+    private final int[] openCounts;
+    private final AtomicLong playersDeferred = new AtomicLong();
+    private volatile boolean active = false;
+    private volatile TokenBucket playerBucket;
+    private long stormStartedAt;
+    private long lastBusyAt;
+    private long deferredAtLastUpdate;
+    private long stormSessions;
+    private long stormResumed;
+    private long stormCount;
+    private long lastRecoveryMillis = -1;
+    private long lastStormSessions;
+    private long lastStormPlayersDeferred;
+
+    public ResumeStormGuard(StormConfig config) {
+        this.config = config;
+        int window = Math.max(1, config.getBurstWindow());
+        this.openSeconds = new long[window];
+        this.openCounts = new int[window];
+
+        if (config.isEnabled()) {
+            log.info("Resume storm guard enabled: {} opens in {}s starts a storm, admitting {} sessions/s and {} players/s",
+                    config.getBurstThreshold(), window, config.getSessionRate(), config.getPlayerRate());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public boolean recordOpen(String sessionId, long userId, boolean resumed) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+
+        int priority = isPriorityClient(userId) ? PRIORITY_CLIENT : resumed ? PRIORITY_RESUMED : PRIORITY_NEW;
+        sessionPriorities.put(sessionId, priority);
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long second = now / 1000;
+            int slot = (int) (second % openSeconds.length);
+            if (openSeconds[slot] != second) {
+                openSeconds[slot] = second;
+                openCounts[slot] = 0;
+            }
+            openCounts[slot]++;
+
+            int opens = countOpens(second);
+            if (opens >= config.getBurstThreshold()) {
+                lastBusyAt = now;
+                if (!active) {
+                    startStorm(now, opens);
+                }
+            }
+
+            if (active) {
+                stormSessions++;
+                if (resumed) {
+                    stormResumed++;
+                }
+            }
+        }
+
+        return active;
+    }
+
+    public void forget(String sessionId) {
+        sessionPriorities.remove(sessionId);
+    }
+
+    public int getPriority(String sessionId) {
+        return sessionPriorities.getOrDefault(sessionId, PRIORITY_NEW);
+    }
+
+    public boolean tryAdmitPlayer(String sessionId) {
+        if (!active || getPriority(sessionId) == PRIORITY_CLIENT) {
+            return true;
+        }
+
+        TokenBucket bucket = playerBucket;
+        if (bucket == null || bucket.tryConsume()) {
+            return true;
+        }
+
+        playersDeferred.incrementAndGet();
+        return false;
+    }
+
+    public long getPlayerRetryAfterSeconds() {
+        TokenBucket bucket = playerBucket;
+        long wait = bucket != null ? Math.min(60, bucket.getSecondsUntilAvailable()) : 0;
+        return Math.max(1, (wait * 1000 + getSessionJitterMillis() + 999) / 1000);
+    }
+
+    public long getSessionJitterMillis() {
+        return config.getJitter() > 0 ? ThreadLocalRandom.current().nextLong(config.getJitter() + 1L) : 0;
+    }
+
+    public double getSessionRate() {
+        return config.getSessionRate();
+    }
+
+    public synchronized void update(int backlog) {
+        if (!active) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (backlog > 0 || playersDeferred.get() != deferredAtLastUpdate) {
+            deferredAtLastUpdate = playersDeferred.get();
+            lastBusyAt = now;
+            return;
+        }
+
+        if (now - lastBusyAt >= config.getQuietPeriod() * 1000L &&
+                countOpens(now / 1000) < Math.max(1, config.getBurstThreshold() / 2)) {
+            endStorm();
+        }
+    }
+
+    public synchronized Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("active", active);
+        info.put("storms", stormCount);
+        info.put("lastRecoveryMillis", lastRecoveryMillis);
+        info.put("lastStormSessions", lastStormSessions);
+        info.put("lastStormPlayersDeferred", lastStormPlayersDeferred);
+        if (active) {
+            info.put("elapsedMillis", System.currentTimeMillis() - stormStartedAt);
+            info.put("sessions", stormSessions);
+            info.put("resumedSessions", stormResumed);
+            info.put("playersDeferred", playersDeferred.get());
+        }
+        return info;
+    }
+
+    private void startStorm(long now, int opens) {
+        active = true;
+        stormCount++;
+        stormStartedAt = now;
+        stormSessions = 0;
+        stormResumed = 0;
+        playersDeferred.set(0);
+        deferredAtLastUpdate = 0;
+        double playerRate = Math.max(0.1, config.getPlayerRate());
+        playerBucket = new TokenBucket(playerRate, playerRate * 60);
+        log.warn("Reconnect storm detected: {} sessions opened in {}s, pacing admissions",
+                opens, openSeconds.length);
+    }
+
+    private void endStorm() {
+        active = false;
+        playerBucket = null;
+        lastRecoveryMillis = lastBusyAt - stormStartedAt;
+        lastStormSessions = stormSessions;
+        lastStormPlayersDeferred = playersDeferred.get();
+        log.info("Reconnect storm over: recovered in {}ms, {} sessions ({} resumed), {} player creations deferred",
+                lastRecoveryMillis, stormSessions, stormResumed, lastStormPlayersDeferred);
+    }
+
+    private int countOpens(long second) {
+        int opens = 0;
+        for (int i = 0; i < openSeconds.length; i++) {
+            if (second - openSeconds[i] < openSeconds.length) {
+                opens += openCounts[i];
+            }
+        }
+        return opens;
+    }
+
+    private boolean isPriorityClient(long userId) {
+        return Arrays.asList(config.getPriorityClients()).contains(userId);
+    }
+}
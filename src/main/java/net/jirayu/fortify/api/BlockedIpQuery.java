@@ -0,0 +1,146 @@
+package net.jirayu.fortify.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import net.jirayu.fortify.ip.IpAddresses;
+import net.jirayu.fortify.ip.IpIntervalSet;
+import net.jirayu.fortify.notification.SecurityEventJson;
+import net.jirayu.fortify.ratelimit.BlockTable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.NavigableSet;
+
+class BlockedIpQuery implements StreamingResponseBody {
+    private final BlockTable table;
+    private final int limit;
+    private final BlockTable.Block cursor;
+    private final IpIntervalSet cidr;
+    private final String reason;
+    private final long minRemainingMillis;
+    private final long maxRemainingMillis;
+    private final boolean descending;
+
+    private BlockedIpQuery(BlockTable table, int limit, BlockTable.Block cursor, IpIntervalSet cidr, String reason,
+                           long minRemainingMillis, long maxRemainingMillis, boolean descending) {
+        this.table = table;
+        this.limit = limit;
+        this.cursor = cursor;
+        this.cidr = cidr;
+        this.reason = reason;
+        this.minRemainingMillis = minRemainingMillis;
+        this.maxRemainingMillis = maxRemainingMillis;
+        this.descending = descending;
+    }
+
+    static BlockedIpQuery parse(BlockTable table, int limit, String cursor, String cidr, String reason,
+                                Long minRemaining, Long maxRemaining, String order) {
+        if (!"asc".equals(order) && !"desc".equals(order)) {
+            throw new IllegalArgumentException("order must be asc or desc");
+        }
+        if (minRemaining != null && minRemaining < 0 || maxRemaining != null && maxRemaining < 0) {
+            throw new IllegalArgumentException("minRemaining and maxRemaining must not be negative");
+        }
+
+        IpIntervalSet cidrSet = null;
+        if (cidr != null && !cidr.isBlank()) {
+            IpIntervalSet.Builder builder = new IpIntervalSet.Builder();
+            for (String value : cidr.split(",")) {
+                String trimmed = value.trim();
+                if (!builder.add(trimmed, 0, trimmed.length())) {
+                    throw new IllegalArgumentException("Invalid address, range or CIDR: " + trimmed);
+                }
+            }
+            cidrSet = builder.build();
+        }
+
+        return new BlockedIpQuery(table, limit, parseCursor(cursor), cidrSet,
+                reason == null || reason.isBlank() ? null : reason,
+                minRemaining == null ? 0 : minRemaining * 1000L,
+                maxRemaining == null ? Long.MAX_VALUE : maxRemaining * 1000L,
+                "desc".equals(order));
+    }
+
+    private static BlockTable.Block parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int separator = cursor.indexOf('_');
+        try {
+            if (separator > 0) {
+                return BlockTable.key(Long.parseLong(cursor.substring(0, separator)), cursor.substring(separator + 1));
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        long now = System.currentTimeMillis();
+        NavigableSet<BlockTable.Block> range = table.byExpiry(
+                deadline(now, minRemainingMillis), deadline(now, maxRemainingMillis), descending);
+        if (cursor != null) {
+            range = range.tailSet(cursor, false);
+        }
+
+        try (JsonGenerator generator = SecurityEventJson.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("count", table.size());
+            generator.writeArrayFieldStart("items");
+
+            BlockTable.Block last = null;
+            boolean more = false;
+            int written = 0;
+            Iterator<BlockTable.Block> iterator = range.iterator();
+            while (iterator.hasNext()) {
+                BlockTable.Block block = iterator.next();
+                if (!matches(block)) {
+                    continue;
+                }
+                if (written == limit) {
+                    more = true;
+                    break;
+                }
+                writeBlock(generator, block, now);
+                last = block;
+                written++;
+            }
+
+            generator.writeEndArray();
+            if (more) {
+                generator.writeStringField("nextCursor", last.getExpiresAt() + "_" + last.getIp());
+            } else {
+                generator.writeFieldName("nextCursor");
+                generator.writeNull();
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private static long deadline(long now, long remainingMillis) {
+        return remainingMillis > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + remainingMillis;
+    }
+
+    private boolean matches(BlockTable.Block block) {
+        if (reason != null && !reason.equals(block.getReason())) {
+            return false;
+        }
+        if (cidr != null) {
+            byte[] address = IpAddresses.parse(block.getIp());
+            return address != null && cidr.contains(address);
+        }
+        return true;
+    }
+
+    private static void writeBlock(JsonGenerator generator, BlockTable.Block block, long now) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("ip", block.getIp());
+        generator.writeStringField("reason", block.getReason());
+        generator.writeNumberField("blockedAt", block.getBlockedAt());
+        generator.writeNumberField("expiresAt", block.getExpiresAt());
+        generator.writeNumberField("remaining", Math.max(0, block.getExpiresAt() - now) / 1000);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,213 @@
+package net.jirayu.fortify.api;
+
+import net.jirayu.fortify.config.ApiConfig;
+import net.jirayu.fortify.notification.SecurityEventStream;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EventStreamBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(EventStreamBroadcaster.class);
+    private static final long DISPATCH_INTERVAL = 100;
+    private static final int MAX_EVENTS_PER_DRAIN = 256;
+    private static final int MAX_SUBSCRIBERS = 256;
+
+    private final ApiConfig config;
+    private final SecurityEventStream stream;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int maxSubscribers;
+    private final ExecutorService writers;
+    private final AtomicLong slowDisconnects = new AtomicLong();
+
+    // Each subscriber has at most one write running, so one writer thread per subscriber means a client that stops
+    // reading can only hold its own thread until the container times the write out.
+    public EventStreamBroadcaster(ApiConfig config, SecurityEventStream stream, FortifyScheduler scheduler) {
+        this.config = config;
+        this.stream = stream;
+        this.maxSubscribers = Math.min(MAX_SUBSCRIBERS, Math.max(1, config.getMaxEventSubscribers()));
+        this.writers = scheduler.newExecutor("fortify-event-writer-", maxSubscribers);
+
+        scheduler.scheduleWithFixedDelay("event dispatch", this::dispatch, DISPATCH_INTERVAL, DISPATCH_INTERVAL);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+
+        long last = stream.getLastSequence();
+        long cursor = lastEventId != null ? Math.min(lastEventId + 1, last + 1) : last + 1;
+        long missed = 0;
+        long oldest = stream.getOldestSequence();
+        if (cursor < oldest) {
+            missed = oldest - cursor;
+            cursor = oldest;
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, cursor, missed);
+        emitter.onCompletion(() -> {
+            subscriber.completed = true;
+            subscriber.close(null);
+        });
+        emitter.onTimeout(() -> subscriber.close(null));
+        emitter.onError(error -> subscriber.close(null));
+
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        log.debug("Event stream subscriber connected at sequence {}, {} subscribers", cursor, subscribers.size());
+        return emitter;
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("subscribers", subscribers.size());
+        info.put("maxSubscribers", maxSubscribers);
+        info.put("lastSequence", stream.getLastSequence());
+        info.put("oldestSequence", stream.getOldestSequence());
+        info.put("bufferSize", stream.getCapacity());
+        info.put("slowDisconnects", slowDisconnects.get());
+        return info;
+    }
+
+    private void dispatch() {
+        long last = stream.getLastSequence();
+        long maxLag = Math.min(config.getEventSubscriberLag(), stream.getCapacity());
+        long now = System.currentTimeMillis();
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.closeReason != null) {
+                continue;
+            }
+
+            long lag = last - subscriber.cursor + 1;
+            if (lag > maxLag) {
+                slowDisconnects.incrementAndGet();
+                log.debug("Disconnecting slow event stream subscriber {} events behind", lag);
+                subscriber.close("slow consumer");
+            } else if (lag > 0 || now - subscriber.lastSent >= config.getEventKeepAlive()) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile long missed;
+        private volatile long lastSent = 0;
+        private volatile String closeReason;
+        private volatile boolean completed;
+        private volatile boolean finished;
+
+        Subscriber(SseEmitter emitter, long cursor, long missed) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.missed = missed;
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        // Closed subscribers stay counted against the limit until their writer has returned.
+        void close(String reason) {
+            if (closeReason == null) {
+                closeReason = reason != null ? reason : "closed";
+            }
+            schedule();
+        }
+
+        private void drain() {
+            try {
+                if (closeReason != null) {
+                    finish();
+                    return;
+                }
+
+                long now = System.currentTimeMillis();
+                if (missed > 0) {
+                    emitter.send(SseEmitter.event().name("gap").data("{\"missed\":" + missed + "}"));
+                    missed = 0;
+                    lastSent = now;
+                }
+
+                long last = stream.getLastSequence();
+                int sent = 0;
+                while (sent < MAX_EVENTS_PER_DRAIN && cursor <= last && closeReason == null) {
+                    SecurityEventStream.Entry entry = stream.get(cursor);
+                    if (entry == null) {
+                        if (stream.isOverwritten(cursor)) {
+                            slowDisconnects.incrementAndGet();
+                            closeReason = "slow consumer";
+                        }
+                        break;
+                    }
+
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(entry.getSequence()))
+                            .name(entry.getEvent().getType().name().toLowerCase())
+                            .data(entry.getJson()));
+                    cursor = entry.getSequence() + 1;
+                    sent++;
+                }
+
+                if (sent > 0) {
+                    lastSent = now;
+                } else if (now - lastSent >= config.getEventKeepAlive()) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                    lastSent = now;
+                }
+
+                if (closeReason != null) {
+                    finish();
+                }
+            } catch (Exception e) {
+                closeReason = "closed";
+                finished = true;
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+
+            if (!finished && (closeReason != null || cursor <= stream.getLastSequence())) {
+                schedule();
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            subscribers.remove(this);
+            if (completed) {
+                return;
+            }
+            try {
+                if ("slow consumer".equals(closeReason)) {
+                    emitter.send(SseEmitter.event().name("overflow").data("{\"reason\":\"slow consumer\"}"));
+                }
+            } catch (Exception ignored) {
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -1,20 +1,49 @@
 package net.jirayu.fortify.api;
 
-import dev.arbjerg.lavalink.api.ISocketContext;
-import net.jirayu.fortify.FortifySocket;
+import net.jirayu.fortify.admission.AdmissionQueue;
+import net.jirayu.fortify.admission.ConnectionLimiter;
+import net.jirayu.fortify.admission.ResumeStormGuard;
+import net.jirayu.fortify.audit.AuditEventType;
+import net.jirayu.fortify.audit.AuditLog;
+import net.jirayu.fortify.audit.AuditReader;
+import net.jirayu.fortify.audit.AuditRecord;
+import net.jirayu.fortify.blocklist.BlocklistService;
 import net.jirayu.fortify.config.ApiConfig;
 import net.jirayu.fortify.config.BypassConfig;
 import net.jirayu.fortify.config.PathBlockConfig;
-import net.jirayu.fortify.config.RateLimitConfig;
+import net.jirayu.fortify.geoip.GeoIpResult;
+import net.jirayu.fortify.geoip.GeoIpService;
+import net.jirayu.fortify.heavyhitter.HeavyHitterTracker;
+import net.jirayu.fortify.ip.IpAddresses;
+import net.jirayu.fortify.loadshed.LatencyShedder;
+import net.jirayu.fortify.monitor.ResourceMonitor;
+import net.jirayu.fortify.notification.NotificationService;
+import net.jirayu.fortify.playerlimit.PlayerAccounting;
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.policy.PolicyValidationException;
+import net.jirayu.fortify.policy.ShadowPolicies;
+import net.jirayu.fortify.policy.ShadowPolicy;
+import net.jirayu.fortify.ratelimit.ConcurrencyLimiter;
 import net.jirayu.fortify.ratelimit.RateLimiter;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import net.jirayu.fortify.session.SessionRegistry;
+import net.jirayu.fortify.session.SessionSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -23,24 +52,71 @@ public class FortifyApiController {
     private static final Logger log = LoggerFactory.getLogger(FortifyApiController.class);
     
     private final RateLimiter rateLimiter;
-    private final FortifySocket fortifySocket;
-    private final RateLimitConfig rateLimitConfig;
+    private final PolicyStore policyStore;
     private final BypassConfig bypassConfig;
     private final ApiConfig apiConfig;
     private final PathBlockConfig pathBlockConfig;
+    private final GeoIpService geoIpService;
+    private final BlocklistService blocklistService;
+    private final AdmissionQueue admissionQueue;
+    private final PlayerAccounting playerAccounting;
+    private final ConnectionLimiter connectionLimiter;
+    private final ResumeStormGuard stormGuard;
+    private final SessionRegistry sessionRegistry;
+    private final ResourceMonitor resourceMonitor;
+    private final LatencyShedder latencyShedder;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final NotificationService notificationService;
+    private final EventStreamBroadcaster eventStream;
+    private final HeavyHitterTracker heavyHitters;
+    private final AuditLog auditLog;
+    private final ShadowPolicies shadowPolicies;
+    private final FortifyScheduler scheduler;
+    private volatile Map<String, Object> cachedStatus;
+    private volatile long cachedStatusAt;
 
     public FortifyApiController(RateLimiter rateLimiter, 
-                               FortifySocket fortifySocket,
-                               RateLimitConfig rateLimitConfig,
+                               PolicyStore policyStore,
                                BypassConfig bypassConfig,
                                ApiConfig apiConfig,
-                               PathBlockConfig pathBlockConfig) {
+                               PathBlockConfig pathBlockConfig,
+                               GeoIpService geoIpService,
+                               BlocklistService blocklistService,
+                               AdmissionQueue admissionQueue,
+                               PlayerAccounting playerAccounting,
+                               ConnectionLimiter connectionLimiter,
+                               ResumeStormGuard stormGuard,
+                               SessionRegistry sessionRegistry,
+                               ResourceMonitor resourceMonitor,
+                               LatencyShedder latencyShedder,
+                               ConcurrencyLimiter concurrencyLimiter,
+                               NotificationService notificationService,
+                               EventStreamBroadcaster eventStream,
+                               HeavyHitterTracker heavyHitters,
+                               AuditLog auditLog,
+                               ShadowPolicies shadowPolicies,
+                               FortifyScheduler scheduler) {
         this.rateLimiter = rateLimiter;
-        this.fortifySocket = fortifySocket;
-        this.rateLimitConfig = rateLimitConfig;
+        this.policyStore = policyStore;
         this.bypassConfig = bypassConfig;
         this.apiConfig = apiConfig;
         this.pathBlockConfig = pathBlockConfig;
+        this.geoIpService = geoIpService;
+        this.blocklistService = blocklistService;
+        this.admissionQueue = admissionQueue;
+        this.playerAccounting = playerAccounting;
+        this.connectionLimiter = connectionLimiter;
+        this.stormGuard = stormGuard;
+        this.sessionRegistry = sessionRegistry;
+        this.resourceMonitor = resourceMonitor;
+        this.latencyShedder = latencyShedder;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.notificationService = notificationService;
+        this.eventStream = eventStream;
+        this.heavyHitters = heavyHitters;
+        this.auditLog = auditLog;
+        this.shadowPolicies = shadowPolicies;
+        this.scheduler = scheduler;
     }
     
     private ResponseEntity<?> checkApiKey(String apiKey) {
@@ -59,28 +135,51 @@ public class FortifyApiController {
     }
 
     @GetMapping("/status")
-    public ResponseEntity<?> getStatus(@RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+    public ResponseEntity<?> getStatus(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "0") int minPlayers,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
         ResponseEntity<?> authCheck = checkApiKey(apiKey);
         if (authCheck != null) return authCheck;
-        
+
+        SessionSnapshot snapshot = sessionRegistry.getSnapshot();
+        int pageSize = Math.max(0, Math.min(limit, apiConfig.getMaxPageSize()));
+
+        Map<String, Object> status = new HashMap<>(getCachedStatus());
+        status.put("activeConnections", snapshot.getSessionCount());
+        status.put("connections", snapshot.page(offset, pageSize, userId, minPlayers));
+
+        return ResponseEntity.ok(status);
+    }
+
+    private Map<String, Object> getCachedStatus() {
+        Map<String, Object> status = cachedStatus;
+        if (status != null && System.currentTimeMillis() - cachedStatusAt < apiConfig.getStatusRefreshInterval()) {
+            return status;
+        }
+
+        synchronized (this) {
+            if (cachedStatus != null && System.currentTimeMillis() - cachedStatusAt < apiConfig.getStatusRefreshInterval()) {
+                return cachedStatus;
+            }
+            status = buildStatus();
+            cachedStatus = status;
+            cachedStatusAt = System.currentTimeMillis();
+            return status;
+        }
+    }
+
+    private Map<String, Object> buildStatus() {
         Map<String, Object> status = new HashMap<>();
-        
-        status.put("activeConnections", fortifySocket.getConnectedSockets().size());
-
-        Map<String, Object> connectionsInfo = new HashMap<>();
-        connectionsInfo.put("total", fortifySocket.getConnectedSockets().size());
-        fortifySocket.getConnectedSockets().forEach((socketId, socketContext) -> {
-            connectionsInfo.put("userId", socketContext.getUserId());
-            connectionsInfo.put("sessionId", socketContext.getSessionId());
-            connectionsInfo.put("players", socketContext.getPlayers().size());
-            connectionsInfo.put("isAllowed", fortifySocket.isAllowedId(socketContext.getUserId()));
-        });
-        status.put("connections", connectionsInfo);
-        
+
         Map<String, Object> rateLimitInfo = new HashMap<>();
-        rateLimitInfo.put("enabled", rateLimitConfig.isEnabled());
-        rateLimitInfo.put("maxRequests", rateLimitConfig.getMaxRequests());
-        rateLimitInfo.put("duration", rateLimitConfig.getDuration());
+        FortifyPolicy policy = policyStore.get();
+        rateLimitInfo.put("enabled", policy.getRateLimit().isEnabled());
+        rateLimitInfo.put("maxRequests", policy.getRateLimit().getMaxRequests());
+        rateLimitInfo.put("effectiveMaxRequests", rateLimiter.getMaxRequests());
+        rateLimitInfo.put("duration", policy.getRateLimit().getDuration());
         status.put("rateLimit", rateLimitInfo);
         
         Map<String, Object> bypassInfo = new HashMap<>();
@@ -89,8 +188,8 @@ public class FortifyApiController {
         status.put("bypass", bypassInfo);
 
         Map<String, Object> blockedInfo = new HashMap<>();
-        blockedInfo.put("blockedIpCount", rateLimiter.getBlockedIpsWithExpiryTime().size());
-        blockedInfo.put("blockDuration", rateLimitConfig.getBlockDuration());
+        blockedInfo.put("blockedIpCount", rateLimiter.getBlockedCount());
+        blockedInfo.put("blockDuration", policy.getRateLimit().getBlockDuration());
         status.put("blocked", blockedInfo);
 
         Map<String, Object> pathBlockInfo = new HashMap<>();
@@ -98,8 +197,282 @@ public class FortifyApiController {
         pathBlockInfo.put("blockedPaths", pathBlockConfig.getBlockedPaths());
         pathBlockInfo.put("blockedPathPatterns", pathBlockConfig.getBlockedPathPatterns());
         status.put("pathBlock", pathBlockInfo);
-        
-        return ResponseEntity.ok(status);
+
+        status.put("geoIp", geoIpService.getDatabaseInfo());
+        status.put("blocklist", blocklistService.getInfo());
+        status.put("admission", admissionQueue.getInfo());
+        status.put("players", playerAccounting.getInfo());
+        status.put("connectionLimit", connectionLimiter.getInfo());
+        status.put("storm", stormGuard.getInfo());
+        status.put("resources", resourceMonitor.getInfo());
+        status.put("loadShed", latencyShedder.getInfo());
+        status.put("concurrency", concurrencyLimiter.getInfo());
+        status.put("notifications", notificationService.getInfo());
+        status.put("eventStream", eventStream.getInfo());
+        status.put("heavyHitters", heavyHitters.getInfo());
+        status.put("audit", auditLog.getInfo());
+        status.put("policyVersion", policy.getVersion());
+        status.put("shadowPolicies", shadowPolicies.getInfo());
+        status.put("executors", scheduler.getInfo());
+
+        return status;
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<?> getTop(
+            @RequestParam(defaultValue = "5m") String window,
+            @RequestParam(required = false) String by,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        int minutes;
+        switch (window) {
+            case "1m":
+                minutes = 1;
+                break;
+            case "5m":
+                minutes = 5;
+                break;
+            case "15m":
+                minutes = 15;
+                break;
+            default:
+                return ResponseEntity.badRequest().body("window must be 1m, 5m or 15m");
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", window);
+        for (HeavyHitterTracker.Dimension dimension : HeavyHitterTracker.Dimension.values()) {
+            String name = dimension.name().toLowerCase(Locale.ROOT);
+            if (by == null || by.equals(name)) {
+                result.put(name, heavyHitters.getTop(minutes, dimension, limit));
+            }
+        }
+        if (result.size() == 1) {
+            return ResponseEntity.badRequest().body("by must be ip, user or route");
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<?> queryAudit(
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        List<AuditRecord> records;
+        try {
+            AuditEventType eventType = type != null ? AuditEventType.valueOf(type.toUpperCase(Locale.ROOT)) : null;
+            records = auditLog.query(new AuditReader.Filter(from, to, ip, eventType),
+                    Math.max(0, Math.min(limit, apiConfig.getMaxPageSize())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error reading audit log", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Error reading audit log: " + e.getMessage());
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (AuditRecord record : records) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("timestamp", record.getTimestamp());
+            item.put("type", record.getType() != null ? record.getType().name() : null);
+            item.put("ip", record.getIp());
+            item.put("detail", record.getDetail());
+            item.put("value", record.getValue());
+            result.add(item);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/policy")
+    public ResponseEntity<?> getPolicy(
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        return ResponseEntity.ok(policyStore.get().getInfo());
+    }
+
+    @GetMapping("/policy/versions")
+    public ResponseEntity<?> getPolicyVersions(
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        return ResponseEntity.ok(policyStore.getVersions());
+    }
+
+    @PostMapping("/policy/validate")
+    public ResponseEntity<?> validatePolicy(
+            @RequestBody Map<String, Object> changes,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            List<String> errors = policyStore.get().toBuilder().setAll("", changes).validate();
+            result.put("valid", errors.isEmpty());
+            result.put("errors", errors);
+        } catch (IllegalArgumentException e) {
+            result.put("valid", false);
+            result.put("errors", List.of(e.getMessage()));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/policy")
+    public ResponseEntity<?> applyPolicy(
+            @RequestBody Map<String, Object> changes,
+            @RequestParam(required = false) Long expectedVersion,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        try {
+            FortifyPolicy policy = policyStore.apply(policyStore.get().toBuilder().setAll("", changes),
+                    expectedVersion, "api");
+            return ResponseEntity.ok(policy.getInfo());
+        } catch (PolicyValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("errors", e.getErrors()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("errors", List.of(e.getMessage())));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/policy/rollback")
+    public ResponseEntity<?> rollbackPolicy(
+            @RequestParam(required = false) Long version,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        try {
+            return ResponseEntity.ok(policyStore.rollback(version).getInfo());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/policy/shadow")
+    public ResponseEntity<?> getShadowPolicies(
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        return ResponseEntity.ok(shadowPolicies.getInfo());
+    }
+
+    @PostMapping("/policy/shadow/{name}")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> startShadowPolicy(
+            @PathVariable String name,
+            @RequestBody Map<String, Object> body,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        Object changes = body.getOrDefault("policy", Map.of());
+        Object pathPatterns = body.getOrDefault("pathPatterns", List.of());
+        if (!(changes instanceof Map) || !(pathPatterns instanceof List)) {
+            return ResponseEntity.badRequest().body(Map.of("errors",
+                    List.of("policy must be an object and pathPatterns a list")));
+        }
+
+        try {
+            List<String> patterns = new ArrayList<>();
+            for (Object pattern : (List<Object>) pathPatterns) {
+                patterns.add(String.valueOf(pattern));
+            }
+            return ResponseEntity.ok(shadowPolicies.start(name, (Map<String, Object>) changes, patterns).getInfo());
+        } catch (PolicyValidationException e) {
+            return ResponseEntity.badRequest().body(Map.of("errors", e.getErrors()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("errors", List.of(e.getMessage())));
+        }
+    }
+
+    @PostMapping("/policy/shadow/{name}/stop")
+    public ResponseEntity<?> stopShadowPolicy(
+            @PathVariable String name,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        ShadowPolicy stopped = shadowPolicies.stop(name);
+        if (stopped == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No shadow policy named " + name);
+        }
+        return ResponseEntity.ok(stopped.getInfo());
+    }
+
+    @GetMapping("/events")
+    public Object streamEvents(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        SseEmitter emitter = eventStream.subscribe(lastEventId != null ? lastEventId : since);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Too many event stream subscribers");
+        }
+        return emitter;
+    }
+
+    @GetMapping("/resources")
+    public ResponseEntity<?> getResources(
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        return ResponseEntity.ok(resourceMonitor.getInfo());
+    }
+
+    @GetMapping("/geoip/{ip}")
+    public ResponseEntity<?> lookupGeoIp(
+            @PathVariable String ip,
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        if (!geoIpService.isEnabled()) {
+            return ResponseEntity.badRequest().body("GeoIP lookup is disabled");
+        }
+
+        GeoIpResult geoIp = geoIpService.lookup(ip);
+        Map<String, Object> result = new HashMap<>();
+        result.put("ip", ip);
+        result.put("country", geoIp.getCountry());
+        result.put("asn", geoIp.getAsn() >= 0 ? geoIp.getAsn() : null);
+        result.put("asnOrganization", geoIp.getAsnOrganization());
+        result.put("blocked", geoIpService.isBlocked(geoIp));
+        result.put("limitedNetwork", geoIpService.getLimitedNetworkKey(geoIp));
+
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/blocklist/reload")
+    public ResponseEntity<?> reloadBlocklist(
+            @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
+        ResponseEntity<?> authCheck = checkApiKey(apiKey);
+        if (authCheck != null) return authCheck;
+
+        blocklistService.reload();
+        return ResponseEntity.ok(blocklistService.getInfo());
     }
 
     @GetMapping("/pathblock/paths")
@@ -130,6 +503,7 @@ public class FortifyApiController {
         String[] newPaths = Arrays.copyOf(currentPaths, currentPaths.length + 1);
         newPaths[currentPaths.length] = path;
         pathBlockConfig.setBlockedPaths(newPaths);
+        auditLog.record(AuditEventType.PATH_RULE_ADDED, null, path, 0);
 
         return ResponseEntity.ok("Path " + path + " has been added to blocked paths");
     }
@@ -150,6 +524,7 @@ public class FortifyApiController {
             String[] newPatterns = Arrays.copyOf(currentPatterns, currentPatterns.length + 1);
             newPatterns[currentPatterns.length] = pattern;
             pathBlockConfig.setBlockedPathPatterns(newPatterns);
+            auditLog.record(AuditEventType.PATH_RULE_ADDED, null, pattern, 1);
 
             return ResponseEntity.ok("Pattern " + pattern + " has been added to blocked patterns");
         } catch (IllegalArgumentException e) {
@@ -173,6 +548,7 @@ public class FortifyApiController {
                 .filter(p -> !p.equals(path))
                 .toArray(String[]::new);
         pathBlockConfig.setBlockedPaths(newPaths);
+        auditLog.record(AuditEventType.PATH_RULE_REMOVED, null, path, 0);
 
         return ResponseEntity.ok("Path " + path + " has been removed from blocked paths");
     }
@@ -193,6 +569,7 @@ public class FortifyApiController {
                 .filter(p -> !p.equals(pattern))
                 .toArray(String[]::new);
         pathBlockConfig.setBlockedPathPatterns(newPatterns);
+        auditLog.record(AuditEventType.PATH_RULE_REMOVED, null, pattern, 1);
 
         return ResponseEntity.ok("Pattern " + pattern + " has been removed from blocked patterns");
     }
@@ -203,9 +580,14 @@ public class FortifyApiController {
             @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
         ResponseEntity<?> authCheck = checkApiKey(apiKey);
         if (authCheck != null) return authCheck;
-        
-        rateLimiter.manuallyBlockIp(ip, rateLimitConfig.getBlockDuration() * 1000L);
-        return ResponseEntity.ok("IP " + ip + " has been blocked");
+
+        String address = IpAddresses.canonicalize(ip);
+        if (address == null) {
+            return ResponseEntity.badRequest().body("Invalid IP address: " + ip);
+        }
+
+        rateLimiter.manuallyBlockIp(address, policyStore.get().getRateLimit().getBlockDurationMillis());
+        return ResponseEntity.ok("IP " + address + " has been blocked");
     }
     
     @PostMapping("/unblock/{ip}")
@@ -214,17 +596,36 @@ public class FortifyApiController {
             @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
         ResponseEntity<?> authCheck = checkApiKey(apiKey);
         if (authCheck != null) return authCheck;
-        
-        rateLimiter.manuallyUnblockIp(ip);
-        return ResponseEntity.ok("IP " + ip + " has been unblocked");
+
+        String address = IpAddresses.canonicalize(ip);
+        if (address == null) {
+            return ResponseEntity.badRequest().body("Invalid IP address: " + ip);
+        }
+
+        rateLimiter.manuallyUnblockIp(address);
+        return ResponseEntity.ok("IP " + address + " has been unblocked");
     }
     
     @GetMapping("/blocked")
     public ResponseEntity<?> getBlockedIps(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cidr,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) Long minRemaining,
+            @RequestParam(required = false) Long maxRemaining,
+            @RequestParam(defaultValue = "asc") String order,
             @RequestHeader(value = "X-Fortify-Key", required = false) String apiKey) {
         ResponseEntity<?> authCheck = checkApiKey(apiKey);
         if (authCheck != null) return authCheck;
-        
-        return ResponseEntity.ok(rateLimiter.getBlockedIpsWithExpiryTime());
+
+        int pageSize = Math.max(0, Math.min(limit, apiConfig.getMaxPageSize()));
+        try {
+            BlockedIpQuery query = BlockedIpQuery.parse(rateLimiter.getBlockedIps(), pageSize, cursor, cidr, reason,
+                    minRemaining, maxRemaining, order);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(query);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 } 
\ No newline at end of file
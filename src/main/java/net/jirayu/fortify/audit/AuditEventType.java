@@ -0,0 +1,34 @@
+package net.jirayu.fortify.audit;
+
+public enum AuditEventType {
+    RATE_LIMIT_BLOCK(1),
+    BLOCK_EXPIRED(2),
+    MANUAL_BLOCK(3),
+    MANUAL_UNBLOCK(4),
+    PATH_DENIED(5),
+    PATH_RULE_ADDED(6),
+    PATH_RULE_REMOVED(7),
+    POLICY_CHANGED(8);
+
+    private static final AuditEventType[] BY_CODE = new AuditEventType[9];
+
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    AuditEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static AuditEventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
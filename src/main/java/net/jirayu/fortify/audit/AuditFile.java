@@ -0,0 +1,86 @@
+package net.jirayu.fortify.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class AuditFile implements AutoCloseable {
+    static final long MAGIC = 0x4654465941554431L;
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private AuditFile(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static AuditFile open(Path path, long maxBytes) throws IOException {
+        long capacity = Math.max(2, maxBytes / AuditRecord.SIZE) * AuditRecord.SIZE;
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long existing = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, existing));
+            if (existing == 0 || buffer.getLong(0) == 0) {
+                buffer.putLong(0, MAGIC);
+                buffer.putInt(8, VERSION);
+                buffer.putInt(12, AuditRecord.SIZE);
+            } else {
+                checkHeader(buffer, path);
+            }
+            buffer.position(findEnd(buffer));
+            return new AuditFile(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.limit() < AuditRecord.SIZE || buffer.getLong(0) != MAGIC ||
+                buffer.getInt(8) != VERSION || buffer.getInt(12) != AuditRecord.SIZE) {
+            throw new IOException("Not a Fortify audit log: " + path);
+        }
+    }
+
+    static int findEnd(ByteBuffer buffer) {
+        int low = 1;
+        int high = buffer.limit() / AuditRecord.SIZE;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(mid * AuditRecord.SIZE) != 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low * AuditRecord.SIZE;
+    }
+
+    boolean append(AuditRecord record) {
+        if (buffer.remaining() < AuditRecord.SIZE) {
+            return false;
+        }
+        record.writeTo(buffer);
+        return true;
+    }
+
+    long getSize() {
+        return buffer.position();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,195 @@
+package net.jirayu.fortify.audit;
+
+import jakarta.annotation.PreDestroy;
+import net.jirayu.fortify.config.AuditConfig;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class AuditLog {
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final long MAX_FILE_MB = 1024;
+
+    private final AuditConfig config;
+    private final Path path;
+    private final long maxBytes;
+    private final Queue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private AuditFile file;
+    private long rotations = 0;
+    private ScheduledFuture<?> writer;
+    private boolean stopped;
+    private boolean failing;
+
+    public AuditLog(AuditConfig config, FortifyScheduler scheduler) {
+        this.config = config;
+        this.path = Paths.get(config.getPath()).toAbsolutePath();
+        this.maxBytes = Math.min(MAX_FILE_MB, Math.max(1, config.getMaxSize())) * 1024L * 1024L;
+
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        this.writer = scheduler.scheduleIoWithFixedDelay("audit writer", this::drain,
+                config.getFlushInterval(), config.getFlushInterval());
+
+        log.info("Audit log enabled at {}", path);
+    }
+
+    public void record(AuditEventType type, String ip, String detail, long value) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (pending.incrementAndGet() > config.getQueueSize()) {
+            pending.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(new AuditRecord(System.currentTimeMillis(), type, ip, detail, value));
+    }
+
+    // One failure ends the batch: records that could not be written stay queued for the next run, so an unwritable
+    // directory costs one log line per flush instead of one per record.
+    private synchronized void drain() {
+        if (stopped) {
+            return;
+        }
+        boolean dirty = false;
+        AuditRecord record;
+        while ((record = queue.peek()) != null) {
+            try {
+                if (file == null) {
+                    open();
+                }
+            } catch (IOException | RuntimeException e) {
+                logFailure("opening", e);
+                break;
+            }
+
+            queue.poll();
+            pending.decrementAndGet();
+            try {
+                if (!file.append(record)) {
+                    rotate();
+                    file.append(record);
+                }
+                written.incrementAndGet();
+                dirty = true;
+                failing = false;
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                logFailure("writing to", e);
+                close();
+                break;
+            }
+        }
+
+        if (dirty && file != null) {
+            file.force();
+        }
+    }
+
+    private void logFailure(String action, Exception e) {
+        if (!failing) {
+            failing = true;
+            log.error("Error {} audit log {}", action, path, e);
+        } else {
+            log.warn("Still failing {} audit log {}, {} record(s) queued: {}",
+                    action, path, pending.get(), e.toString());
+        }
+    }
+
+    public List<AuditRecord> query(AuditReader.Filter filter, int limit) throws IOException {
+        drain();
+
+        List<Path> files = new ArrayList<>();
+        for (int i = Math.max(1, config.getMaxFiles()); i >= 1; i--) {
+            files.add(rotated(i));
+        }
+        files.add(path);
+        return AuditReader.scan(files, filter, limit);
+    }
+
+    private void open() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        file = AuditFile.open(path, maxBytes);
+    }
+
+    private void rotate() throws IOException {
+        close();
+
+        int maxFiles = Math.max(1, config.getMaxFiles());
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        rotations++;
+
+        open();
+    }
+
+    private Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void close() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException ignored) {
+        }
+        file = null;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (config.isEnabled()) {
+            writer.cancel(false);
+            drain();
+            close();
+            stopped = true;
+        }
+    }
+
+    public synchronized Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("path", path.toString());
+        info.put("size", file != null ? file.getSize() : 0);
+        info.put("rotations", rotations);
+        info.put("pending", pending.get());
+        info.put("written", written.get());
+        info.put("dropped", dropped.get());
+        info.put("failed", failed.get());
+        return info;
+    }
+}
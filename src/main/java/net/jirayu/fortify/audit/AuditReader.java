@@ -0,0 +1,151 @@
+package net.jirayu.fortify.audit;
+
+import net.jirayu.fortify.ip.IpAddresses;
+import net.jirayu.fortify.ip.IpIntervalSet;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class AuditReader {
+    private AuditReader() {
+    }
+
+    public static List<AuditRecord> scan(List<Path> files, Filter filter, int limit) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        for (int i = files.size() - 1; i >= 0 && records.size() < limit; i--) {
+            Path path = files.get(i);
+            if (!Files.exists(path)) {
+                continue;
+            }
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < AuditRecord.SIZE) {
+                    continue;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                AuditFile.checkHeader(buffer, path);
+
+                for (int position = AuditFile.findEnd(buffer) - AuditRecord.SIZE;
+                     position >= AuditRecord.SIZE && records.size() < limit; position -= AuditRecord.SIZE) {
+                    long timestamp = buffer.getLong(position);
+                    if (timestamp < filter.from || timestamp > filter.to) {
+                        continue;
+                    }
+                    buffer.position(position);
+                    AuditRecord record = AuditRecord.readFrom(buffer);
+                    if (filter.matches(record)) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    public static class Filter {
+        private final long from;
+        private final long to;
+        private final IpIntervalSet ips;
+        private final AuditEventType type;
+
+        public Filter(Long from, Long to, String ips, AuditEventType type) {
+            this.from = from != null ? from : Long.MIN_VALUE;
+            this.to = to != null ? to : Long.MAX_VALUE;
+            this.type = type;
+
+            if (ips == null || ips.isBlank()) {
+                this.ips = null;
+                return;
+            }
+            IpIntervalSet.Builder builder = new IpIntervalSet.Builder();
+            for (String value : ips.split(",")) {
+                String trimmed = value.trim();
+                if (!builder.add(trimmed, 0, trimmed.length())) {
+                    throw new IllegalArgumentException("Invalid address, range or CIDR: " + trimmed);
+                }
+            }
+            this.ips = builder.build();
+        }
+
+        boolean matches(AuditRecord record) {
+            if (type != null && record.getType() != type) {
+                return false;
+            }
+            if (ips != null) {
+                byte[] address = IpAddresses.parse(record.getIp());
+                return address != null && ips.contains(address);
+            }
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Long from = null;
+        Long to = null;
+        String ips = null;
+        AuditEventType type = null;
+        int limit = Integer.MAX_VALUE;
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && i + 1 >= args.length) {
+                usage();
+                return;
+            }
+            switch (arg) {
+                case "--from":
+                    from = parseTime(args[++i]);
+                    break;
+                case "--to":
+                    to = parseTime(args[++i]);
+                    break;
+                case "--ip":
+                    ips = args[++i];
+                    break;
+                case "--type":
+                    type = AuditEventType.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    break;
+                case "--limit":
+                    limit = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    files.add(0, Paths.get(arg));
+            }
+        }
+
+        if (files.isEmpty()) {
+            usage();
+            return;
+        }
+
+        for (AuditRecord record : scan(files, new Filter(from, to, ips, type), limit)) {
+            System.out.println(Instant.ofEpochMilli(record.getTimestamp()) + "\t" + record.getType() + "\t" +
+                    (record.getIp() != null ? record.getIp() : "-") + "\t" +
+                    (record.getDetail() != null ? record.getDetail() : "-") + "\t" + record.getValue());
+        }
+    }
+
+    private static long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return Instant.parse(value).toEpochMilli();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: AuditReader [--from time] [--to time] [--ip cidr[,cidr]] [--type type] [--limit n] file... (newest first)");
+        System.err.println("Times are epoch milliseconds or ISO-8601 instants. Records are printed newest first.");
+    }
+}
@@ -0,0 +1,89 @@
+package net.jirayu.fortify.audit;
+
+import net.jirayu.fortify.ip.IpAddresses;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class AuditRecord {
+    static final int SIZE = 128;
+    static final int MAX_DETAIL = 88;
+
+    private final long timestamp;
+    private final AuditEventType type;
+    private final String ip;
+    private final String detail;
+    private final long value;
+
+    public AuditRecord(long timestamp, AuditEventType type, String ip, String detail, long value) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.ip = ip;
+        this.detail = detail;
+        this.value = value;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        byte[] address = IpAddresses.unmapIpv4(IpAddresses.parse(ip));
+        byte[] text = detail != null ? detail.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        int textLength = Math.min(text.length, MAX_DETAIL);
+
+        buffer.putLong(timestamp);
+        buffer.put((byte) type.getCode());
+        buffer.put((byte) (address != null ? address.length : 0));
+        buffer.put((byte) textLength);
+        buffer.put((byte) 0);
+        buffer.putInt(0);
+        buffer.put(address != null ? Arrays.copyOf(address, 16) : new byte[16]);
+        buffer.putLong(value);
+        buffer.put(text, 0, textLength);
+        buffer.position(start + SIZE);
+    }
+
+    static AuditRecord readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        long timestamp = buffer.getLong();
+        AuditEventType type = AuditEventType.fromCode(buffer.get());
+        int addressLength = buffer.get();
+        int textLength = Math.min(buffer.get() & 0xFF, MAX_DETAIL);
+        buffer.position(start + 16);
+        byte[] address = new byte[16];
+        buffer.get(address);
+        long value = buffer.getLong();
+        byte[] text = new byte[textLength];
+        buffer.get(text);
+        buffer.position(start + SIZE);
+
+        return new AuditRecord(timestamp, type, formatAddress(address, addressLength),
+                textLength > 0 ? new String(text, StandardCharsets.US_ASCII) : null, value);
+    }
+
+    private static String formatAddress(byte[] address, int length) {
+        if (length != 4 && length != 16) {
+            return null;
+        }
+        return IpAddresses.format(Arrays.copyOf(address, length));
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public AuditEventType getType() {
+        return type;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,71 @@
+package net.jirayu.fortify.blocklist;
+
+import net.jirayu.fortify.ip.IpIntervalSet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class BlocklistLoader {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private BlocklistLoader() {
+    }
+
+    public static Result load(Path path, IpIntervalSet.Builder builder) throws IOException {
+        int loaded = 0;
+        int invalid = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                Files.newBufferedReader(path, StandardCharsets.US_ASCII), READ_BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int start = 0;
+                int length = line.length();
+                while (start < length && isSeparator(line.charAt(start))) start++;
+
+                if (start == length || line.charAt(start) == '#' || line.charAt(start) == ';') {
+                    continue;
+                }
+
+                int end = start;
+                while (end < length && !isSeparator(line.charAt(end)) &&
+                        line.charAt(end) != '#' && line.charAt(end) != ';') {
+                    end++;
+                }
+
+                if (builder.add(line, start, end)) {
+                    loaded++;
+                } else {
+                    invalid++;
+                }
+            }
+        }
+
+        return new Result(loaded, invalid);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == ',';
+    }
+
+    public static class Result {
+        private final int loaded;
+        private final int invalid;
+
+        Result(int loaded, int invalid) {
+            this.loaded = loaded;
+            this.invalid = invalid;
+        }
+
+        public int getLoaded() {
+            return loaded;
+        }
+
+        public int getInvalid() {
+            return invalid;
+        }
+    }
+}
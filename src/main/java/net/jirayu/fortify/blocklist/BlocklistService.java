@@ -0,0 +1,162 @@
+package net.jirayu.fortify.blocklist;
+
+import net.jirayu.fortify.config.BlocklistConfig;
+import net.jirayu.fortify.ip.IpIntervalSet;
+import net.jirayu.fortify.ip.PackedIp;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class BlocklistService {
+    private static final Logger log = LoggerFactory.getLogger(BlocklistService.class);
+    private static final long RELOAD_SETTLE_MILLIS = 500;
+    private static final ThreadLocal<PackedIp> ADDRESS = ThreadLocal.withInitial(PackedIp::new);
+
+    private final BlocklistConfig config;
+    private volatile IpIntervalSet blocklist = IpIntervalSet.EMPTY;
+    private volatile long loadedAt = 0;
+
+    public BlocklistService(BlocklistConfig config, FortifyScheduler scheduler) {
+        this.config = config;
+
+        if (config.isEnabled()) {
+            reload();
+            if (config.isWatch() && config.getFiles().length > 0) {
+                startWatching(scheduler);
+            }
+        }
+    }
+
+    public boolean isBlocked(String ip) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+
+        IpIntervalSet current = blocklist;
+        if (current.isEmpty()) {
+            return false;
+        }
+
+        PackedIp address = ADDRESS.get();
+        return address.parse(ip) && current.containsPacked(address.getHigh(), address.getLow());
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        IpIntervalSet.Builder builder = new IpIntervalSet.Builder();
+        int loaded = 0;
+        int invalid = 0;
+
+        for (String file : config.getFiles()) {
+            try {
+                BlocklistLoader.Result result = BlocklistLoader.load(Paths.get(file), builder);
+                loaded += result.getLoaded();
+                invalid += result.getInvalid();
+            } catch (IOException e) {
+                log.error("Failed to read blocklist {}, keeping the previous blocklist: {}", file, e.getMessage());
+                return;
+            }
+        }
+
+        IpIntervalSet next = builder.build();
+        blocklist = next;
+        loadedAt = System.currentTimeMillis();
+
+        log.info("Blocklist loaded: {} entries ({} invalid) merged into {} IPv4 and {} IPv6 ranges in {}ms",
+                loaded, invalid, next.getIpv4RangeCount(), next.getIpv6RangeCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void startWatching(FortifyScheduler scheduler) {
+        WatchService watchService;
+        Map<Path, Set<Path>> watchedFiles = new HashMap<>();
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (String file : config.getFiles()) {
+                Path path = Paths.get(file).toAbsolutePath();
+                Path directory = path.getParent();
+                Set<Path> files = watchedFiles.get(directory);
+                if (files == null) {
+                    files = new HashSet<>();
+                    watchedFiles.put(directory, files);
+                    directory.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+                files.add(path.getFileName());
+            }
+        } catch (IOException e) {
+            log.error("Failed to watch blocklist files, hot reload disabled: {}", e.getMessage());
+            return;
+        }
+
+        scheduler.startWorker("fortify-blocklist-watch", () -> {
+            while (true) {
+                try {
+                    WatchKey key = watchService.take();
+                    boolean changed = isTrackedChange(key, watchedFiles);
+
+                    WatchKey pending;
+                    while ((pending = watchService.poll(RELOAD_SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        changed |= isTrackedChange(pending, watchedFiles);
+                    }
+
+                    if (changed) {
+                        reload();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ClosedWatchServiceException e) {
+                    break;
+                }
+            }
+        });
+        log.info("Watching {} blocklist file(s) for changes", config.getFiles().length);
+    }
+
+    private boolean isTrackedChange(WatchKey key, Map<Path, Set<Path>> watchedFiles) {
+        Set<Path> files = watchedFiles.getOrDefault((Path) key.watchable(), Set.of());
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                    (event.context() instanceof Path && files.contains((Path) event.context()))) {
+                changed = true;
+            }
+        }
+
+        key.reset();
+        return changed;
+    }
+
+    public Map<String, Object> getInfo() {
+        IpIntervalSet current = blocklist;
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("files", config.getFiles());
+        info.put("entries", current.getSourceEntries());
+        info.put("ipv4Ranges", current.getIpv4RangeCount());
+        info.put("ipv6Ranges", current.getIpv6RangeCount());
+        info.put("loadedAt", loadedAt);
+        return info;
+    }
+}
@@ -8,6 +8,12 @@ import org.springframework.stereotype.Component;
 public class ApiConfig {
     private boolean enabled = false;
     private String apiKey = "";
+    private int statusRefreshInterval = 1000;
+    private int maxPageSize = 500;
+    private int eventBufferSize = 4096;
+    private int eventSubscriberLag = 1024;
+    private int eventKeepAlive = 15000;
+    private int maxEventSubscribers = 32;
 
     public boolean isEnabled() {
         return enabled;
@@ -24,4 +30,52 @@ public class ApiConfig {
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
     }
-} 
\ No newline at end of file
+
+    public int getStatusRefreshInterval() {
+        return statusRefreshInterval;
+    }
+
+    public void setStatusRefreshInterval(int statusRefreshInterval) {
+        this.statusRefreshInterval = statusRefreshInterval;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getEventBufferSize() {
+        return eventBufferSize;
+    }
+
+    public void setEventBufferSize(int eventBufferSize) {
+        this.eventBufferSize = eventBufferSize;
+    }
+
+    public int getEventSubscriberLag() {
+        return eventSubscriberLag;
+    }
+
+    public void setEventSubscriberLag(int eventSubscriberLag) {
+        this.eventSubscriberLag = eventSubscriberLag;
+    }
+
+    public int getEventKeepAlive() {
+        return eventKeepAlive;
+    }
+
+    public void setEventKeepAlive(int eventKeepAlive) {
+        this.eventKeepAlive = eventKeepAlive;
+    }
+
+    public int getMaxEventSubscribers() {
+        return maxEventSubscribers;
+    }
+
+    public void setMaxEventSubscribers(int maxEventSubscribers) {
+        this.maxEventSubscribers = maxEventSubscribers;
+    }
+}
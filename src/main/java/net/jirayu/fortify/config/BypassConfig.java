@@ -1,5 +1,6 @@
 package net.jirayu.fortify.config;
 
+import net.jirayu.fortify.ip.PackedIp;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +15,12 @@ public class BypassConfig {
     }
 
     public void setAllowedIps(String[] allowedIps) {
-        this.allowedIps = allowedIps;
+        PackedIp address = new PackedIp();
+        String[] canonical = new String[allowedIps.length];
+        for (int i = 0; i < allowedIps.length; i++) {
+            canonical[i] = address.parse(allowedIps[i]) ? address.toCanonicalString() : allowedIps[i];
+        }
+        this.allowedIps = canonical;
     }
 
     public Long[] getAllowedClients() {
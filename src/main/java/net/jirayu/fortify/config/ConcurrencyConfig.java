@@ -0,0 +1,63 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.concurrency")
+@Component
+public class ConcurrencyConfig {
+    private boolean enabled = false;
+    private int maxPerIp = 8;
+    private int maxGlobal = 256;
+    private int stripes = 16;
+    private boolean adaptive = false;
+    private int minLimit = 16;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxPerIp() {
+        return maxPerIp;
+    }
+
+    public void setMaxPerIp(int maxPerIp) {
+        this.maxPerIp = maxPerIp;
+    }
+
+    public int getMaxGlobal() {
+        return maxGlobal;
+    }
+
+    public void setMaxGlobal(int maxGlobal) {
+        this.maxGlobal = maxGlobal;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+}
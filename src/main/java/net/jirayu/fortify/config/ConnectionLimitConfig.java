@@ -0,0 +1,63 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.connectionlimit")
+@Component
+public class ConnectionLimitConfig {
+    private boolean enabled = false;
+    private double userConnectionsPerMinute = 30;
+    private int userBurst = 10;
+    private double ipConnectionsPerMinute = 60;
+    private int ipBurst = 20;
+    private int maxSessionsPerUser = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getUserConnectionsPerMinute() {
+        return userConnectionsPerMinute;
+    }
+
+    public void setUserConnectionsPerMinute(double userConnectionsPerMinute) {
+        this.userConnectionsPerMinute = userConnectionsPerMinute;
+    }
+
+    public int getUserBurst() {
+        return userBurst;
+    }
+
+    public void setUserBurst(int userBurst) {
+        this.userBurst = userBurst;
+    }
+
+    public double getIpConnectionsPerMinute() {
+        return ipConnectionsPerMinute;
+    }
+
+    public void setIpConnectionsPerMinute(double ipConnectionsPerMinute) {
+        this.ipConnectionsPerMinute = ipConnectionsPerMinute;
+    }
+
+    public int getIpBurst() {
+        return ipBurst;
+    }
+
+    public void setIpBurst(int ipBurst) {
+        this.ipBurst = ipBurst;
+    }
+
+    public int getMaxSessionsPerUser() {
+        return maxSessionsPerUser;
+    }
+
+    public void setMaxSessionsPerUser(int maxSessionsPerUser) {
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+}
@@ -0,0 +1,99 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.geoip")
+@Component
+public class GeoIpConfig {
+    private boolean enabled = false;
+    private String countryDatabase = "";
+    private String asnDatabase = "";
+    private int cacheSize = 4096;
+    private int reloadInterval = 60;
+    private String[] blockedCountries = new String[0];
+    private Long[] blockedAsns = new Long[0];
+    private String[] limitedCountries = new String[0];
+    private Long[] limitedAsns = new Long[0];
+    private int limitedMaxRequests = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getCountryDatabase() {
+        return countryDatabase;
+    }
+
+    public void setCountryDatabase(String countryDatabase) {
+        this.countryDatabase = countryDatabase;
+    }
+
+    public String getAsnDatabase() {
+        return asnDatabase;
+    }
+
+    public void setAsnDatabase(String asnDatabase) {
+        this.asnDatabase = asnDatabase;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(int reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public String[] getBlockedCountries() {
+        return blockedCountries;
+    }
+
+    public void setBlockedCountries(String[] blockedCountries) {
+        this.blockedCountries = blockedCountries;
+    }
+
+    public Long[] getBlockedAsns() {
+        return blockedAsns;
+    }
+
+    public void setBlockedAsns(Long[] blockedAsns) {
+        this.blockedAsns = blockedAsns;
+    }
+
+    public String[] getLimitedCountries() {
+        return limitedCountries;
+    }
+
+    public void setLimitedCountries(String[] limitedCountries) {
+        this.limitedCountries = limitedCountries;
+    }
+
+    public Long[] getLimitedAsns() {
+        return limitedAsns;
+    }
+
+    public void setLimitedAsns(Long[] limitedAsns) {
+        this.limitedAsns = limitedAsns;
+    }
+
+    public int getLimitedMaxRequests() {
+        return limitedMaxRequests;
+    }
+
+    public void setLimitedMaxRequests(int limitedMaxRequests) {
+        this.limitedMaxRequests = limitedMaxRequests;
+    }
+}
@@ -0,0 +1,45 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.heavyhitters")
+@Component
+public class HeavyHitterConfig {
+    private boolean enabled = true;
+    private int capacity = 128;
+    private int bufferSize = 65536;
+    private long drainInterval = 250;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getDrainInterval() {
+        return drainInterval;
+    }
+
+    public void setDrainInterval(long drainInterval) {
+        this.drainInterval = drainInterval;
+    }
+}
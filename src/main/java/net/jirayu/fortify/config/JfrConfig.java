@@ -0,0 +1,18 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.jfr")
+@Component
+public class JfrConfig {
+    private int rejectionSampleRate = 100;
+
+    public int getRejectionSampleRate() {
+        return rejectionSampleRate;
+    }
+
+    public void setRejectionSampleRate(int rejectionSampleRate) {
+        this.rejectionSampleRate = rejectionSampleRate;
+    }
+}
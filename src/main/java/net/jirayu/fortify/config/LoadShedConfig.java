@@ -0,0 +1,56 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.loadshed")
+@Component
+public class LoadShedConfig {
+    private boolean enabled = false;
+    private int target = 50;
+    private int interval = 500;
+    private int maxInFlight = 32;
+    private String[] lowPriorityPaths = new String[]{
+            "/v4/loadtracks", "/v4/loadsearch", "/v4/decodetrack", "/v4/decodetracks"
+    };
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public void setTarget(int target) {
+        this.target = target;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public String[] getLowPriorityPaths() {
+        return lowPriorityPaths;
+    }
+
+    public void setLowPriorityPaths(String[] lowPriorityPaths) {
+        this.lowPriorityPaths = lowPriorityPaths;
+    }
+}
@@ -8,11 +8,161 @@ import org.springframework.stereotype.Component;
 public class NotificationConfig {
     private String discordWebhookUrl = "";
     private Enabled enabled = new Enabled();
+    private int queueSize = 1000;
+    private int aggregationWindow = 10;
+    private int topIps = 10;
+    private Webhook webhook = new Webhook();
+    private Syslog syslog = new Syslog();
+    private LogFile file = new LogFile();
+    private Suppression suppression = new Suppression();
+
+    public static class Suppression {
+        private boolean enabled = true;
+        private int cooldown = 300;
+        private int sketchWidth = 4096;
+        private int maxDigests = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCooldown() {
+            return cooldown;
+        }
+
+        public void setCooldown(int cooldown) {
+            this.cooldown = cooldown;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        public int getMaxDigests() {
+            return maxDigests;
+        }
+
+        public void setMaxDigests(int maxDigests) {
+            this.maxDigests = maxDigests;
+        }
+    }
+
+    public static class Sink {
+        private int queueSize = 1000;
+        private long batchWindow = 1000;
+        private int maxBatchSize = 100;
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public long getBatchWindow() {
+            return batchWindow;
+        }
+
+        public void setBatchWindow(long batchWindow) {
+            this.batchWindow = batchWindow;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    public static class Webhook extends Sink {
+        private String url = "";
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+    }
+
+    public static class Syslog extends Sink {
+        private String host = "";
+        private int port = 514;
+        private int facility = 4;
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public int getFacility() {
+            return facility;
+        }
+
+        public void setFacility(int facility) {
+            this.facility = facility;
+        }
+    }
+
+    public static class LogFile extends Sink {
+        private String path = "";
+        private int maxSize = 10;
+        private int maxFiles = 5;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+    }
 
     public static class Enabled {
         private boolean ratelimit = false;
+        private boolean unblock = false;
         private boolean playerLimit = false;
         private boolean pathBlock = false;
+        private boolean pressureLevel = false;
 
         public boolean isRatelimit() {
             return ratelimit;
@@ -22,6 +172,14 @@ public class NotificationConfig {
             this.ratelimit = ratelimit;
         }
 
+        public boolean isUnblock() {
+            return unblock;
+        }
+
+        public void setUnblock(boolean unblock) {
+            this.unblock = unblock;
+        }
+
         public boolean isPlayerLimit() {
             return playerLimit;
         }
@@ -37,6 +195,14 @@ public class NotificationConfig {
         public void setPathBlock(boolean pathBlock) {
             this.pathBlock = pathBlock;
         }
+
+        public boolean isPressureLevel() {
+            return pressureLevel;
+        }
+
+        public void setPressureLevel(boolean pressureLevel) {
+            this.pressureLevel = pressureLevel;
+        }
     }
 
     public String getDiscordWebhookUrl() {
@@ -54,4 +220,60 @@ public class NotificationConfig {
     public void setEnabled(Enabled enabled) {
         this.enabled = enabled;
     }
-}
\ No newline at end of file
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getAggregationWindow() {
+        return aggregationWindow;
+    }
+
+    public void setAggregationWindow(int aggregationWindow) {
+        this.aggregationWindow = aggregationWindow;
+    }
+
+    public int getTopIps() {
+        return topIps;
+    }
+
+    public void setTopIps(int topIps) {
+        this.topIps = topIps;
+    }
+
+    public Webhook getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(Webhook webhook) {
+        this.webhook = webhook;
+    }
+
+    public Syslog getSyslog() {
+        return syslog;
+    }
+
+    public void setSyslog(Syslog syslog) {
+        this.syslog = syslog;
+    }
+
+    public LogFile getFile() {
+        return file;
+    }
+
+    public void setFile(LogFile file) {
+        this.file = file;
+    }
+
+    public Suppression getSuppression() {
+        return suppression;
+    }
+
+    public void setSuppression(Suppression suppression) {
+        this.suppression = suppression;
+    }
+}
@@ -9,6 +9,8 @@ public class PlayerLimitConfig {
     private boolean enabled = false;
     private int maxPlayers = 100;
     private boolean closeOnExceed = true;
+    private int maxPlayersPerUser = 0;
+    private int maxPlayersPerNode = 0;
 
     public boolean isEnabled() {
         return enabled;
@@ -33,4 +35,20 @@ public class PlayerLimitConfig {
     public void setCloseOnExceed(boolean closeOnExceed) {
         this.closeOnExceed = closeOnExceed;
     }
+
+    public int getMaxPlayersPerUser() {
+        return maxPlayersPerUser;
+    }
+
+    public void setMaxPlayersPerUser(int maxPlayersPerUser) {
+        this.maxPlayersPerUser = maxPlayersPerUser;
+    }
+
+    public int getMaxPlayersPerNode() {
+        return maxPlayersPerNode;
+    }
+
+    public void setMaxPlayersPerNode(int maxPlayersPerNode) {
+        this.maxPlayersPerNode = maxPlayersPerNode;
+    }
 }
\ No newline at end of file
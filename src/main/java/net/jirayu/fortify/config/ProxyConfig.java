@@ -1,5 +1,6 @@
 package net.jirayu.fortify.config;
 
+import net.jirayu.fortify.ip.IpIntervalSet;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Component;
 public class ProxyConfig {
     private boolean trustProxy = false;
     private String proxyHeader = "X-Forwarded-For";
+    private String[] trustedProxies = new String[0];
+    private IpIntervalSet trustedProxySet = IpIntervalSet.EMPTY;
 
     public void setTrustProxy(boolean trustProxy) {
         this.trustProxy = trustProxy;
@@ -17,6 +20,18 @@ public class ProxyConfig {
         this.proxyHeader = proxyHeader;
     }
 
+    public void setTrustedProxies(String[] trustedProxies) {
+        IpIntervalSet.Builder builder = new IpIntervalSet.Builder();
+        for (String proxy : trustedProxies) {
+            if (!builder.add(proxy, 0, proxy.length())) {
+                throw new IllegalArgumentException("Invalid trusted proxy address or CIDR: " + proxy);
+            }
+        }
+
+        this.trustedProxies = trustedProxies;
+        this.trustedProxySet = builder.build();
+    }
+
     public boolean isTrustProxy() {
         return trustProxy;
     }
@@ -24,4 +39,16 @@ public class ProxyConfig {
     public String getProxyHeader() {
         return proxyHeader;
     }
+
+    public String[] getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public IpIntervalSet getTrustedProxySet() {
+        return trustedProxySet;
+    }
+
+    public boolean isForwardedHeader() {
+        return "Forwarded".equalsIgnoreCase(proxyHeader);
+    }
 }
@@ -0,0 +1,81 @@
+package net.jirayu.fortify.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "plugins.fortify.storm")
+@Component
+public class StormConfig {
+    private boolean enabled = false;
+    private int burstThreshold = 50;
+    private int burstWindow = 5;
+    private double sessionRate = 10.0;
+    private double playerRate = 50.0;
+    private int jitter = 500;
+    private int quietPeriod = 10;
+    private Long[] priorityClients = new Long[0];
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBurstThreshold() {
+        return burstThreshold;
+    }
+
+    public void setBurstThreshold(int burstThreshold) {
+        this.burstThreshold = burstThreshold;
+    }
+
+    public int getBurstWindow() {
+        return burstWindow;
+    }
+
+    public void setBurstWindow(int burstWindow) {
+        this.burstWindow = burstWindow;
+    }
+
+    public double getSessionRate() {
+        return sessionRate;
+    }
+
+    public void setSessionRate(double sessionRate) {
+        this.sessionRate = sessionRate;
+    }
+
+    public double getPlayerRate() {
+        return playerRate;
+    }
+
+    public void setPlayerRate(double playerRate) {
+        this.playerRate = playerRate;
+    }
+
+    public int getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(int jitter) {
+        this.jitter = jitter;
+    }
+
+    public int getQuietPeriod() {
+        return quietPeriod;
+    }
+
+    public void setQuietPeriod(int quietPeriod) {
+        this.quietPeriod = quietPeriod;
+    }
+
+    public Long[] getPriorityClients() {
+        return priorityClients;
+    }
+
+    public void setPriorityClients(Long[] priorityClients) {
+        this.priorityClients = priorityClients;
+    }
+}
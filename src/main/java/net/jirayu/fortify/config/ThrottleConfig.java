@@ -9,7 +9,72 @@ public class ThrottleConfig {
     private boolean enabled = false;
     private double cpuThreshold = 80.0;
     private double memoryThreshold = 80.0;
-    private int connectionDelay = 1000;
+    private double admissionRate = 5.0;
+    private int maxQueueDepth = 100;
+    private double gcThreshold = 10.0;
+    private double hysteresis = 10.0;
+    private int sampleInterval = 250;
+    private int smoothingWindow = 5000;
+    private int recoveryTime = 10000;
+    private boolean cgroupEnabled = true;
+    private String cgroupPath = "/sys/fs/cgroup";
+    private double cpuThrottledThreshold = 25.0;
+    private double pressureThreshold = 20.0;
+    private double elevatedRatio = 0.85;
+    private double criticalRatio = 1.2;
+    private LevelPolicy elevated = new LevelPolicy(250, 0.75, true, false);
+    private LevelPolicy high = new LevelPolicy(1000, 0.5, true, true);
+    private LevelPolicy critical = new LevelPolicy(3000, 0.25, false, true);
+
+    public static class LevelPolicy {
+        private int connectionDelay;
+        private double rateLimitMultiplier;
+        private boolean admitNewPlayers;
+        private boolean blockSearch;
+
+        public LevelPolicy() {
+            this(0, 1.0, true, false);
+        }
+
+        public LevelPolicy(int connectionDelay, double rateLimitMultiplier, boolean admitNewPlayers, boolean blockSearch) {
+            this.connectionDelay = connectionDelay;
+            this.rateLimitMultiplier = rateLimitMultiplier;
+            this.admitNewPlayers = admitNewPlayers;
+            this.blockSearch = blockSearch;
+        }
+
+        public int getConnectionDelay() {
+            return connectionDelay;
+        }
+
+        public void setConnectionDelay(int connectionDelay) {
+            this.connectionDelay = connectionDelay;
+        }
+
+        public double getRateLimitMultiplier() {
+            return rateLimitMultiplier;
+        }
+
+        public void setRateLimitMultiplier(double rateLimitMultiplier) {
+            this.rateLimitMultiplier = rateLimitMultiplier;
+        }
+
+        public boolean isAdmitNewPlayers() {
+            return admitNewPlayers;
+        }
+
+        public void setAdmitNewPlayers(boolean admitNewPlayers) {
+            this.admitNewPlayers = admitNewPlayers;
+        }
+
+        public boolean isBlockSearch() {
+            return blockSearch;
+        }
+
+        public void setBlockSearch(boolean blockSearch) {
+            this.blockSearch = blockSearch;
+        }
+    }
 
     public boolean isEnabled() {
         return enabled;
@@ -36,10 +101,138 @@ public class ThrottleConfig {
     }
 
     public int getConnectionDelay() {
-        return connectionDelay;
+        return high.getConnectionDelay();
     }
 
     public void setConnectionDelay(int connectionDelay) {
-        this.connectionDelay = connectionDelay;
+        this.high.setConnectionDelay(connectionDelay);
+    }
+
+    public double getAdmissionRate() {
+        return admissionRate;
+    }
+
+    public void setAdmissionRate(double admissionRate) {
+        this.admissionRate = admissionRate;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public void setMaxQueueDepth(int maxQueueDepth) {
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public double getGcThreshold() {
+        return gcThreshold;
+    }
+
+    public void setGcThreshold(double gcThreshold) {
+        this.gcThreshold = gcThreshold;
+    }
+
+    public double getHysteresis() {
+        return hysteresis;
+    }
+
+    public void setHysteresis(double hysteresis) {
+        this.hysteresis = hysteresis;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    public int getSmoothingWindow() {
+        return smoothingWindow;
+    }
+
+    public void setSmoothingWindow(int smoothingWindow) {
+        this.smoothingWindow = smoothingWindow;
+    }
+
+    public int getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    public void setRecoveryTime(int recoveryTime) {
+        this.recoveryTime = recoveryTime;
+    }
+
+    public String getCgroupPath() {
+        return cgroupPath;
+    }
+
+    public void setCgroupPath(String cgroupPath) {
+        this.cgroupPath = cgroupPath;
+    }
+
+    public double getCpuThrottledThreshold() {
+        return cpuThrottledThreshold;
+    }
+
+    public void setCpuThrottledThreshold(double cpuThrottledThreshold) {
+        this.cpuThrottledThreshold = cpuThrottledThreshold;
+    }
+
+    public double getPressureThreshold() {
+        return pressureThreshold;
+    }
+
+    public void setPressureThreshold(double pressureThreshold) {
+        this.pressureThreshold = pressureThreshold;
+    }
+
+    public boolean isCgroupEnabled() {
+        return cgroupEnabled;
+    }
+
+    public void setCgroupEnabled(boolean cgroupEnabled) {
+        this.cgroupEnabled = cgroupEnabled;
+    }
+
+    public double getElevatedRatio() {
+        return elevatedRatio;
+    }
+
+    public void setElevatedRatio(double elevatedRatio) {
+        this.elevatedRatio = elevatedRatio;
+    }
+
+    public double getCriticalRatio() {
+        return criticalRatio;
+    }
+
+    public void setCriticalRatio(double criticalRatio) {
+        this.criticalRatio = criticalRatio;
+    }
+
+    public LevelPolicy getElevated() {
+        return elevated;
+    }
+
+    public void setElevated(LevelPolicy elevated) {
+        this.elevated = elevated;
+    }
+
+    public LevelPolicy getHigh() {
+        return high;
+    }
+
+    public void setHigh(LevelPolicy high) {
+        this.high = high;
+    }
+
+    public LevelPolicy getCritical() {
+        return critical;
+    }
+
+    public void setCritical(LevelPolicy critical) {
+        this.critical = critical;
     }
-} 
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package net.jirayu.fortify.firewall;
 
 import net.jirayu.fortify.config.RateLimitConfig;
+import net.jirayu.fortify.jfr.FirewallCommandEvent;
+import net.jirayu.fortify.metrics.FortifyMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -18,9 +20,11 @@ public class FirewallManager {
     private static final boolean IS_LINUX = OS.contains("nix") || OS.contains("nux") || OS.contains("aix");
 
     private final RateLimitConfig config;
+    private final FortifyMetrics metrics;
 
-    public FirewallManager(RateLimitConfig config) {
+    public FirewallManager(RateLimitConfig config, FortifyMetrics metrics) {
         this.config = config;
+        this.metrics = metrics;
         log.info("FirewallManager initialized for {} platform", IS_WINDOWS ? "Windows" : (IS_LINUX ? "Linux" : "Unknown"));
     }
 
@@ -63,8 +67,8 @@ public class FirewallManager {
     private void blockIpWithIptables(String ip) {
         try {
             String inputCommand = String.format("iptables -A INPUT -s %s -j DROP", ip);
-            Process inputProcess = Runtime.getRuntime().exec(inputCommand);
-            int inputExitCode = inputProcess.waitFor();
+            Process inputProcess = exec(inputCommand);
+            int inputExitCode = inputProcess.exitValue();
 
             if (inputExitCode == 0) {
                 log.info("Successfully blocked IP {} in INPUT chain with iptables", ip);
@@ -74,8 +78,8 @@ public class FirewallManager {
             }
 
             String forwardCommand = String.format("iptables -A FORWARD -s %s -j DROP", ip);
-            Process forwardProcess = Runtime.getRuntime().exec(forwardCommand);
-            int forwardExitCode = forwardProcess.waitFor();
+            Process forwardProcess = exec(forwardCommand);
+            int forwardExitCode = forwardProcess.exitValue();
 
             if (forwardExitCode == 0) {
                 log.info("Successfully blocked IP {} in FORWARD chain with iptables", ip);
@@ -94,8 +98,8 @@ public class FirewallManager {
     private void unblockIpWithIptables(String ip) {
         try {
             String inputCommand = String.format("iptables -D INPUT -s %s -j DROP", ip);
-            Process inputProcess = Runtime.getRuntime().exec(inputCommand);
-            int inputExitCode = inputProcess.waitFor();
+            Process inputProcess = exec(inputCommand);
+            int inputExitCode = inputProcess.exitValue();
 
             if (inputExitCode == 0) {
                 log.info("Successfully unblocked IP {} from INPUT chain with iptables", ip);
@@ -105,8 +109,8 @@ public class FirewallManager {
             }
 
             String forwardCommand = String.format("iptables -D FORWARD -s %s -j DROP", ip);
-            Process forwardProcess = Runtime.getRuntime().exec(forwardCommand);
-            int forwardExitCode = forwardProcess.waitFor();
+            Process forwardProcess = exec(forwardCommand);
+            int forwardExitCode = forwardProcess.exitValue();
 
             if (forwardExitCode == 0) {
                 log.info("Successfully unblocked IP {} from FORWARD chain with iptables", ip);
@@ -125,8 +129,8 @@ public class FirewallManager {
     private void blockIpWithUfw(String ip) {
         try {
             String command = String.format("ufw deny from %s to any", ip);
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
+            Process process = exec(command);
+            int exitCode = process.exitValue();
 
             if (exitCode == 0) {
                 log.info("Successfully blocked IP {} with UFW", ip);
@@ -145,8 +149,8 @@ public class FirewallManager {
     private void unblockIpWithUfw(String ip) {
         try {
             String command = String.format("ufw delete deny from %s to any", ip);
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
+            Process process = exec(command);
+            int exitCode = process.exitValue();
 
             if (exitCode == 0) {
                 log.info("Successfully unblocked IP {} with UFW", ip);
@@ -171,8 +175,8 @@ public class FirewallManager {
                     ruleName
             );
 
-            Process checkProcess = Runtime.getRuntime().exec(checkCommand);
-            int checkExitCode = checkProcess.waitFor();
+            Process checkProcess = exec(checkCommand);
+            int checkExitCode = checkProcess.exitValue();
 
             if (checkExitCode == 0) {
                 unblockIpWithWindowsFirewall(ip);
@@ -188,14 +192,14 @@ public class FirewallManager {
                     ruleName, ip
             );
 
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
+            Process process = exec(command);
+            int exitCode = process.exitValue();
 
             if (exitCode == 0) {
                 log.info("Successfully blocked inbound traffic for IP {} with Windows Firewall", ip);
 
-                Process outProcess = Runtime.getRuntime().exec(outboundCommand);
-                int outExitCode = outProcess.waitFor();
+                Process outProcess = exec(outboundCommand);
+                int outExitCode = outProcess.exitValue();
 
                 if (outExitCode == 0) {
                     log.info("Successfully blocked outbound traffic for IP {} with Windows Firewall", ip);
@@ -217,8 +221,8 @@ public class FirewallManager {
                 );
 
                 log.info("Attempting alternative approach with command: {}", altCommand);
-                Process altProcess = Runtime.getRuntime().exec(altCommand);
-                int altExitCode = altProcess.waitFor();
+                Process altProcess = exec(altCommand);
+                int altExitCode = altProcess.exitValue();
 
                 if (altExitCode == 0) {
                     log.info("Successfully blocked IP {} with Windows Firewall using alternative approach", ip);
@@ -249,8 +253,8 @@ public class FirewallManager {
                     ruleName
             );
 
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
+            Process process = exec(command);
+            int exitCode = process.exitValue();
 
             boolean inboundSuccess = false;
             if (exitCode == 0) {
@@ -265,8 +269,8 @@ public class FirewallManager {
                         System.getenv("WINDIR"), ruleName
                 );
 
-                Process altProcess = Runtime.getRuntime().exec(altCommand);
-                int altExitCode = altProcess.waitFor();
+                Process altProcess = exec(altCommand);
+                int altExitCode = altProcess.exitValue();
 
                 if (altExitCode == 0) {
                     log.info("Successfully removed inbound block for IP {} using alternative approach", ip);
@@ -278,8 +282,8 @@ public class FirewallManager {
             }
 
             if (inboundSuccess) {
-                Process outProcess = Runtime.getRuntime().exec(outboundCommand);
-                int outExitCode = outProcess.waitFor();
+                Process outProcess = exec(outboundCommand);
+                int outExitCode = outProcess.exitValue();
 
                 if (outExitCode == 0) {
                     log.info("Successfully removed outbound block for IP {} from Windows Firewall", ip);
@@ -296,6 +300,27 @@ public class FirewallManager {
         }
     }
 
+    private Process exec(String command) throws IOException, InterruptedException {
+        FirewallCommandEvent event = new FirewallCommandEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int exitCode = -1;
+        try {
+            Process process = Runtime.getRuntime().exec(command);
+            exitCode = process.waitFor();
+            return process;
+        } finally {
+            metrics.recordFirewallExec(System.nanoTime() - start, exitCode == 0);
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = command;
+                event.exitCode = exitCode;
+                event.success = exitCode == 0;
+                event.commit();
+            }
+        }
+    }
+
     private void logProcessError(Process process) {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
             String line;
@@ -0,0 +1,33 @@
+package net.jirayu.fortify.geoip;
+
+public class GeoIpResult {
+    public static final GeoIpResult UNKNOWN = new GeoIpResult(null, null, -1, null);
+
+    private final String ip;
+    private final String country;
+    private final long asn;
+    private final String asnOrganization;
+
+    public GeoIpResult(String ip, String country, long asn, String asnOrganization) {
+        this.ip = ip;
+        this.country = country;
+        this.asn = asn;
+        this.asnOrganization = asnOrganization;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public long getAsn() {
+        return asn;
+    }
+
+    public String getAsnOrganization() {
+        return asnOrganization;
+    }
+}
@@ -0,0 +1,308 @@
+package net.jirayu.fortify.geoip;
+
+import net.jirayu.fortify.config.GeoIpConfig;
+import net.jirayu.fortify.ip.IpAddresses;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class GeoIpService {
+    private static final Logger log = LoggerFactory.getLogger(GeoIpService.class);
+
+    private static final byte[][] COUNTRY_ISO_CODE = MaxMindDatabase.path("country", "iso_code");
+    private static final byte[][] REGISTERED_COUNTRY_ISO_CODE = MaxMindDatabase.path("registered_country", "iso_code");
+    private static final byte[][] ASN_NUMBER = MaxMindDatabase.path("autonomous_system_number");
+    private static final byte[][] ASN_ORGANIZATION = MaxMindDatabase.path("autonomous_system_organization");
+
+    private final GeoIpConfig config;
+    private final PolicyStore policyStore;
+    private final Map<String, NetworkWindow> networkWindows = new ConcurrentHashMap<>();
+    private volatile Databases databases = Databases.EMPTY;
+
+    public GeoIpService(GeoIpConfig config, PolicyStore policyStore, FortifyScheduler scheduler) {
+        this.config = config;
+        this.policyStore = policyStore;
+
+        if (config.isEnabled()) {
+            reloadIfChanged();
+            startReloading(scheduler);
+        }
+    }
+
+    private void startReloading(FortifyScheduler scheduler) {
+        long interval = Math.max(1, config.getReloadInterval()) * 1000L;
+        scheduler.scheduleIoWithFixedDelay("GeoIP reload", this::reloadIfChanged, interval, interval);
+        log.info("GeoIP database reloading started");
+    }
+
+    private synchronized void reloadIfChanged() {
+        Databases current = databases;
+        FileStamp countryStamp = FileStamp.of(config.getCountryDatabase());
+        FileStamp asnStamp = FileStamp.of(config.getAsnDatabase());
+
+        if (countryStamp.equals(current.countryStamp) && asnStamp.equals(current.asnStamp)) {
+            return;
+        }
+
+        MaxMindDatabase country = countryStamp.equals(current.countryStamp)
+                ? current.country
+                : open(countryStamp, current.country);
+        MaxMindDatabase asn = asnStamp.equals(current.asnStamp)
+                ? current.asn
+                : open(asnStamp, current.asn);
+
+        databases = new Databases(country, asn, countryStamp, asnStamp, config.getCacheSize());
+    }
+
+    private MaxMindDatabase open(FileStamp stamp, MaxMindDatabase previous) {
+        if (stamp == FileStamp.NONE) {
+            return null;
+        }
+        if (stamp.path == null) {
+            return previous;
+        }
+
+        try {
+            MaxMindDatabase database = MaxMindDatabase.open(stamp.path);
+            log.info("Loaded GeoIP database {} ({}, built {})",
+                    stamp.path, database.getDatabaseType(), database.getBuildEpoch());
+            return database;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load GeoIP database {}: {}", stamp.path, e.getMessage());
+            return previous;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public GeoIpResult lookup(String ip) {
+        Databases current = databases;
+        if (!config.isEnabled() || ip == null || (current.country == null && current.asn == null)) {
+            return GeoIpResult.UNKNOWN;
+        }
+
+        GeoIpResult cached = current.cache.get(ip);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] address = IpAddresses.unmapIpv4(IpAddresses.parse(ip));
+        if (address == null) {
+            return GeoIpResult.UNKNOWN;
+        }
+
+        String country = null;
+        if (current.country != null) {
+            int record = current.country.findRecord(address);
+            country = current.country.readString(record, COUNTRY_ISO_CODE);
+            if (country == null) {
+                country = current.country.readString(record, REGISTERED_COUNTRY_ISO_CODE);
+            }
+        }
+
+        long asn = -1;
+        String organization = null;
+        if (current.asn != null) {
+            int record = current.asn.findRecord(address);
+            asn = current.asn.readLong(record, ASN_NUMBER);
+            organization = current.asn.readString(record, ASN_ORGANIZATION);
+        }
+
+        GeoIpResult result = new GeoIpResult(ip, country, asn, organization);
+        current.cache.put(ip, result);
+        return result;
+    }
+
+    public boolean isBlocked(GeoIpResult result) {
+        return containsCountry(config.getBlockedCountries(), result.getCountry()) ||
+                containsAsn(config.getBlockedAsns(), result.getAsn());
+    }
+
+    public String getLimitedNetworkKey(GeoIpResult result) {
+        if (containsAsn(config.getLimitedAsns(), result.getAsn())) {
+            return "AS" + result.getAsn();
+        }
+        if (containsCountry(config.getLimitedCountries(), result.getCountry())) {
+            return result.getCountry().toUpperCase();
+        }
+        return null;
+    }
+
+    public boolean isNetworkAllowed(String networkKey) {
+        long windowMillis = policyStore.get().getRateLimit().getWindowMillis();
+        NetworkWindow window = networkWindows.computeIfAbsent(networkKey, k -> new NetworkWindow());
+        return window.tryAcquire(windowMillis, config.getLimitedMaxRequests());
+    }
+
+    public long getNetworkWindowReset(String networkKey) {
+        NetworkWindow window = networkWindows.get(networkKey);
+        long windowStart = window != null ? window.windowStart.get() : System.currentTimeMillis();
+        return windowStart + policyStore.get().getRateLimit().getWindowMillis();
+    }
+
+    public Map<String, Object> getDatabaseInfo() {
+        Databases current = databases;
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("country", describe(current.country));
+        info.put("asn", describe(current.asn));
+        info.put("blockedCountries", config.getBlockedCountries());
+        info.put("blockedAsns", config.getBlockedAsns());
+        info.put("limitedCountries", config.getLimitedCountries());
+        info.put("limitedAsns", config.getLimitedAsns());
+        info.put("limitedMaxRequests", config.getLimitedMaxRequests());
+        return info;
+    }
+
+    private Map<String, Object> describe(MaxMindDatabase database) {
+        if (database == null) {
+            return null;
+        }
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("path", database.getPath().toString());
+        info.put("type", database.getDatabaseType());
+        info.put("buildEpoch", database.getBuildEpoch());
+        return info;
+    }
+
+    private static boolean containsCountry(String[] countries, String country) {
+        if (country == null) {
+            return false;
+        }
+        for (String candidate : countries) {
+            if (country.equalsIgnoreCase(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAsn(Long[] asns, long asn) {
+        if (asn < 0) {
+            return false;
+        }
+        for (Long candidate : asns) {
+            if (candidate != null && candidate == asn) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class NetworkWindow {
+        private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+        private final AtomicInteger requests = new AtomicInteger();
+
+        boolean tryAcquire(long windowMillis, int maxRequests) {
+            long now = System.currentTimeMillis();
+            long start = windowStart.get();
+            if (now - start > windowMillis && windowStart.compareAndSet(start, now)) {
+                requests.set(0);
+            }
+            return requests.incrementAndGet() <= maxRequests;
+        }
+    }
+
+    private static class LookupCache {
+        private final GeoIpResult[] entries;
+        private final int mask;
+
+        LookupCache(int size) {
+            int capacity = Integer.highestOneBit(Math.max(16, Math.min(size, 1 << 20)) - 1) << 1;
+            this.entries = new GeoIpResult[capacity];
+            this.mask = capacity - 1;
+        }
+
+        GeoIpResult get(String ip) {
+            GeoIpResult entry = entries[index(ip)];
+            return entry != null && ip.equals(entry.getIp()) ? entry : null;
+        }
+
+        void put(String ip, GeoIpResult result) {
+            entries[index(ip)] = result;
+        }
+
+        private int index(String ip) {
+            int hash = ip.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    private static class FileStamp {
+        private static final FileStamp NONE = new FileStamp(null, -1, -1);
+
+        private final Path path;
+        private final long modified;
+        private final long size;
+
+        private FileStamp(Path path, long modified, long size) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+        }
+
+        static FileStamp of(String location) {
+            if (location == null || location.isEmpty()) {
+                return NONE;
+            }
+
+            Path path = Paths.get(location);
+            try {
+                return new FileStamp(path, Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+            } catch (IOException e) {
+                log.warn("GeoIP database {} is not readable: {}", location, e.getMessage());
+                return new FileStamp(null, -1, -1);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp other = (FileStamp) o;
+            return modified == other.modified && size == other.size &&
+                    (path == null ? other.path == null : path.equals(other.path));
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modified) * 31 + Long.hashCode(size);
+        }
+    }
+
+    private static class Databases {
+        private static final Databases EMPTY = new Databases(null, null, FileStamp.NONE, FileStamp.NONE, 16);
+
+        private final MaxMindDatabase country;
+        private final MaxMindDatabase asn;
+        private final FileStamp countryStamp;
+        private final FileStamp asnStamp;
+        private final LookupCache cache;
+
+        Databases(MaxMindDatabase country, MaxMindDatabase asn,
+                  FileStamp countryStamp, FileStamp asnStamp, int cacheSize) {
+            this.country = country;
+            this.asn = asn;
+            this.countryStamp = countryStamp;
+            this.asnStamp = asnStamp;
+            this.cache = new LookupCache(cacheSize);
+        }
+    }
+}
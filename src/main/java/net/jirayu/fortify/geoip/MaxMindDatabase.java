@@ -0,0 +1,469 @@
+package net.jirayu.fortify.geoip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MaxMindDatabase {
+    private static final byte[] METADATA_MARKER = {
+            (byte) 0xAB, (byte) 0xCD, (byte) 0xEF,
+            'M', 'a', 'x', 'M', 'i', 'n', 'd', '.', 'c', 'o', 'm'
+    };
+    private static final int METADATA_SEARCH_LIMIT = 128 * 1024;
+    private static final int DATA_SECTION_SEPARATOR = 16;
+
+    private static final int TYPE_POINTER = 1;
+    private static final int TYPE_STRING = 2;
+    private static final int TYPE_DOUBLE = 3;
+    private static final int TYPE_BYTES = 4;
+    private static final int TYPE_UINT16 = 5;
+    private static final int TYPE_UINT32 = 6;
+    private static final int TYPE_MAP = 7;
+    private static final int TYPE_INT32 = 8;
+    private static final int TYPE_UINT64 = 9;
+    private static final int TYPE_UINT128 = 10;
+    private static final int TYPE_ARRAY = 11;
+    private static final int TYPE_BOOLEAN = 14;
+    private static final int TYPE_FLOAT = 15;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final Map<String, Object> metadata;
+    private final int nodeCount;
+    private final int recordSize;
+    private final int ipVersion;
+    private final int dataSectionStart;
+    private final int ipv4Start;
+
+    private MaxMindDatabase(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        int metadataStart = findMetadataStart(buffer);
+        if (metadataStart < 0) {
+            throw new IOException("Not a MaxMind database, metadata marker not found: " + path);
+        }
+
+        Object decoded = new Decoder(buffer, metadataStart).decode(metadataStart);
+        if (!(decoded instanceof Map)) {
+            throw new IOException("Invalid MaxMind metadata in " + path);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decodedMetadata = (Map<String, Object>) decoded;
+        this.metadata = decodedMetadata;
+        this.nodeCount = (int) metadataNumber("node_count");
+        this.recordSize = (int) metadataNumber("record_size");
+        this.ipVersion = (int) metadataNumber("ip_version");
+
+        if (recordSize != 24 && recordSize != 28 && recordSize != 32) {
+            throw new IOException("Unsupported MaxMind record size " + recordSize + " in " + path);
+        }
+
+        long searchTreeSize = (long) nodeCount * recordSize / 4;
+        if (searchTreeSize + DATA_SECTION_SEPARATOR > metadataStart) {
+            throw new IOException("MaxMind search tree exceeds file size in " + path);
+        }
+        this.dataSectionStart = (int) searchTreeSize + DATA_SECTION_SEPARATOR;
+
+        int node = 0;
+        if (ipVersion == 6) {
+            for (int i = 0; i < 96 && node < nodeCount; i++) {
+                node = readRecord(node, 0);
+            }
+        }
+        this.ipv4Start = node;
+    }
+
+    public static MaxMindDatabase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("MaxMind database too large to map: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MaxMindDatabase(path, mapped);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public String getDatabaseType() {
+        Object type = metadata.get("database_type");
+        return type != null ? type.toString() : "unknown";
+    }
+
+    public long getBuildEpoch() {
+        return metadataNumber("build_epoch");
+    }
+
+    public int findRecord(byte[] address) {
+        if (address == null || (address.length == 16 && ipVersion == 4)) {
+            return -1;
+        }
+
+        int node = address.length == 4 ? ipv4Start : 0;
+        int bits = address.length * 8;
+
+        for (int i = 0; i < bits && node < nodeCount; i++) {
+            int bit = (address[i >>> 3] >>> (7 - (i & 7))) & 1;
+            node = readRecord(node, bit);
+        }
+
+        if (node <= nodeCount) {
+            return -1;
+        }
+
+        int offset = node - nodeCount - DATA_SECTION_SEPARATOR;
+        return offset >= 0 ? offset : -1;
+    }
+
+    public String readString(int record, byte[][] path) {
+        int offset = locate(record, path);
+        if (offset < 0) {
+            return null;
+        }
+
+        int control = buffer.get(offset) & 0xFF;
+        if (control >>> 5 != TYPE_STRING) {
+            return null;
+        }
+
+        int size = control & 0x1F;
+        int position = offset + 1;
+        if (size >= 29) {
+            int extra = size - 28;
+            size = readSize(size, position);
+            position += extra;
+        }
+
+        byte[] bytes = new byte[size];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public long readLong(int record, byte[][] path) {
+        int offset = locate(record, path);
+        if (offset < 0) {
+            return -1;
+        }
+
+        Object value = new Decoder(buffer, dataSectionStart).decode(offset);
+        return value instanceof Number ? ((Number) value).longValue() : -1;
+    }
+
+    public static byte[][] path(String... keys) {
+        byte[][] encoded = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            encoded[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private int locate(int record, byte[][] path) {
+        if (record < 0) {
+            return -1;
+        }
+
+        int offset = resolvePointer(dataSectionStart + record);
+        for (byte[] key : path) {
+            int control = buffer.get(offset) & 0xFF;
+            if (control >>> 5 != TYPE_MAP) {
+                return -1;
+            }
+
+            int entries = control & 0x1F;
+            int position = offset + 1;
+            if (entries >= 29) {
+                int extra = entries - 28;
+                entries = readSize(entries, position);
+                position += extra;
+            }
+
+            int found = -1;
+            for (int i = 0; i < entries; i++) {
+                boolean matches = keyEquals(resolvePointer(position), key);
+                position = skip(position);
+                if (matches) {
+                    found = resolvePointer(position);
+                    break;
+                }
+                position = skip(position);
+            }
+
+            if (found < 0) {
+                return -1;
+            }
+            offset = found;
+        }
+
+        return offset;
+    }
+
+    private boolean keyEquals(int offset, byte[] key) {
+        int control = buffer.get(offset) & 0xFF;
+        if (control >>> 5 != TYPE_STRING) {
+            return false;
+        }
+
+        int size = control & 0x1F;
+        int position = offset + 1;
+        if (size >= 29) {
+            int extra = size - 28;
+            size = readSize(size, position);
+            position += extra;
+        }
+
+        if (size != key.length) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int resolvePointer(int offset) {
+        int control = buffer.get(offset) & 0xFF;
+        if (control >>> 5 != TYPE_POINTER) {
+            return offset;
+        }
+        return dataSectionStart + pointerTarget(buffer, control, offset + 1);
+    }
+
+    private int skip(int offset) {
+        int control = buffer.get(offset) & 0xFF;
+        int type = control >>> 5;
+        int position = offset + 1;
+
+        if (type == TYPE_POINTER) {
+            return position + ((control >>> 3) & 0x3) + 1;
+        }
+        if (type == 0) {
+            type = 7 + (buffer.get(position++) & 0xFF);
+        }
+
+        int size = control & 0x1F;
+        if (size >= 29) {
+            int extra = size - 28;
+            size = readSize(size, position);
+            position += extra;
+        }
+
+        switch (type) {
+            case TYPE_MAP:
+                for (int i = 0; i < size * 2; i++) {
+                    position = skip(position);
+                }
+                return position;
+            case TYPE_ARRAY:
+                for (int i = 0; i < size; i++) {
+                    position = skip(position);
+                }
+                return position;
+            case TYPE_BOOLEAN:
+                return position;
+            default:
+                return position + size;
+        }
+    }
+
+    private int readSize(int size, int position) {
+        return readSize(buffer, size, position);
+    }
+
+    private static int readSize(ByteBuffer buffer, int size, int position) {
+        if (size == 29) {
+            return 29 + (buffer.get(position) & 0xFF);
+        }
+        if (size == 30) {
+            return 285 + (int) readUnsigned(buffer, position, 2);
+        }
+        return 65821 + (int) readUnsigned(buffer, position, 3);
+    }
+
+    private static int pointerTarget(ByteBuffer buffer, int control, int position) {
+        int length = ((control >>> 3) & 0x3) + 1;
+        int value = control & 0x7;
+
+        switch (length) {
+            case 1:
+                return (value << 8) | (buffer.get(position) & 0xFF);
+            case 2:
+                return ((value << 16) | (int) readUnsigned(buffer, position, 2)) + 2048;
+            case 3:
+                return ((value << 24) | (int) readUnsigned(buffer, position, 3)) + 526336;
+            default:
+                return (int) readUnsigned(buffer, position, 4);
+        }
+    }
+
+    private int readRecord(int node, int side) {
+        int base = node * recordSize / 4;
+
+        switch (recordSize) {
+            case 24:
+                return (int) readUnsigned(buffer, base + side * 3, 3);
+            case 28:
+                int middle = buffer.get(base + 3) & 0xFF;
+                if (side == 0) {
+                    return ((middle & 0xF0) << 20) | (int) readUnsigned(buffer, base, 3);
+                }
+                return ((middle & 0x0F) << 24) | (int) readUnsigned(buffer, base + 4, 3);
+            default:
+                return (int) readUnsigned(buffer, base + side * 4, 4);
+        }
+    }
+
+    private static long readUnsigned(ByteBuffer buffer, int position, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | (buffer.get(position + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private long metadataNumber(String key) {
+        Object value = metadata.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalStateException("MaxMind metadata is missing " + key + " in " + path);
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static int findMetadataStart(ByteBuffer buffer) {
+        int limit = Math.max(0, buffer.capacity() - METADATA_SEARCH_LIMIT);
+
+        for (int i = buffer.capacity() - METADATA_MARKER.length; i >= limit; i--) {
+            boolean match = true;
+            for (int j = 0; j < METADATA_MARKER.length; j++) {
+                if (buffer.get(i + j) != METADATA_MARKER[j]) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                return i + METADATA_MARKER.length;
+            }
+        }
+
+        return -1;
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private final int pointerBase;
+        private int position;
+
+        Decoder(ByteBuffer buffer, int pointerBase) {
+            this.buffer = buffer;
+            this.pointerBase = pointerBase;
+        }
+
+        Object decode(int offset) {
+            position = offset;
+            return next();
+        }
+
+        private Object next() {
+            int control = buffer.get(position++) & 0xFF;
+            int type = control >>> 5;
+
+            if (type == TYPE_POINTER) {
+                int target = pointerBase + pointerTarget(buffer, control, position);
+                int resume = position + ((control >>> 3) & 0x3) + 1;
+                position = target;
+                Object value = next();
+                position = resume;
+                return value;
+            }
+            if (type == 0) {
+                type = 7 + (buffer.get(position++) & 0xFF);
+            }
+
+            int size = control & 0x1F;
+            if (size >= 29) {
+                int extra = size - 28;
+                size = readSize(buffer, size, position);
+                position += extra;
+            }
+
+            switch (type) {
+                case TYPE_STRING: {
+                    byte[] bytes = new byte[size];
+                    buffer.get(position, bytes);
+                    position += size;
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+                case TYPE_DOUBLE: {
+                    double value = buffer.getDouble(position);
+                    position += 8;
+                    return value;
+                }
+                case TYPE_FLOAT: {
+                    float value = buffer.getFloat(position);
+                    position += 4;
+                    return value;
+                }
+                case TYPE_BYTES: {
+                    byte[] bytes = new byte[size];
+                    buffer.get(position, bytes);
+                    position += size;
+                    return bytes;
+                }
+                case TYPE_UINT16:
+                case TYPE_UINT32:
+                case TYPE_UINT64:
+                case TYPE_UINT128: {
+                    int length = Math.min(size, 8);
+                    long value = readUnsigned(buffer, position + size - length, length);
+                    position += size;
+                    return value;
+                }
+                case TYPE_INT32: {
+                    int value = (int) readUnsigned(buffer, position, size);
+                    if (size < 4 && size > 0 && (value & (1 << (size * 8 - 1))) != 0) {
+                        value |= -1 << (size * 8);
+                    }
+                    position += size;
+                    return value;
+                }
+                case TYPE_MAP: {
+                    Map<String, Object> map = new HashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        Object key = next();
+                        map.put(String.valueOf(key), next());
+                    }
+                    return map;
+                }
+                case TYPE_ARRAY: {
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(next());
+                    }
+                    return list;
+                }
+                case TYPE_BOOLEAN:
+                    return size != 0;
+                default:
+                    throw new IllegalStateException("Unsupported MaxMind data type " + type + " at offset " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package net.jirayu.fortify.heavyhitter;
+
+import dev.arbjerg.lavalink.api.ISocketContext;
+import net.jirayu.fortify.FortifyTools;
+import net.jirayu.fortify.config.HeavyHitterConfig;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import net.jirayu.fortify.session.SessionRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Service
+public class HeavyHitterTracker {
+    private static final long MINUTE = 60000;
+    private static final int BUCKETS = 16;
+
+    public enum Dimension {
+        IP, USER, ROUTE
+    }
+
+    private final HeavyHitterConfig config;
+    private final SessionRegistry sessionRegistry;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<String> ips;
+    private final AtomicReferenceArray<String> paths;
+    private final int mask;
+    private final SpaceSaving[][] buckets = new SpaceSaving[Dimension.values().length][BUCKETS];
+    private final long[] bucketMinutes = new long[BUCKETS];
+    private final long[] bucketTotals = new long[BUCKETS];
+    private long cursor;
+    private long lost;
+
+    public HeavyHitterTracker(HeavyHitterConfig config, SessionRegistry sessionRegistry, FortifyScheduler scheduler) {
+        this.config = config;
+        this.sessionRegistry = sessionRegistry;
+
+        int bufferSize = Integer.highestOneBit(Math.max(1024, config.getBufferSize()) - 1) << 1;
+        this.ips = new AtomicReferenceArray<>(bufferSize);
+        this.paths = new AtomicReferenceArray<>(bufferSize);
+        this.mask = bufferSize - 1;
+        for (SpaceSaving[] dimension : buckets) {
+            for (int i = 0; i < BUCKETS; i++) {
+                dimension[i] = new SpaceSaving(Math.max(1, config.getCapacity()));
+            }
+        }
+
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        scheduler.scheduleWithFixedDelay("heavy hitter drain", () -> drain(System.currentTimeMillis()),
+                config.getDrainInterval(), config.getDrainInterval());
+    }
+
+    public void record(String ip, String path) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        int slot = (int) (sequence.getAndIncrement() & mask);
+        paths.lazySet(slot, path);
+        ips.lazySet(slot, ip);
+    }
+
+    private synchronized void drain(long now) {
+        long end = sequence.get();
+        if (end - cursor > mask + 1) {
+            lost += end - cursor - mask - 1;
+            cursor = end - mask - 1;
+        }
+
+        int bucket = rotate(now);
+        for (; cursor < end; cursor++) {
+            int slot = (int) (cursor & mask);
+            String ip = ips.getAndSet(slot, null);
+            String path = paths.getAndSet(slot, null);
+            if (ip == null || path == null) {
+                continue;
+            }
+
+            bucketTotals[bucket]++;
+            buckets[Dimension.IP.ordinal()][bucket].offer(ip);
+            buckets[Dimension.ROUTE.ordinal()][bucket].offer(FortifyTools.getRouteTemplate(path));
+
+            String sessionId = FortifyTools.getSessionId(path);
+            ISocketContext context = sessionId != null ? sessionRegistry.getContext(sessionId) : null;
+            if (context != null) {
+                buckets[Dimension.USER.ordinal()][bucket].offer(Long.toString(context.getUserId()));
+            }
+        }
+    }
+
+    private int rotate(long now) {
+        long minute = now / MINUTE;
+        int bucket = (int) (minute & (BUCKETS - 1));
+        if (bucketMinutes[bucket] != minute) {
+            for (SpaceSaving[] dimension : buckets) {
+                dimension[bucket].clear();
+            }
+            bucketMinutes[bucket] = minute;
+            bucketTotals[bucket] = 0;
+        }
+        return bucket;
+    }
+
+    public synchronized Map<String, Object> getTop(int windowMinutes, Dimension dimension, int limit) {
+        long now = System.currentTimeMillis();
+        drain(now);
+
+        long minute = now / MINUTE;
+        long total = 0;
+        List<SpaceSaving> window = new ArrayList<>();
+        for (long m = minute - windowMinutes + 1; m <= minute; m++) {
+            int bucket = (int) (m & (BUCKETS - 1));
+            if (bucketMinutes[bucket] == m) {
+                window.add(buckets[dimension.ordinal()][bucket]);
+                total += bucketTotals[bucket];
+            }
+        }
+
+        Map<String, long[]> merged = new HashMap<>();
+        for (SpaceSaving summary : window) {
+            for (SpaceSaving.Counter counter : summary.counters()) {
+                merged.computeIfAbsent(counter.getKey(), k -> new long[2]);
+            }
+        }
+        for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+            long[] estimate = entry.getValue();
+            for (SpaceSaving summary : window) {
+                SpaceSaving.Counter counter = summary.get(entry.getKey());
+                if (counter != null) {
+                    estimate[0] += counter.getCount();
+                    estimate[1] += counter.getError();
+                } else {
+                    estimate[0] += summary.getMinCount();
+                    estimate[1] += summary.getMinCount();
+                }
+            }
+        }
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        merged.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(Math.max(0, limit))
+                .forEach(entry -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("key", entry.getKey());
+                    item.put("count", entry.getValue()[0]);
+                    item.put("error", entry.getValue()[1]);
+                    top.add(item);
+                });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", (minute - windowMinutes + 1) * MINUTE);
+        result.put("total", total);
+        result.put("top", top);
+        return result;
+    }
+
+    public synchronized Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("capacity", config.getCapacity());
+        info.put("recorded", sequence.get());
+        info.put("lost", lost);
+        return info;
+    }
+}
@@ -0,0 +1,125 @@
+package net.jirayu.fortify.ip;
+
+public final class ForwardedHeaderParser {
+    private ForwardedHeaderParser() {
+    }
+
+    // Returns true once an untrusted or malformed hop ends the walk; result holds the client address.
+    public static boolean walk(CharSequence header, boolean rfc7239, IpIntervalSet trusted,
+                               PackedIp scratch, PackedIp result) {
+        int end = header.length();
+
+        while (end > 0) {
+            int start = end - 1;
+            while (start >= 0 && header.charAt(start) != ',') {
+                start--;
+            }
+
+            int elementStart = start + 1;
+            int elementEnd = end;
+            end = start;
+
+            if (isBlank(header, elementStart, elementEnd)) {
+                continue;
+            }
+
+            boolean parsed = rfc7239
+                    ? parseForwardedElement(header, elementStart, elementEnd, scratch)
+                    : parseNode(header, elementStart, elementEnd, scratch);
+
+            if (!parsed) {
+                return true;
+            }
+
+            result.set(scratch.getHigh(), scratch.getLow());
+            if (!trusted.containsPacked(scratch.getHigh(), scratch.getLow())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean parseForwardedElement(CharSequence header, int start, int end, PackedIp target) {
+        int pairStart = start;
+
+        while (pairStart < end) {
+            int pairEnd = pairStart;
+            boolean quoted = false;
+            while (pairEnd < end && (quoted || header.charAt(pairEnd) != ';')) {
+                if (header.charAt(pairEnd) == '"') {
+                    quoted = !quoted;
+                }
+                pairEnd++;
+            }
+
+            int keyStart = skipSpaces(header, pairStart, pairEnd);
+            if (pairEnd - keyStart > 4 && regionMatchesFor(header, keyStart)) {
+                int valueStart = keyStart + 4;
+                int valueEnd = trimEnd(header, valueStart, pairEnd);
+
+                if (valueEnd - valueStart >= 2 && header.charAt(valueStart) == '"' &&
+                        header.charAt(valueEnd - 1) == '"') {
+                    valueStart++;
+                    valueEnd--;
+                }
+
+                return parseNode(header, valueStart, valueEnd, target);
+            }
+
+            pairStart = pairEnd + 1;
+        }
+
+        return false;
+    }
+
+    private static boolean parseNode(CharSequence value, int start, int end, PackedIp target) {
+        start = skipSpaces(value, start, end);
+        end = trimEnd(value, start, end);
+
+        if (start >= end) {
+            return false;
+        }
+
+        if (value.charAt(start) == '[') {
+            int close = start + 1;
+            while (close < end && value.charAt(close) != ']') {
+                close++;
+            }
+            return close < end && target.parse(value, start + 1, close);
+        }
+
+        int colon = -1;
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == ':') {
+                if (colon >= 0) {
+                    return target.parse(value, start, end);
+                }
+                colon = i;
+            }
+        }
+
+        return target.parse(value, start, colon >= 0 ? colon : end);
+    }
+
+    private static boolean regionMatchesFor(CharSequence value, int start) {
+        return (value.charAt(start) | 0x20) == 'f' &&
+                (value.charAt(start + 1) | 0x20) == 'o' &&
+                (value.charAt(start + 2) | 0x20) == 'r' &&
+                value.charAt(start + 3) == '=';
+    }
+
+    private static boolean isBlank(CharSequence value, int start, int end) {
+        return skipSpaces(value, start, end) == end;
+    }
+
+    private static int skipSpaces(CharSequence value, int start, int end) {
+        while (start < end && (value.charAt(start) == ' ' || value.charAt(start) == '\t')) start++;
+        return start;
+    }
+
+    private static int trimEnd(CharSequence value, int start, int end) {
+        while (end > start && (value.charAt(end - 1) == ' ' || value.charAt(end - 1) == '\t')) end--;
+        return end;
+    }
+}
@@ -0,0 +1,205 @@
+package net.jirayu.fortify.ip;
+
+public final class IpAddresses {
+    private IpAddresses() {
+    }
+
+    public static byte[] parse(CharSequence value) {
+        if (value == null) {
+            return null;
+        }
+        return parse(value, 0, value.length());
+    }
+
+    public static byte[] parse(CharSequence value, int start, int end) {
+        while (start < end && value.charAt(start) == ' ') start++;
+        while (end > start && value.charAt(end - 1) == ' ') end--;
+
+        if (start >= end) {
+            return null;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == ':') {
+                byte[] address = new byte[16];
+                return parseIpv6(value, start, end, address) ? address : null;
+            }
+        }
+
+        byte[] address = new byte[4];
+        return parseIpv4(value, start, end, address, 0) ? address : null;
+    }
+
+    // Canonical form used as the client key everywhere: dotted IPv4, RFC 5952 IPv6. Null if the value does not parse.
+    public static String canonicalize(CharSequence value) {
+        PackedIp address = new PackedIp();
+        return address.parse(value) ? address.toCanonicalString() : null;
+    }
+
+    public static String format(byte[] address) {
+        if (address == null || (address.length != 4 && address.length != 16)) {
+            return null;
+        }
+
+        long high = 0;
+        long low = 0;
+        if (address.length == 4) {
+            low = 0xFFFFL << 32;
+            for (int i = 0; i < 4; i++) {
+                low |= (address[i] & 0xFFL) << ((3 - i) * 8);
+            }
+        } else {
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (address[i] & 0xFF);
+                low = (low << 8) | (address[i + 8] & 0xFF);
+            }
+        }
+        return PackedIp.format(high, low);
+    }
+
+    public static byte[] unmapIpv4(byte[] address) {
+        if (address == null || address.length != 16) {
+            return address;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return address;
+            }
+        }
+        if (address[10] != (byte) 0xFF || address[11] != (byte) 0xFF) {
+            return address;
+        }
+        return new byte[]{address[12], address[13], address[14], address[15]};
+    }
+
+    static boolean parseIpv4(CharSequence value, int start, int end, byte[] target, int offset) {
+        int octets = 0;
+        int current = -1;
+        int digits = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 && current == 0) {
+                    return false;
+                }
+                current = (current < 0 ? 0 : current * 10) + (c - '0');
+                if (current > 255 || ++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.') {
+                if (current < 0 || octets == 3) {
+                    return false;
+                }
+                target[offset + octets++] = (byte) current;
+                current = -1;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+
+        if (current < 0 || octets != 3) {
+            return false;
+        }
+        target[offset + 3] = (byte) current;
+        return true;
+    }
+
+    static boolean parseIpv6(CharSequence value, int start, int end, byte[] target) {
+        int zone = indexOf(value, '%', start, end);
+        if (zone >= 0) {
+            end = zone;
+        }
+
+        int groups = 0;
+        int compressAt = -1;
+        int i = start;
+
+        if (end - start >= 2 && value.charAt(start) == ':') {
+            if (value.charAt(start + 1) != ':') {
+                return false;
+            }
+            compressAt = 0;
+            i = start + 2;
+        }
+
+        while (i < end) {
+            if (groups == 8) {
+                return false;
+            }
+
+            int groupEnd = i;
+            int groupValue = 0;
+            while (groupEnd < end && value.charAt(groupEnd) != ':') {
+                char c = value.charAt(groupEnd);
+                if (c == '.') {
+                    if (groups > 6 || !parseIpv4(value, i, end, target, groups * 2)) {
+                        return false;
+                    }
+                    groups += 2;
+                    groupEnd = -1;
+                    break;
+                }
+                int digit = Character.digit(c, 16);
+                if (digit < 0 || groupEnd - i >= 4) {
+                    return false;
+                }
+                groupValue = (groupValue << 4) | digit;
+                groupEnd++;
+            }
+
+            if (groupEnd < 0) {
+                i = end;
+                break;
+            }
+            if (groupEnd == i) {
+                return false;
+            }
+
+            target[groups * 2] = (byte) (groupValue >>> 8);
+            target[groups * 2 + 1] = (byte) groupValue;
+            groups++;
+
+            if (groupEnd == end) {
+                i = end;
+                break;
+            }
+
+            if (groupEnd + 1 < end && value.charAt(groupEnd + 1) == ':') {
+                if (compressAt >= 0) {
+                    return false;
+                }
+                compressAt = groups;
+                i = groupEnd + 2;
+            } else if (groupEnd + 1 == end) {
+                return false;
+            } else {
+                i = groupEnd + 1;
+            }
+        }
+
+        if (compressAt < 0) {
+            return groups == 8;
+        }
+        if (groups == 8) {
+            return false;
+        }
+
+        int tail = (groups - compressAt) * 2;
+        System.arraycopy(target, compressAt * 2, target, 16 - tail, tail);
+        for (int j = compressAt * 2; j < 16 - tail; j++) {
+            target[j] = 0;
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence value, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
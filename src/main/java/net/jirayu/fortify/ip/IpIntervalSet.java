@@ -0,0 +1,283 @@
+package net.jirayu.fortify.ip;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class IpIntervalSet {
+    private static final Comparator<long[]> IPV6_ORDER = (a, b) -> {
+        int compare = Long.compareUnsigned(a[0], b[0]);
+        if (compare == 0) {
+            compare = Long.compareUnsigned(a[1], b[1]);
+        }
+        return compare;
+    };
+
+    public static final IpIntervalSet EMPTY = new Builder().build();
+
+    private final int[] ipv4Starts;
+    private final int[] ipv4Ends;
+    private final long[] ipv6Ranges;
+    private final int ipv6Count;
+    private final long sourceEntries;
+
+    private IpIntervalSet(int[] ipv4Starts, int[] ipv4Ends, long[] ipv6Ranges, int ipv6Count, long sourceEntries) {
+        this.ipv4Starts = ipv4Starts;
+        this.ipv4Ends = ipv4Ends;
+        this.ipv6Ranges = ipv6Ranges;
+        this.ipv6Count = ipv6Count;
+        this.sourceEntries = sourceEntries;
+    }
+
+    public boolean contains(byte[] address) {
+        if (address == null) {
+            return false;
+        }
+        if (address.length == 4) {
+            return containsIpv4((int) readIpv4(address));
+        }
+        return containsIpv6(readLong(address, 0), readLong(address, 8));
+    }
+
+    public boolean containsPacked(long high, long low) {
+        if (PackedIp.isIpv4Mapped(high, low)) {
+            return containsIpv4((int) low);
+        }
+        return containsIpv6(high, low);
+    }
+
+    public boolean containsIpv4(int address) {
+        int key = address ^ Integer.MIN_VALUE;
+        int low = 0;
+        int high = ipv4Starts.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ipv4Starts[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high >= 0 && key <= ipv4Ends[high];
+    }
+
+    public boolean containsIpv6(long addressHigh, long addressLow) {
+        int low = 0;
+        int high = ipv6Count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(ipv6Ranges[mid * 4], ipv6Ranges[mid * 4 + 1], addressHigh, addressLow) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high >= 0 &&
+                compare(addressHigh, addressLow, ipv6Ranges[high * 4 + 2], ipv6Ranges[high * 4 + 3]) <= 0;
+    }
+
+    public boolean isEmpty() {
+        return ipv4Starts.length == 0 && ipv6Count == 0;
+    }
+
+    public int getIpv4RangeCount() {
+        return ipv4Starts.length;
+    }
+
+    public int getIpv6RangeCount() {
+        return ipv6Count;
+    }
+
+    public long getSourceEntries() {
+        return sourceEntries;
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int compare = Long.compareUnsigned(aHigh, bHigh);
+        return compare != 0 ? compare : Long.compareUnsigned(aLow, bLow);
+    }
+
+    private static long readIpv4(byte[] address) {
+        return ((address[0] & 0xFFL) << 24) | ((address[1] & 0xFFL) << 16) |
+                ((address[2] & 0xFFL) << 8) | (address[3] & 0xFFL);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public static class Builder {
+        private long[] ipv4 = new long[1024];
+        private int ipv4Size;
+        private long[][] ipv6 = new long[64][];
+        private int ipv6Size;
+        private long sourceEntries;
+
+        public boolean add(CharSequence value, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c == '/') {
+                    byte[] address = IpAddresses.parse(value, start, i);
+                    int prefix = parsePrefix(value, i + 1, end);
+                    if (address == null || prefix < 0 || prefix > address.length * 8) {
+                        return false;
+                    }
+                    addCidr(address, prefix);
+                    return true;
+                }
+                if (c == '-') {
+                    byte[] first = IpAddresses.parse(value, start, i);
+                    byte[] last = IpAddresses.parse(value, i + 1, end);
+                    if (first == null || last == null || first.length != last.length) {
+                        return false;
+                    }
+                    addRange(first, last);
+                    return true;
+                }
+            }
+
+            byte[] address = IpAddresses.parse(value, start, end);
+            if (address == null) {
+                return false;
+            }
+            addCidr(address, address.length * 8);
+            return true;
+        }
+
+        public Builder addCidr(byte[] address, int prefix) {
+            if (address.length == 4) {
+                long start = readIpv4(address);
+                long mask = prefix == 0 ? 0 : (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+                start &= mask;
+                return addIpv4Range(start, start | (~mask & 0xFFFFFFFFL));
+            }
+
+            long high = readLong(address, 0);
+            long low = readLong(address, 8);
+            long highMask = prefix >= 64 ? -1L : (prefix == 0 ? 0 : -1L << (64 - prefix));
+            long lowMask = prefix <= 64 ? 0 : (prefix == 128 ? -1L : -1L << (128 - prefix));
+            return addIpv6Range(high & highMask, low & lowMask, high | ~highMask, low | ~lowMask);
+        }
+
+        public Builder addRange(byte[] first, byte[] last) {
+            if (first.length != last.length) {
+                throw new IllegalArgumentException("Range mixes IPv4 and IPv6 addresses");
+            }
+            if (first.length == 4) {
+                long start = readIpv4(first);
+                long end = readIpv4(last);
+                return addIpv4Range(Math.min(start, end), Math.max(start, end));
+            }
+
+            long startHigh = readLong(first, 0);
+            long startLow = readLong(first, 8);
+            long endHigh = readLong(last, 0);
+            long endLow = readLong(last, 8);
+            if (compare(startHigh, startLow, endHigh, endLow) > 0) {
+                return addIpv6Range(endHigh, endLow, startHigh, startLow);
+            }
+            return addIpv6Range(startHigh, startLow, endHigh, endLow);
+        }
+
+        private Builder addIpv4Range(long start, long end) {
+            if (ipv4Size == ipv4.length) {
+                ipv4 = Arrays.copyOf(ipv4, ipv4.length * 2);
+            }
+            ipv4[ipv4Size++] = ((long) ((int) start ^ Integer.MIN_VALUE) << 32) | end;
+            sourceEntries++;
+            return this;
+        }
+
+        private Builder addIpv6Range(long startHigh, long startLow, long endHigh, long endLow) {
+            if (ipv6Size == ipv6.length) {
+                ipv6 = Arrays.copyOf(ipv6, ipv6.length * 2);
+            }
+            ipv6[ipv6Size++] = new long[]{startHigh, startLow, endHigh, endLow};
+            sourceEntries++;
+            return this;
+        }
+
+        public IpIntervalSet build() {
+            Arrays.sort(ipv4, 0, ipv4Size);
+
+            int[] starts = new int[ipv4Size];
+            int[] ends = new int[ipv4Size];
+            int count = 0;
+
+            for (int i = 0; i < ipv4Size; i++) {
+                int start = (int) (ipv4[i] >> 32);
+                long end = ipv4[i] & 0xFFFFFFFFL;
+                int flippedEnd = (int) end ^ Integer.MIN_VALUE;
+
+                if (count > 0 && (long) start - 1 <= ends[count - 1]) {
+                    if (flippedEnd > ends[count - 1]) {
+                        ends[count - 1] = flippedEnd;
+                    }
+                } else {
+                    starts[count] = start;
+                    ends[count] = flippedEnd;
+                    count++;
+                }
+            }
+
+            Arrays.sort(ipv6, 0, ipv6Size, IPV6_ORDER);
+
+            long[] ranges = new long[ipv6Size * 4];
+            int ipv6Merged = 0;
+
+            for (int i = 0; i < ipv6Size; i++) {
+                long[] range = ipv6[i];
+                if (ipv6Merged > 0) {
+                    int last = (ipv6Merged - 1) * 4;
+                    long lastEndHigh = ranges[last + 2];
+                    long lastEndLow = ranges[last + 3];
+                    long nextHigh = lastEndLow == -1L ? lastEndHigh + 1 : lastEndHigh;
+                    long nextLow = lastEndLow + 1;
+                    boolean saturated = lastEndHigh == -1L && lastEndLow == -1L;
+
+                    if (saturated || compare(range[0], range[1], nextHigh, nextLow) <= 0) {
+                        if (compare(range[2], range[3], lastEndHigh, lastEndLow) > 0) {
+                            ranges[last + 2] = range[2];
+                            ranges[last + 3] = range[3];
+                        }
+                        continue;
+                    }
+                }
+
+                int offset = ipv6Merged * 4;
+                System.arraycopy(range, 0, ranges, offset, 4);
+                ipv6Merged++;
+            }
+
+            return new IpIntervalSet(
+                    Arrays.copyOf(starts, count),
+                    Arrays.copyOf(ends, count),
+                    Arrays.copyOf(ranges, ipv6Merged * 4),
+                    ipv6Merged,
+                    sourceEntries);
+        }
+
+        private static int parsePrefix(CharSequence value, int start, int end) {
+            if (start >= end || end - start > 3) {
+                return -1;
+            }
+
+            int prefix = 0;
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                prefix = prefix * 10 + (c - '0');
+            }
+            return prefix;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.jirayu.fortify.ip;
+
+public final class PackedIp {
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFFL << 32;
+    private static final int CANONICAL_CACHE_SIZE = 4096;
+    private static final CanonicalEntry[] CANONICAL_CACHE = new CanonicalEntry[CANONICAL_CACHE_SIZE];
+
+    private final byte[] bytes = new byte[16];
+    private long high;
+    private long low;
+
+    public boolean parse(CharSequence value) {
+        return value != null && parse(value, 0, value.length());
+    }
+
+    public boolean parse(CharSequence value, int start, int end) {
+        while (start < end && value.charAt(start) == ' ') start++;
+        while (end > start && value.charAt(end - 1) == ' ') end--;
+
+        if (start >= end) {
+            return false;
+        }
+
+        boolean ipv6 = false;
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == ':') {
+                ipv6 = true;
+                break;
+            }
+        }
+
+        if (ipv6) {
+            if (!IpAddresses.parseIpv6(value, start, end, bytes)) {
+                return false;
+            }
+        } else {
+            for (int i = 0; i < 10; i++) {
+                bytes[i] = 0;
+            }
+            bytes[10] = (byte) 0xFF;
+            bytes[11] = (byte) 0xFF;
+            if (!IpAddresses.parseIpv4(value, start, end, bytes, 12)) {
+                return false;
+            }
+        }
+
+        high = 0;
+        low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (bytes[i] & 0xFF);
+            low = (low << 8) | (bytes[i + 8] & 0xFF);
+        }
+        return true;
+    }
+
+    public void set(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public boolean isIpv4() {
+        return isIpv4Mapped(high, low);
+    }
+
+    public static boolean isIpv4Mapped(long high, long low) {
+        return high == 0 && (low & 0xFFFFFFFF00000000L) == IPV4_MAPPED_PREFIX;
+    }
+
+    public String toCanonicalString() {
+        int hash = Long.hashCode(high * 31 + low);
+        int index = (hash ^ (hash >>> 16)) & (CANONICAL_CACHE_SIZE - 1);
+
+        CanonicalEntry entry = CANONICAL_CACHE[index];
+        if (entry != null && entry.high == high && entry.low == low) {
+            return entry.value;
+        }
+
+        String value = format(high, low);
+        CANONICAL_CACHE[index] = new CanonicalEntry(high, low, value);
+        return value;
+    }
+
+    public static String format(long high, long low) {
+        if (isIpv4Mapped(high, low)) {
+            return ((low >>> 24) & 0xFF) + "." + ((low >>> 16) & 0xFF) + "." +
+                    ((low >>> 8) & 0xFF) + "." + (low & 0xFF);
+        }
+
+        int bestStart = -1;
+        int bestLength = 1;
+        int runStart = -1;
+        for (int i = 0; i < 8; i++) {
+            if (group(high, low, i) == 0) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+                if (i - runStart + 1 > bestLength) {
+                    bestStart = runStart;
+                    bestLength = i - runStart + 1;
+                }
+            } else {
+                runStart = -1;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                builder.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ':') {
+                builder.append(':');
+            }
+            builder.append(Integer.toHexString(group(high, low, i)));
+        }
+        return builder.toString();
+    }
+
+    private static int group(long high, long low, int index) {
+        long word = index < 4 ? high : low;
+        return (int) (word >>> ((3 - (index & 3)) * 16)) & 0xFFFF;
+    }
+
+    private static class CanonicalEntry {
+        private final long high;
+        private final long low;
+        private final String value;
+
+        CanonicalEntry(long high, long low, String value) {
+            this.high = high;
+            this.low = low;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("net.jirayu.fortify.BlockTransition")
+@Label("Block Transition")
+@Description("An IP address was blocked or unblocked by the rate limiter")
+@Category({"Fortify", "Blocking"})
+@StackTrace(false)
+public class BlockTransitionEvent extends jdk.jfr.Event {
+    @Label("Address")
+    public String ip;
+
+    @Label("Blocked")
+    public boolean blocked;
+
+    @Label("Reason")
+    public String reason;
+
+    @Label("Block Duration")
+    @Timespan(Timespan.MILLISECONDS)
+    public long blockDuration;
+}
@@ -0,0 +1,23 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.jirayu.fortify.FirewallCommand")
+@Label("Firewall Command")
+@Description("Execution of a system firewall command")
+@Category({"Fortify", "Blocking"})
+@StackTrace(false)
+public class FirewallCommandEvent extends jdk.jfr.Event {
+    @Label("Command")
+    public String command;
+
+    @Label("Exit Code")
+    public int exitCode;
+
+    @Label("Success")
+    public boolean success;
+}
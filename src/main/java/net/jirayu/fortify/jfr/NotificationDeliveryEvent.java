@@ -0,0 +1,23 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.jirayu.fortify.NotificationDelivery")
+@Label("Notification Delivery")
+@Description("Delivery of a batch of security events to a notification sink")
+@Category({"Fortify", "Notifications"})
+@StackTrace(false)
+public class NotificationDeliveryEvent extends jdk.jfr.Event {
+    @Label("Sink")
+    public String sink;
+
+    @Label("Events")
+    public int events;
+
+    @Label("Success")
+    public boolean success;
+}
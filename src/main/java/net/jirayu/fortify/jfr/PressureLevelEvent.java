@@ -0,0 +1,26 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.jirayu.fortify.PressureLevel")
+@Label("Pressure Level Change")
+@Description("The throttling pressure level changed")
+@Category({"Fortify", "Throttling"})
+@StackTrace(false)
+public class PressureLevelEvent extends jdk.jfr.Event {
+    @Label("Previous Level")
+    public String previousLevel;
+
+    @Label("Level")
+    public String level;
+
+    @Label("Signal")
+    public String signal;
+
+    @Label("Score")
+    public double score;
+}
@@ -0,0 +1,26 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.jirayu.fortify.RateLimitRejection")
+@Label("Rate Limit Rejection")
+@Description("A sampled REST request rejected by Fortify; each event stands for sampleRate rejections")
+@Category({"Fortify", "REST"})
+@StackTrace(false)
+public class RateLimitRejectionEvent extends jdk.jfr.Event {
+    @Label("Decision")
+    public String decision;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Address")
+    public String ip;
+
+    @Label("Sample Rate")
+    public int sampleRate;
+}
@@ -0,0 +1,25 @@
+package net.jirayu.fortify.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("net.jirayu.fortify.RestDecision")
+@Label("REST Decision")
+@Description("Time Fortify spent deciding whether to admit a REST request")
+@Category({"Fortify", "REST"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class RestDecisionEvent extends jdk.jfr.Event {
+    @Label("Decision")
+    public String decision;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Address")
+    public String ip;
+}
@@ -0,0 +1,166 @@
+package net.jirayu.fortify.loadshed;
+
+import net.jirayu.fortify.config.LoadShedConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class LatencyShedder {
+    private static final Logger log = LoggerFactory.getLogger(LatencyShedder.class);
+    private static final String SESSIONS_PATH = "/v4/sessions/";
+
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final LoadShedConfig config;
+    private final AtomicLong intervalMin = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger intervalMinInFlight = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicLong intervalEnd = new AtomicLong();
+    private final AtomicLong nextDropAt = new AtomicLong();
+    private final AtomicLong shedLow = new AtomicLong();
+    private final AtomicLong shedNormal = new AtomicLong();
+    private volatile boolean dropping = false;
+    private volatile long dropCount = 0;
+    private volatile long lastIntervalMin = 0;
+    private volatile int lastIntervalMinInFlight = 0;
+
+    public LatencyShedder(LoadShedConfig config) {
+        this.config = config;
+        this.intervalEnd.set(System.nanoTime() + intervalNanos());
+
+        if (config.isEnabled()) {
+            log.info("Latency load shedding enabled: target {}ms or {} requests in flight over {}ms intervals",
+                    config.getTarget(), config.getMaxInFlight(), config.getInterval());
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public Priority classify(String path) {
+        if (path.startsWith(SESSIONS_PATH)) {
+            return Priority.HIGH;
+        }
+        for (String lowPriorityPath : config.getLowPriorityPaths()) {
+            if (path.startsWith(lowPriorityPath)) {
+                return Priority.LOW;
+            }
+        }
+        return Priority.NORMAL;
+    }
+
+    public boolean shouldShed(Priority priority) {
+        long now = System.nanoTime();
+        advance(now);
+
+        if (!dropping || priority == Priority.HIGH) {
+            return false;
+        }
+
+        if (priority == Priority.LOW) {
+            shedLow.incrementAndGet();
+            return true;
+        }
+
+        // CoDel control law: drops on normal routes get closer together the longer the overload lasts.
+        long next = nextDropAt.get();
+        long count = dropCount + 1;
+        if (now - next >= 0 && nextDropAt.compareAndSet(next, now + (long) (intervalNanos() / Math.sqrt(count)))) {
+            dropCount = count;
+            shedNormal.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void enter() {
+        observeInFlight(inFlight.incrementAndGet());
+    }
+
+    // Low-priority routes wait on remote sources, so their latency is left out; they still count as in flight,
+    // which is what shows a flood of them holding every request thread.
+    public void record(Priority priority, long latencyNanos) {
+        observeInFlight(inFlight.decrementAndGet());
+
+        if (priority != Priority.LOW) {
+            long current = intervalMin.get();
+            while (latencyNanos < current && !intervalMin.compareAndSet(current, latencyNanos)) {
+                current = intervalMin.get();
+            }
+        }
+        advance(System.nanoTime());
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (config.getInterval() + 999) / 1000);
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("dropping", dropping);
+        info.put("targetMillis", config.getTarget());
+        info.put("intervalMillis", config.getInterval());
+        info.put("lastIntervalMinMillis", TimeUnit.NANOSECONDS.toMillis(lastIntervalMin));
+        info.put("maxInFlight", config.getMaxInFlight());
+        info.put("inFlight", inFlight.get());
+        info.put("lastIntervalMinInFlight", lastIntervalMinInFlight);
+        info.put("shedLowPriority", shedLow.get());
+        info.put("shedNormalPriority", shedNormal.get());
+        return info;
+    }
+
+    private void advance(long now) {
+        long end = intervalEnd.get();
+        if (now - end < 0 || !intervalEnd.compareAndSet(end, now + intervalNanos())) {
+            return;
+        }
+
+        long min = intervalMin.getAndSet(Long.MAX_VALUE);
+        lastIntervalMin = min == Long.MAX_VALUE ? 0 : min;
+
+        // Requests still running from the previous interval hold threads too, so start from the current count.
+        int current = inFlight.get();
+        int minInFlight = Math.min(current, intervalMinInFlight.getAndSet(current));
+        lastIntervalMinInFlight = minInFlight;
+
+        boolean slow = min != Long.MAX_VALUE && min > TimeUnit.MILLISECONDS.toNanos(config.getTarget());
+        boolean saturated = config.getMaxInFlight() > 0 && minInFlight >= config.getMaxInFlight();
+        boolean overloaded = slow || saturated;
+
+        if (overloaded && !dropping) {
+            dropCount = 0;
+            nextDropAt.set(now);
+            dropping = true;
+            log.warn("Overloaded for a full interval (min latency {}ms, min {} requests in flight), shedding load",
+                    TimeUnit.NANOSECONDS.toMillis(lastIntervalMin), minInFlight);
+        } else if (!overloaded && dropping) {
+            dropping = false;
+            log.info("Request latency under {}ms and in-flight requests under {}, stopped shedding load",
+                    config.getTarget(), config.getMaxInFlight());
+        }
+    }
+
+    private void observeInFlight(int count) {
+        int current = intervalMinInFlight.get();
+        while (count < current && !intervalMinInFlight.compareAndSet(current, count)) {
+            current = intervalMinInFlight.get();
+        }
+    }
+
+    private long intervalNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(10, config.getInterval()));
+    }
+}
@@ -0,0 +1,252 @@
+package net.jirayu.fortify.metrics;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.GaugeMetricFamily;
+import io.prometheus.client.Histogram;
+import jakarta.annotation.PreDestroy;
+import net.jirayu.fortify.config.MetricsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntToDoubleFunction;
+
+@Service
+public class FortifyMetrics {
+    private static final Logger log = LoggerFactory.getLogger(FortifyMetrics.class);
+
+    public enum Decision {
+        ALLOWED,
+        BYPASSED,
+        BLOCKLISTED,
+        PATH_BLOCKED,
+        SHED,
+        PENDING_ADMISSION,
+        SEARCH_BLOCKED,
+        PLAYER_DEFERRED,
+        GEO_BLOCKED,
+        NETWORK_LIMITED,
+        RATE_LIMITED,
+        IP_BLOCKED,
+        CONCURRENCY_LIMITED
+    }
+
+    public enum Route {
+        SESSIONS,
+        PLAYERS,
+        LOAD_TRACKS,
+        LOAD_SEARCH,
+        DECODE,
+        INFO,
+        OTHER
+    }
+
+    public enum SocketRejection {
+        CONNECTION_RATE,
+        SESSION_LIMIT,
+        ADMISSION_QUEUE_FULL,
+        PLAYER_LIMIT
+    }
+
+    private static final Decision[] DECISIONS = Decision.values();
+    private static final Route[] ROUTES = Route.values();
+    private static final SocketRejection[] SOCKET_REJECTIONS = SocketRejection.values();
+
+    private final MetricsConfig config;
+    private final CollectorRegistry registry = CollectorRegistry.defaultRegistry;
+    private final List<Collector> collectors = new ArrayList<>();
+    private final List<GaugeSource> gauges = new CopyOnWriteArrayList<>();
+
+    private final Counter.Child[][] decisions = new Counter.Child[DECISIONS.length][ROUTES.length];
+    private final Histogram.Child[] decisionLatency = new Histogram.Child[ROUTES.length];
+    private final Counter.Child rateLimiterEvictions;
+    private final Histogram.Child rateLimiterCleanup;
+    private final Counter.Child firewallExecs;
+    private final Counter.Child firewallFailures;
+    private final Histogram.Child firewallLatency;
+    private final Counter.Child[] socketRejections = new Counter.Child[SOCKET_REJECTIONS.length];
+
+    public FortifyMetrics(MetricsConfig config) {
+        this.config = config;
+
+        Counter decisionCounter = add(Counter.build()
+                .name("fortify_rest_decisions_total")
+                .help("REST requests by Fortify decision and route")
+                .labelNames("decision", "route")
+                .create());
+        Histogram decisionHistogram = add(Histogram.build()
+                .name("fortify_rest_decision_seconds")
+                .help("Time spent deciding whether to admit a REST request")
+                .labelNames("route")
+                .buckets(0.00001, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.05)
+                .create());
+        for (Route route : ROUTES) {
+            String routeLabel = label(route);
+            decisionLatency[route.ordinal()] = decisionHistogram.labels(routeLabel);
+            for (Decision decision : DECISIONS) {
+                decisions[decision.ordinal()][route.ordinal()] = decisionCounter.labels(label(decision), routeLabel);
+            }
+        }
+
+        rateLimiterEvictions = add(Counter.build()
+                .name("fortify_ratelimit_evictions_total")
+                .help("Idle request trackers and expired blocks removed by rate limiter cleanup")
+                .create()).labels();
+        rateLimiterCleanup = add(Histogram.build()
+                .name("fortify_ratelimit_cleanup_seconds")
+                .help("Duration of rate limiter cleanup passes")
+                .buckets(0.0001, 0.001, 0.01, 0.05, 0.1, 0.5, 1, 5)
+                .create()).labels();
+
+        firewallExecs = add(Counter.build()
+                .name("fortify_firewall_exec_total")
+                .help("Firewall commands executed")
+                .create()).labels();
+        firewallFailures = add(Counter.build()
+                .name("fortify_firewall_failures_total")
+                .help("Firewall commands that failed or exited with a non-zero code")
+                .create()).labels();
+        firewallLatency = add(Histogram.build()
+                .name("fortify_firewall_exec_seconds")
+                .help("Duration of firewall commands")
+                .buckets(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5)
+                .create()).labels();
+
+        Counter socketRejectionCounter = add(Counter.build()
+                .name("fortify_socket_rejections_total")
+                .help("WebSocket sessions and players rejected by Fortify")
+                .labelNames("reason")
+                .create());
+        for (SocketRejection rejection : SOCKET_REJECTIONS) {
+            socketRejections[rejection.ordinal()] = socketRejectionCounter.labels(label(rejection));
+        }
+
+        add(new GaugeCollector());
+
+        if (config.isEnabled()) {
+            for (Collector collector : collectors) {
+                registry.register(collector);
+            }
+            log.info("Registered {} Fortify metric families with the Prometheus registry", collectors.size());
+        }
+    }
+
+    public static Route route(String path) {
+        if (path.startsWith("/v4/sessions/")) {
+            return path.indexOf("/players", 13) >= 0 ? Route.PLAYERS : Route.SESSIONS;
+        }
+        if (path.startsWith("/v4/loadtracks")) {
+            return Route.LOAD_TRACKS;
+        }
+        if (path.startsWith("/v4/loadsearch")) {
+            return Route.LOAD_SEARCH;
+        }
+        if (path.startsWith("/v4/decodetrack")) {
+            return Route.DECODE;
+        }
+        if (path.startsWith("/v4/info") || path.startsWith("/v4/stats") || path.startsWith("/version")) {
+            return Route.INFO;
+        }
+        return Route.OTHER;
+    }
+
+    public void recordDecision(Decision decision, Route route, long startNanos) {
+        decisions[decision.ordinal()][route.ordinal()].inc();
+        decisionLatency[route.ordinal()].observe((System.nanoTime() - startNanos) / Collector.NANOSECONDS_PER_SECOND);
+    }
+
+    public void recordRateLimiterCleanup(long nanos, int evicted) {
+        rateLimiterCleanup.observe(nanos / Collector.NANOSECONDS_PER_SECOND);
+        if (evicted > 0) {
+            rateLimiterEvictions.inc(evicted);
+        }
+    }
+
+    public void recordFirewallExec(long nanos, boolean success) {
+        firewallExecs.inc();
+        firewallLatency.observe(nanos / Collector.NANOSECONDS_PER_SECOND);
+        if (!success) {
+            firewallFailures.inc();
+        }
+    }
+
+    public void recordSocketRejection(SocketRejection rejection) {
+        socketRejections[rejection.ordinal()].inc();
+    }
+
+    public void gauge(String name, String help, DoubleSupplier supplier) {
+        gauges.add(new GaugeSource(name, help, null, null, index -> supplier.getAsDouble()));
+    }
+
+    public void gauge(String name, String help, String labelName, String[] labelValues, IntToDoubleFunction values) {
+        gauges.add(new GaugeSource(name, help, labelName, labelValues, values));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (config.isEnabled()) {
+            for (Collector collector : collectors) {
+                registry.unregister(collector);
+            }
+        }
+    }
+
+    private <T extends Collector> T add(T collector) {
+        collectors.add(collector);
+        return collector;
+    }
+
+    private static String label(Enum<?> value) {
+        return value.name().toLowerCase();
+    }
+
+    private class GaugeCollector extends Collector {
+        @Override
+        public List<MetricFamilySamples> collect() {
+            List<MetricFamilySamples> samples = new ArrayList<>(gauges.size());
+            for (GaugeSource gauge : gauges) {
+                try {
+                    samples.add(gauge.collect());
+                } catch (Exception e) {
+                    log.debug("Failed to collect gauge {}: {}", gauge.name, e.getMessage());
+                }
+            }
+            return samples;
+        }
+    }
+
+    private static class GaugeSource {
+        private final String name;
+        private final String help;
+        private final String labelName;
+        private final String[] labelValues;
+        private final IntToDoubleFunction values;
+
+        GaugeSource(String name, String help, String labelName, String[] labelValues, IntToDoubleFunction values) {
+            this.name = name;
+            this.help = help;
+            this.labelName = labelName;
+            this.labelValues = labelValues;
+            this.values = values;
+        }
+
+        GaugeMetricFamily collect() {
+            if (labelName == null) {
+                return new GaugeMetricFamily(name, help, values.applyAsDouble(0));
+            }
+
+            GaugeMetricFamily family = new GaugeMetricFamily(name, help, Collections.singletonList(labelName));
+            for (int i = 0; i < labelValues.length; i++) {
+                family.addMetric(Collections.singletonList(labelValues[i]), values.applyAsDouble(i));
+            }
+            return family;
+        }
+    }
+}
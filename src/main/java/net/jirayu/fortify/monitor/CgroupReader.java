@@ -0,0 +1,311 @@
+package net.jirayu.fortify.monitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CgroupReader {
+    private static final long UNLIMITED = -1;
+    private static final byte[] NR_PERIODS = ascii("nr_periods");
+    private static final byte[] NR_THROTTLED = ascii("nr_throttled");
+    private static final byte[] THROTTLED_USEC = ascii("throttled_usec");
+    private static final byte[] USAGE_USEC = ascii("usage_usec");
+    private static final byte[] INACTIVE_FILE = ascii("inactive_file");
+    private static final byte[] SOME = ascii("some");
+    private static final byte[] FULL = ascii("full");
+    private static final byte[] MAX = ascii("max");
+
+    private final Path directory;
+    private final Path cpuStat;
+    private final Path cpuMax;
+    private final Path cpuPressure;
+    private final Path memoryCurrent;
+    private final Path memoryMax;
+    private final Path memoryStat;
+    private final Path memoryPressure;
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+    private long lastSampleNanos = -1;
+    private long lastPeriods;
+    private long lastThrottled;
+    private long lastThrottledUsec;
+    private long lastUsageUsec;
+
+    private double quotaCores = UNLIMITED;
+    private double cpuUsage = Double.NaN;
+    private double throttledPeriods = Double.NaN;
+    private double throttledTime = Double.NaN;
+    private long memoryCurrentBytes = UNLIMITED;
+    private long memoryMaxBytes = UNLIMITED;
+    private long workingSetBytes = UNLIMITED;
+    private double cpuPressureSome = Double.NaN;
+    private double memoryPressureSome = Double.NaN;
+    private double memoryPressureFull = Double.NaN;
+
+    public CgroupReader(Path directory) {
+        this.directory = directory;
+        this.cpuStat = directory.resolve("cpu.stat");
+        this.cpuMax = directory.resolve("cpu.max");
+        this.cpuPressure = directory.resolve("cpu.pressure");
+        this.memoryCurrent = directory.resolve("memory.current");
+        this.memoryMax = directory.resolve("memory.max");
+        this.memoryStat = directory.resolve("memory.stat");
+        this.memoryPressure = directory.resolve("memory.pressure");
+    }
+
+    public static CgroupReader detect(String mountPoint) {
+        Path root = Paths.get(mountPoint);
+        if (!Files.isRegularFile(root.resolve("cgroup.controllers"))) {
+            return null;
+        }
+
+        try {
+            List<String> lines = Files.readAllLines(Paths.get("/proc/self/cgroup"), StandardCharsets.US_ASCII);
+            for (String line : lines) {
+                if (line.startsWith("0::")) {
+                    Path own = root.resolve(line.substring(3).replaceFirst("^/+", ""));
+                    if (Files.isRegularFile(own.resolve("cpu.stat"))) {
+                        return new CgroupReader(own);
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+        }
+
+        return Files.isRegularFile(root.resolve("cpu.stat")) ? new CgroupReader(root) : null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void sample() {
+        sample(System.nanoTime());
+    }
+
+    synchronized void sample(long now) {
+        long elapsedUsec = lastSampleNanos < 0 ? 0 : (now - lastSampleNanos) / 1000;
+        lastSampleNanos = now;
+
+        if (read(cpuMax) > 0) {
+            quotaCores = parseCpuMax();
+        }
+
+        if (read(cpuStat) > 0) {
+            long periods = findValue(NR_PERIODS);
+            long throttled = findValue(NR_THROTTLED);
+            long throttledUsec = findValue(THROTTLED_USEC);
+            long usageUsec = findValue(USAGE_USEC);
+
+            if (elapsedUsec > 0) {
+                long periodDelta = periods - lastPeriods;
+                throttledPeriods = periodDelta > 0 ? (throttled - lastThrottled) * 100.0 / periodDelta : 0;
+                throttledTime = (throttledUsec - lastThrottledUsec) * 100.0 / elapsedUsec;
+                double cores = quotaCores > 0 ? quotaCores : Runtime.getRuntime().availableProcessors();
+                cpuUsage = (usageUsec - lastUsageUsec) * 100.0 / (elapsedUsec * cores);
+            }
+
+            lastPeriods = periods;
+            lastThrottled = throttled;
+            lastThrottledUsec = throttledUsec;
+            lastUsageUsec = usageUsec;
+        }
+
+        if (read(memoryCurrent) > 0) {
+            memoryCurrentBytes = parseLong(0, buffer.limit());
+        }
+        if (read(memoryMax) > 0) {
+            memoryMaxBytes = startsWith(0, MAX) ? UNLIMITED : parseLong(0, buffer.limit());
+        }
+        if (memoryCurrentBytes >= 0) {
+            long inactiveFile = read(memoryStat) > 0 ? findValue(INACTIVE_FILE) : 0;
+            workingSetBytes = Math.max(0, memoryCurrentBytes - Math.max(0, inactiveFile));
+        }
+
+        if (read(cpuPressure) > 0) {
+            cpuPressureSome = findAvg10(SOME);
+        }
+        if (read(memoryPressure) > 0) {
+            memoryPressureSome = findAvg10(SOME);
+            memoryPressureFull = findAvg10(FULL);
+        }
+    }
+
+    public synchronized double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    public synchronized double getThrottledPeriods() {
+        return throttledPeriods;
+    }
+
+    public synchronized double getMemoryUsage() {
+        if (memoryMaxBytes <= 0 || workingSetBytes < 0) {
+            return Double.NaN;
+        }
+        return workingSetBytes * 100.0 / memoryMaxBytes;
+    }
+
+    public synchronized double getCpuPressure() {
+        return cpuPressureSome;
+    }
+
+    public synchronized double getMemoryPressure() {
+        return memoryPressureSome;
+    }
+
+    public synchronized Map<String, Object> getSignals() {
+        Map<String, Object> signals = new HashMap<>();
+        signals.put("path", directory.toString());
+        signals.put("quotaCores", quotaCores);
+        signals.put("cpuUsage", cpuUsage);
+        signals.put("throttledPeriods", throttledPeriods);
+        signals.put("throttledTime", throttledTime);
+        signals.put("memoryCurrent", memoryCurrentBytes);
+        signals.put("memoryMax", memoryMaxBytes);
+        signals.put("workingSet", workingSetBytes);
+        signals.put("memoryUsage", getMemoryUsage());
+        signals.put("cpuPressureSome", cpuPressureSome);
+        signals.put("memoryPressureSome", memoryPressureSome);
+        signals.put("memoryPressureFull", memoryPressureFull);
+        return signals;
+    }
+
+    private int read(Path file) {
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read > 0 && buffer.hasRemaining());
+        } catch (IOException e) {
+            buffer.clear().limit(0);
+            return 0;
+        }
+        buffer.flip();
+        return buffer.limit();
+    }
+
+    private double parseCpuMax() {
+        int limit = buffer.limit();
+        int space = indexOf((byte) ' ', 0, limit);
+        if (space < 0 || startsWith(0, MAX)) {
+            return UNLIMITED;
+        }
+
+        long quota = parseLong(0, space);
+        long period = parseLong(space + 1, limit);
+        return quota > 0 && period > 0 ? (double) quota / period : UNLIMITED;
+    }
+
+    private long findValue(byte[] key) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = indexOf((byte) '\n', lineStart, limit);
+            if (lineEnd < 0) {
+                lineEnd = limit;
+            }
+
+            if (lineEnd - lineStart > key.length && startsWith(lineStart, key) &&
+                    buffer.get(lineStart + key.length) == ' ') {
+                return parseLong(lineStart + key.length + 1, lineEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return UNLIMITED;
+    }
+
+    // PSI lines look like "some avg10=1.23 avg60=0.50 avg300=0.10 total=12345".
+    private double findAvg10(byte[] kind) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = indexOf((byte) '\n', lineStart, limit);
+            if (lineEnd < 0) {
+                lineEnd = limit;
+            }
+
+            if (startsWith(lineStart, kind)) {
+                int equals = indexOf((byte) '=', lineStart, lineEnd);
+                return equals < 0 ? Double.NaN : parseDecimal(equals + 1, lineEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return Double.NaN;
+    }
+
+    private long parseLong(int start, int end) {
+        long value = 0;
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits = true;
+            } else if (digits || (b != ' ' && b != '\t')) {
+                break;
+            }
+        }
+        return digits ? value : UNLIMITED;
+    }
+
+    private double parseDecimal(int start, int end) {
+        long whole = 0;
+        long fraction = 0;
+        long scale = 1;
+        boolean inFraction = false;
+
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else if (b >= '0' && b <= '9') {
+                if (inFraction) {
+                    fraction = fraction * 10 + (b - '0');
+                    scale *= 10;
+                } else {
+                    whole = whole * 10 + (b - '0');
+                }
+            } else {
+                break;
+            }
+        }
+        return whole + (double) fraction / scale;
+    }
+
+    private int indexOf(byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int offset, byte[] prefix) {
+        if (buffer.limit() - offset < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
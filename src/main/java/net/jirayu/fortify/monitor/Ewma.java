@@ -0,0 +1,27 @@
+package net.jirayu.fortify.monitor;
+
+public class Ewma {
+    private final double windowNanos;
+    private double value = Double.NaN;
+
+    public Ewma(long windowMillis) {
+        this.windowNanos = Math.max(1, windowMillis) * 1_000_000.0;
+    }
+
+    public double update(double sample, long elapsedNanos) {
+        if (Double.isNaN(sample)) {
+            return value;
+        }
+        if (Double.isNaN(value)) {
+            value = sample;
+        } else {
+            double alpha = 1 - Math.exp(-elapsedNanos / windowNanos);
+            value += alpha * (sample - value);
+        }
+        return value;
+    }
+
+    public double get() {
+        return Double.isNaN(value) ? 0 : value;
+    }
+}
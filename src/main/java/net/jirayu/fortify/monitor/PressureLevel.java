@@ -0,0 +1,8 @@
+package net.jirayu.fortify.monitor;
+
+public enum PressureLevel {
+    NORMAL,
+    ELEVATED,
+    HIGH,
+    CRITICAL
+}
@@ -1,78 +1,248 @@
 package net.jirayu.fortify.monitor;
 
 import net.jirayu.fortify.config.ThrottleConfig;
+import net.jirayu.fortify.jfr.PressureLevelEvent;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.notification.NotificationService;
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.MemoryMXBean;
-import java.lang.management.OperatingSystemMXBean;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class ResourceMonitor {
     private static final Logger log = LoggerFactory.getLogger(ResourceMonitor.class);
     
+    private static final int HISTORY_SIZE = 20;
+    private static final String[] SIGNALS = {"cpu", "memory", "gcPause", "cpuThrottled", "pressure"};
+
     private final ThrottleConfig throttleConfig;
-    private final OperatingSystemMXBean osBean;
-    private final MemoryMXBean memoryBean;
-    private final AtomicBoolean throttling = new AtomicBoolean(false);
+    private final NotificationService notificationService;
+    private final PolicyStore policyStore;
+    private final ResourceSampler sampler;
+    private final CgroupReader cgroup;
+    private final Ewma cgroupCpu;
+    private final Ewma cgroupThrottled;
+    private final ArrayDeque<Map<String, Object>> levelChanges = new ArrayDeque<>();
+    private volatile PressureLevel level = PressureLevel.NORMAL;
+    private volatile double[] signals = new double[SIGNALS.length];
+    private volatile double score = 0;
+    private volatile String dominantSignal = "none";
+    private long belowThresholdSince = -1;
+    private long lastSampleNanos = System.nanoTime();
     
-    public ResourceMonitor(ThrottleConfig throttleConfig) {
+    public ResourceMonitor(ThrottleConfig throttleConfig,
+                           NotificationService notificationService,
+                           FortifyMetrics metrics,
+                           PolicyStore policyStore,
+                           FortifyScheduler scheduler) {
         this.throttleConfig = throttleConfig;
-        this.osBean = ManagementFactory.getOperatingSystemMXBean();
-        this.memoryBean = ManagementFactory.getMemoryMXBean();
+        this.notificationService = notificationService;
+        this.policyStore = policyStore;
+        this.sampler = new ResourceSampler(throttleConfig.getSmoothingWindow());
+        this.cgroup = throttleConfig.isCgroupEnabled() ? CgroupReader.detect(throttleConfig.getCgroupPath()) : null;
+        this.cgroupCpu = new Ewma(throttleConfig.getSmoothingWindow());
+        this.cgroupThrottled = new Ewma(throttleConfig.getSmoothingWindow());
+
+        metrics.gauge("fortify_resource_signal", "Smoothed resource signals in percent", "signal", SIGNALS,
+                index -> signals[index]);
+        metrics.gauge("fortify_pressure_score", "Highest signal as a fraction of its threshold", () -> score);
+        metrics.gauge("fortify_pressure_level", "Pressure level: 0 normal, 1 elevated, 2 high, 3 critical",
+                () -> getLevel().ordinal());
+        metrics.gauge("fortify_throttling", "Whether throttling is active", () -> isThrottling() ? 1 : 0);
 
         if (throttleConfig.isEnabled()) {
-            startMonitoring();
+            if (cgroup != null) {
+                log.info("Reading cgroup v2 limits from {}", cgroup.getDirectory());
+            }
+            startMonitoring(scheduler);
         }
     }
     
-    private void startMonitoring() {
-        Thread monitorThread = new Thread(() -> {
-            while (true) {
-                try {
-                    checkResources();
-                    Thread.sleep(5000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
-        monitorThread.setDaemon(true);
-        monitorThread.start();
-        log.info("Resource monitoring started");
+    private void startMonitoring(FortifyScheduler scheduler) {
+        scheduler.scheduleWithFixedDelay("resource sampling", this::checkResources, 0,
+                Math.max(50, throttleConfig.getSampleInterval()));
+        log.info("Resource monitoring started: sampling every {}ms, smoothing over {}ms",
+                throttleConfig.getSampleInterval(), throttleConfig.getSmoothingWindow());
     }
     
     private void checkResources() {
-        double cpuLoad = osBean.getSystemLoadAverage();
-        double memoryUsage = getMemoryUsagePercent();
-        
-        boolean shouldThrottle = cpuLoad > throttleConfig.getCpuThreshold() || 
-                                 memoryUsage > throttleConfig.getMemoryThreshold();
-        
-        if (shouldThrottle && !throttling.getAndSet(true)) {
-            log.warn("System resources high (CPU: {}%, Memory: {}%). Enabling connection throttling.", 
-                     cpuLoad, memoryUsage);
-        } else if (!shouldThrottle && throttling.getAndSet(false)) {
-            log.info("System resources normalized (CPU: {}%, Memory: {}%). Disabling connection throttling.", 
-                    cpuLoad, memoryUsage);
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        lastSampleNanos = now;
+
+        sampler.sample();
+
+        double cpu = sampler.getCpu();
+        double memory = sampler.getMemory();
+        double gcPause = sampler.getGcPause();
+        double cpuThrottled = Double.NaN;
+        double pressure = Double.NaN;
+
+        if (cgroup != null) {
+            cgroup.sample();
+            cpu = max(cpu, cgroupCpu.update(cgroup.getCpuUsage(), elapsed));
+            memory = max(memory, cgroup.getMemoryUsage());
+            cpuThrottled = cgroupThrottled.update(cgroup.getThrottledPeriods(), elapsed);
+            pressure = max(cgroup.getCpuPressure(), cgroup.getMemoryPressure());
+        }
+
+        signals = new double[]{cpu, memory, gcPause, cpuThrottled, pressure};
+
+        FortifyPolicy.Throttle throttle = policyStore.get().getThrottle();
+        double[] ratios = {
+                ratio(cpu, throttle.getCpuThreshold()),
+                ratio(memory, throttle.getMemoryThreshold()),
+                ratio(gcPause, throttle.getGcThreshold()),
+                ratio(cpuThrottled, throttle.getCpuThrottledThreshold()),
+                ratio(pressure, throttle.getPressureThreshold())
+        };
+        int dominant = 0;
+        for (int i = 1; i < ratios.length; i++) {
+            if (ratios[i] > ratios[dominant]) {
+                dominant = i;
+            }
+        }
+        score = ratios[dominant];
+        dominantSignal = ratios[dominant] > 0 ? SIGNALS[dominant] : "none";
+
+        PressureLevel current = level;
+        PressureLevel target = levelFor(throttle, score);
+        long nowMillis = System.currentTimeMillis();
+
+        if (target.compareTo(current) > 0) {
+            belowThresholdSince = -1;
+            changeLevel(current, target);
+        } else if (target.compareTo(current) < 0 &&
+                score < entryRatio(throttle, current) * throttle.getRecoveryFactor()) {
+            if (belowThresholdSince < 0) {
+                belowThresholdSince = nowMillis;
+            } else if (nowMillis - belowThresholdSince >= throttle.getRecoveryTime()) {
+                belowThresholdSince = -1;
+                changeLevel(current, PressureLevel.values()[current.ordinal() - 1]);
+            }
+        } else {
+            belowThresholdSince = -1;
         }
     }
-    
-    private double getMemoryUsagePercent() {
-        long used = memoryBean.getHeapMemoryUsage().getUsed();
-        long max = memoryBean.getHeapMemoryUsage().getMax();
-        return ((double) used / max) * 100.0;
+
+    private static double ratio(double value, double threshold) {
+        return Double.isNaN(value) || threshold <= 0 ? 0 : value / threshold;
+    }
+
+    private static PressureLevel levelFor(FortifyPolicy.Throttle throttle, double ratio) {
+        if (ratio >= throttle.getCriticalRatio()) {
+            return PressureLevel.CRITICAL;
+        }
+        if (ratio >= 1.0) {
+            return PressureLevel.HIGH;
+        }
+        if (ratio >= throttle.getElevatedRatio()) {
+            return PressureLevel.ELEVATED;
+        }
+        return PressureLevel.NORMAL;
+    }
+
+    private static double entryRatio(FortifyPolicy.Throttle throttle, PressureLevel pressureLevel) {
+        switch (pressureLevel) {
+            case CRITICAL:
+                return throttle.getCriticalRatio();
+            case HIGH:
+                return 1.0;
+            case ELEVATED:
+                return throttle.getElevatedRatio();
+            default:
+                return 0;
+        }
+    }
+
+    private void changeLevel(PressureLevel previous, PressureLevel next) {
+        level = next;
+        double score = this.score;
+        String dominantSignal = this.dominantSignal;
+
+        Map<String, Object> change = new HashMap<>();
+        change.put("time", System.currentTimeMillis());
+        change.put("from", previous.name());
+        change.put("to", next.name());
+        change.put("signal", dominantSignal);
+        change.put("score", score);
+        synchronized (levelChanges) {
+            if (levelChanges.size() >= HISTORY_SIZE) {
+                levelChanges.pollFirst();
+            }
+            levelChanges.addLast(change);
+        }
+
+        PressureLevelEvent event = new PressureLevelEvent();
+        if (event.shouldCommit()) {
+            event.previousLevel = previous.name();
+            event.level = next.name();
+            event.signal = dominantSignal;
+            event.score = score;
+            event.commit();
+        }
+
+        if (next.compareTo(previous) > 0) {
+            log.warn("Pressure level raised from {} to {} ({} at {}% of threshold)",
+                    previous, next, dominantSignal, format(score * 100));
+        } else {
+            log.info("Pressure level lowered from {} to {} ({} at {}% of threshold)",
+                    previous, next, dominantSignal, format(score * 100));
+        }
+
+        notificationService.sendPressureLevelNotification(previous.name(), next.name(), dominantSignal, score);
+    }
+
+    private static double max(double current, double candidate) {
+        return Double.isNaN(candidate) ? current : Double.isNaN(current) ? candidate : Math.max(current, candidate);
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "n/a" : String.format("%.1f", value);
     }
     
     public boolean isThrottling() {
-        return throttling.get() && throttleConfig.isEnabled();
+        return getLevel() != PressureLevel.NORMAL;
+    }
+
+    public PressureLevel getLevel() {
+        return throttleConfig.isEnabled() ? level : PressureLevel.NORMAL;
+    }
+
+    public FortifyPolicy.Level getPolicy() {
+        return policyStore.get().getThrottle().getLevel(getLevel());
     }
     
     public int getConnectionDelay() {
-        return throttleConfig.getConnectionDelay();
+        return getPolicy().getConnectionDelay();
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = sampler.getSignals();
+        info.put("enabled", throttleConfig.isEnabled());
+        info.put("throttling", isThrottling());
+        info.put("level", getLevel().name());
+        info.put("score", score);
+        info.put("dominantSignal", dominantSignal);
+        synchronized (levelChanges) {
+            List<Map<String, Object>> changes = new ArrayList<>(levelChanges);
+            info.put("levelChanges", changes);
+        }
+        if (cgroup != null) {
+            Map<String, Object> cgroupSignals = cgroup.getSignals();
+            cgroupSignals.put("smoothedCpuUsage", cgroupCpu.get());
+            cgroupSignals.put("smoothedThrottledPeriods", cgroupThrottled.get());
+            info.put("cgroup", cgroupSignals);
+        }
+        return info;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package net.jirayu.fortify.monitor;
+
+import com.sun.management.GcInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResourceSampler {
+    private final com.sun.management.OperatingSystemMXBean osBean;
+    private final MemoryMXBean memoryBean;
+    private final GarbageCollectorMXBean[] collectors;
+    private final long[] collectionCounts;
+    private final boolean[] pauseCollectors;
+    private final MemoryPoolMXBean oldGen;
+
+    private final Ewma processCpu;
+    private final Ewma systemCpu;
+    private final Ewma gcPause;
+    private final Ewma oldGenAfterGc;
+    private final Ewma allocationRate;
+
+    private long lastSampleNanos;
+    private long lastGcTime;
+    private long lastHeapUsed;
+
+    private double rawProcessCpu;
+    private double rawSystemCpu;
+    private double rawGcPause;
+    private double rawOldGenAfterGc;
+    private double rawAllocationRate;
+
+    public ResourceSampler(long smoothingWindowMillis) {
+        this.osBean = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        this.memoryBean = ManagementFactory.getMemoryMXBean();
+
+        List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        this.collectors = gcBeans.toArray(new GarbageCollectorMXBean[0]);
+        this.collectionCounts = new long[collectors.length];
+        this.pauseCollectors = new boolean[collectors.length];
+        for (int i = 0; i < collectors.length; i++) {
+            pauseCollectors[i] = isPauseCollector(collectors[i].getName());
+        }
+        this.oldGen = findOldGen();
+
+        this.processCpu = new Ewma(smoothingWindowMillis);
+        this.systemCpu = new Ewma(smoothingWindowMillis);
+        this.gcPause = new Ewma(smoothingWindowMillis);
+        this.oldGenAfterGc = new Ewma(smoothingWindowMillis);
+        this.allocationRate = new Ewma(smoothingWindowMillis);
+
+        this.lastSampleNanos = System.nanoTime();
+        this.lastGcTime = totalGcTime();
+        this.lastHeapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        for (int i = 0; i < collectors.length; i++) {
+            collectionCounts[i] = collectors[i].getCollectionCount();
+        }
+    }
+
+    public synchronized void sample() {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastSampleNanos);
+        lastSampleNanos = now;
+
+        rawProcessCpu = toPercent(osBean.getProcessCpuLoad());
+        rawSystemCpu = toPercent(osBean.getCpuLoad());
+
+        long gcTime = totalGcTime();
+        rawGcPause = Math.min(100.0, (gcTime - lastGcTime) * 1_000_000.0 / elapsed * 100.0);
+        lastGcTime = gcTime;
+
+        rawOldGenAfterGc = oldGenAfterGcPercent();
+
+        // Allocated bytes are what the heap grew by plus what the collections since the last sample reclaimed.
+        long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        long allocated = Math.max(0, heapUsed - lastHeapUsed + reclaimedSinceLastSample());
+        rawAllocationRate = allocated * 1_000_000_000.0 / elapsed;
+        lastHeapUsed = heapUsed;
+
+        processCpu.update(rawProcessCpu, elapsed);
+        systemCpu.update(rawSystemCpu, elapsed);
+        gcPause.update(rawGcPause, elapsed);
+        oldGenAfterGc.update(rawOldGenAfterGc, elapsed);
+        allocationRate.update(rawAllocationRate, elapsed);
+    }
+
+    public synchronized double getCpu() {
+        return Math.max(systemCpu.get(), processCpu.get());
+    }
+
+    public synchronized double getGcPause() {
+        return gcPause.get();
+    }
+
+    public synchronized double getMemory() {
+        return oldGenAfterGc.get();
+    }
+
+    public synchronized Map<String, Object> getSignals() {
+        Map<String, Object> raw = new HashMap<>();
+        raw.put("processCpu", rawProcessCpu);
+        raw.put("systemCpu", rawSystemCpu);
+        raw.put("gcPause", rawGcPause);
+        raw.put("oldGenAfterGc", rawOldGenAfterGc);
+        raw.put("allocationRate", rawAllocationRate);
+
+        Map<String, Object> smoothed = new HashMap<>();
+        smoothed.put("processCpu", processCpu.get());
+        smoothed.put("systemCpu", systemCpu.get());
+        smoothed.put("gcPause", gcPause.get());
+        smoothed.put("oldGenAfterGc", oldGenAfterGc.get());
+        smoothed.put("allocationRate", allocationRate.get());
+
+        Map<String, Object> signals = new HashMap<>();
+        signals.put("raw", raw);
+        signals.put("smoothed", smoothed);
+        signals.put("oldGenPool", oldGen != null ? oldGen.getName() : "heap");
+        return signals;
+    }
+
+    private long totalGcTime() {
+        long total = 0;
+        for (int i = 0; i < collectors.length; i++) {
+            long time = pauseCollectors[i] ? collectors[i].getCollectionTime() : 0;
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+    private long reclaimedSinceLastSample() {
+        long reclaimed = 0;
+        for (int i = 0; i < collectors.length; i++) {
+            long count = collectors[i].getCollectionCount();
+            if (count == collectionCounts[i]) {
+                continue;
+            }
+            collectionCounts[i] = count;
+
+            if (collectors[i] instanceof com.sun.management.GarbageCollectorMXBean) {
+                GcInfo info = ((com.sun.management.GarbageCollectorMXBean) collectors[i]).getLastGcInfo();
+                if (info != null) {
+                    reclaimed += usedBytes(info.getMemoryUsageBeforeGc()) - usedBytes(info.getMemoryUsageAfterGc());
+                }
+            }
+        }
+        return Math.max(0, reclaimed);
+    }
+
+    private double oldGenAfterGcPercent() {
+        if (oldGen != null) {
+            MemoryUsage usage = oldGen.getCollectionUsage();
+            if (usage != null) {
+                long max = usage.getMax() > 0 ? usage.getMax() : memoryBean.getHeapMemoryUsage().getMax();
+                return max > 0 ? usage.getUsed() * 100.0 / max : 0;
+            }
+        }
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        return heap.getMax() > 0 ? heap.getUsed() * 100.0 / heap.getMax() : 0;
+    }
+
+    private static long usedBytes(Map<String, MemoryUsage> usage) {
+        long used = 0;
+        for (MemoryUsage pool : usage.values()) {
+            used += pool.getUsed();
+        }
+        return used;
+    }
+
+    // ZGC and Shenandoah "Cycles" and G1's "G1 Concurrent GC" report time spent in concurrent phases, not pauses.
+    private static boolean isPauseCollector(String name) {
+        return !name.endsWith("Cycles") && !name.contains("Concurrent");
+    }
+
+    private static double toPercent(double load) {
+        return load < 0 ? Double.NaN : load * 100.0;
+    }
+
+    private static MemoryPoolMXBean findOldGen() {
+        List<MemoryPoolMXBean> candidates = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            String name = pool.getName();
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return pool;
+            }
+            candidates.add(pool);
+        }
+        // Single-generation collectors such as ZGC and Shenandoah expose one heap pool.
+        return candidates.size() == 1 ? candidates.get(0) : null;
+    }
+}
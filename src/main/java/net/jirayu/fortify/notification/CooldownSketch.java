@@ -0,0 +1,55 @@
+package net.jirayu.fortify.notification;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+class CooldownSketch {
+    private static final int DEPTH = 4;
+
+    private final AtomicLongArray notifiedAt;
+    private final int mask;
+
+    CooldownSketch(int width) {
+        int size = Integer.highestOneBit(Math.max(64, width) - 1) << 1;
+        this.notifiedAt = new AtomicLongArray(DEPTH * size);
+        this.mask = size - 1;
+    }
+
+    long getNotifiedAt(long hash) {
+        long oldest = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            oldest = Math.min(oldest, notifiedAt.get(index(hash, row)));
+        }
+        return oldest;
+    }
+
+    void markNotified(long hash, long now) {
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            long current;
+            while ((current = notifiedAt.get(index)) < now && !notifiedAt.compareAndSet(index, current, now)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    boolean tryNotify(long hash, long now, long cooldownMillis) {
+        int first = index(hash, 0);
+        long previous = notifiedAt.get(first);
+        if (now - getNotifiedAt(hash) < cooldownMillis ||
+                !notifiedAt.compareAndSet(first, previous, Math.max(previous, now))) {
+            return false;
+        }
+        markNotified(hash, now);
+        return true;
+    }
+
+    int getMemoryBytes() {
+        return notifiedAt.length() * Long.BYTES;
+    }
+
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+}
@@ -0,0 +1,27 @@
+package net.jirayu.fortify.notification;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public interface NotificationSink {
+    String getName();
+
+    void deliver(List<SecurityEvent> events) throws Exception;
+
+    default int getQueueSize() {
+        return 1000;
+    }
+
+    default long getBatchWindowMillis() {
+        return 0;
+    }
+
+    default int getMaxBatchSize() {
+        return 100;
+    }
+
+    default Map<String, Object> getInfo() {
+        return new HashMap<>();
+    }
+}
@@ -0,0 +1,171 @@
+package net.jirayu.fortify.notification;
+
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+class NotificationSuppressor {
+    private static final long FLUSH_INTERVAL = 1000;
+
+    private final NotificationConfig.Suppression config;
+    private final CooldownSketch sketch;
+    private final Consumer<SecurityEvent> delivery;
+    private final Map<Long, Digest> digests = new ConcurrentHashMap<>();
+    private final Map<SecurityEventType, LongAdder> untracked = new EnumMap<>(SecurityEventType.class);
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong digestsSent = new AtomicLong();
+
+    NotificationSuppressor(NotificationConfig.Suppression config, Consumer<SecurityEvent> delivery,
+                           FortifyScheduler scheduler) {
+        this.config = config;
+        this.sketch = new CooldownSketch(config.getSketchWidth());
+        this.delivery = delivery;
+        for (SecurityEventType type : SecurityEventType.values()) {
+            untracked.put(type, new LongAdder());
+        }
+
+        scheduler.scheduleWithFixedDelay("notification digest flush", () -> flush(System.currentTimeMillis()),
+                FLUSH_INTERVAL, FLUSH_INTERVAL);
+    }
+
+    boolean admit(SecurityEvent event) {
+        if (event.getType() == SecurityEventType.PRESSURE_LEVEL || event.getType() == SecurityEventType.SUPPRESSED_DIGEST) {
+            return true;
+        }
+
+        long hash = hash(event);
+        long now = event.getTimestamp();
+        if (sketch.tryNotify(hash, now, getCooldownMillis())) {
+            return true;
+        }
+
+        suppressed.incrementAndGet();
+        Digest digest = digests.get(hash);
+        if (digest == null) {
+            if (digests.size() >= config.getMaxDigests()) {
+                untracked.get(event.getType()).increment();
+                return false;
+            }
+            digest = digests.computeIfAbsent(hash, k -> new Digest(event, sketch.getNotifiedAt(hash)));
+        }
+        digest.count.increment();
+        return false;
+    }
+
+    Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("cooldown", config.getCooldown());
+        info.put("suppressed", suppressed.get());
+        info.put("digestsSent", digestsSent.get());
+        info.put("trackedKeys", digests.size());
+        info.put("maxDigests", config.getMaxDigests());
+        info.put("sketchBytes", sketch.getMemoryBytes());
+        return info;
+    }
+
+    private void flush(long now) {
+        long cooldown = getCooldownMillis();
+        Iterator<Map.Entry<Long, Digest>> iterator = digests.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Digest> entry = iterator.next();
+            Digest digest = entry.getValue();
+            if (now - digest.windowStart < cooldown) {
+                continue;
+            }
+
+            iterator.remove();
+            long count = digest.count.sum();
+            if (count > 0) {
+                sketch.markNotified(entry.getKey(), now);
+                send(digest.event, describe(digest.event, count, now - digest.windowStart), count, now);
+            }
+        }
+
+        for (Map.Entry<SecurityEventType, LongAdder> entry : untracked.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                send(SecurityEvent.builder(entry.getKey()).build(),
+                        String.format("%,d further %s events from untracked sources were suppressed",
+                                count, entry.getKey().getTitle()), count, now);
+            }
+        }
+    }
+
+    private void send(SecurityEvent original, String summary, long count, long now) {
+        digestsSent.incrementAndGet();
+        delivery.accept(SecurityEvent.builder(SecurityEventType.SUPPRESSED_DIGEST)
+                .timestamp(now)
+                .ip(original.getIp())
+                .path(original.getPath())
+                .sessionId(original.getSessionId())
+                .userId(original.getUserId())
+                .attribute("event", original.getType().name())
+                .attribute("count", count)
+                .attribute("summary", summary)
+                .build());
+    }
+
+    private long getCooldownMillis() {
+        return config.getCooldown() * 1000L;
+    }
+
+    private static String describe(SecurityEvent event, long count, long windowMillis) {
+        StringBuilder summary = new StringBuilder();
+        if (event.getIp() != null) {
+            summary.append("IP ").append(event.getIp());
+        } else if (event.getUserId() != null) {
+            summary.append("User ").append(event.getUserId());
+        } else {
+            summary.append("Session ").append(event.getSessionId());
+        }
+
+        if (event.getPath() != null) {
+            summary.append(" hit ").append(event.getPath());
+        } else {
+            summary.append(" triggered ").append(event.getType().getTitle());
+        }
+
+        long seconds = Math.max(1, windowMillis / 1000);
+        summary.append(String.format(" %,d %s in the last ", count, count == 1 ? "time" : "times"));
+        if (seconds >= 60) {
+            summary.append(seconds / 60).append(" min");
+        } else {
+            summary.append(seconds).append(" s");
+        }
+        return summary.toString();
+    }
+
+    private static long hash(SecurityEvent event) {
+        long hash = event.getType().ordinal();
+        hash = hash * 31 + Objects.hashCode(event.getIp());
+        hash = hash * 31 + Objects.hashCode(event.getPath());
+        hash = hash * 31 + Objects.hashCode(event.getSessionId());
+        hash = hash * 31 + Objects.hashCode(event.getUserId());
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Digest {
+        private final SecurityEvent event;
+        private final long windowStart;
+        private final LongAdder count = new LongAdder();
+
+        Digest(SecurityEvent event, long windowStart) {
+            this.event = event;
+            this.windowStart = windowStart;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package net.jirayu.fortify.notification;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class SecurityEvent {
+    private final SecurityEventType type;
+    private final long timestamp;
+    private final String ip;
+    private final String path;
+    private final String sessionId;
+    private final Long userId;
+    private final Map<String, String> attributes;
+
+    private SecurityEvent(Builder builder) {
+        this.type = builder.type;
+        this.timestamp = builder.timestamp;
+        this.ip = builder.ip;
+        this.path = builder.path;
+        this.sessionId = builder.sessionId;
+        this.userId = builder.userId;
+        this.attributes = builder.attributes.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(builder.attributes);
+    }
+
+    public static Builder builder(SecurityEventType type) {
+        return new Builder(type);
+    }
+
+    public SecurityEventType getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public static class Builder {
+        private final SecurityEventType type;
+        private final Map<String, String> attributes = new LinkedHashMap<>(4);
+        private long timestamp = System.currentTimeMillis();
+        private String ip;
+        private String path;
+        private String sessionId;
+        private Long userId;
+
+        private Builder(SecurityEventType type) {
+            this.type = type;
+        }
+
+        public Builder timestamp(long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder ip(String ip) {
+            this.ip = ip;
+            return this;
+        }
+
+        public Builder path(String path) {
+            this.path = path;
+            return this;
+        }
+
+        public Builder sessionId(String sessionId) {
+            this.sessionId = sessionId;
+            return this;
+        }
+
+        public Builder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        public Builder attribute(String name, Object value) {
+            attributes.put(name, String.valueOf(value));
+            return this;
+        }
+
+        public SecurityEvent build() {
+            return new SecurityEvent(this);
+        }
+    }
+}
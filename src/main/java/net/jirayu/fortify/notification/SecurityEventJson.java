@@ -0,0 +1,66 @@
+package net.jirayu.fortify.notification;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public final class SecurityEventJson {
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    private SecurityEventJson() {
+    }
+
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return FACTORY.createGenerator(out);
+    }
+
+    public static void write(OutputStream out, SecurityEvent event) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            write(generator, event);
+        }
+    }
+
+    public static void writeArray(OutputStream out, List<SecurityEvent> events) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            for (SecurityEvent event : events) {
+                write(generator, event);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public static void write(JsonGenerator generator, SecurityEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", event.getType().name());
+        generator.writeStringField("time", Instant.ofEpochMilli(event.getTimestamp()).toString());
+        generator.writeNumberField("timestamp", event.getTimestamp());
+        if (event.getIp() != null) {
+            generator.writeStringField("ip", event.getIp());
+        }
+        if (event.getPath() != null) {
+            generator.writeStringField("path", event.getPath());
+        }
+        if (event.getSessionId() != null) {
+            generator.writeStringField("sessionId", event.getSessionId());
+        }
+        if (event.getUserId() != null) {
+            generator.writeNumberField("userId", event.getUserId());
+        }
+        if (!event.getAttributes().isEmpty()) {
+            generator.writeObjectFieldStart("attributes");
+            for (Map.Entry<String, String> attribute : event.getAttributes().entrySet()) {
+                generator.writeStringField(attribute.getKey(), attribute.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,85 @@
+package net.jirayu.fortify.notification;
+
+import net.jirayu.fortify.config.ApiConfig;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Service
+public class SecurityEventStream {
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong(1);
+
+    public SecurityEventStream(ApiConfig config) {
+        int capacity = Integer.highestOneBit(Math.max(16, config.getEventBufferSize()) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public long append(SecurityEvent event) {
+        long sequence = next.getAndIncrement();
+        ring.set((int) (sequence & mask), new Entry(sequence, event));
+        return sequence;
+    }
+
+    public long getLastSequence() {
+        return next.get() - 1;
+    }
+
+    public long getOldestSequence() {
+        return Math.max(1, next.get() - ring.length());
+    }
+
+    public int getCapacity() {
+        return ring.length();
+    }
+
+    public Entry get(long sequence) {
+        Entry entry = ring.get((int) (sequence & mask));
+        return entry != null && entry.sequence == sequence ? entry : null;
+    }
+
+    public boolean isOverwritten(long sequence) {
+        Entry entry = ring.get((int) (sequence & mask));
+        return entry != null && entry.sequence > sequence;
+    }
+
+    public static class Entry {
+        private final long sequence;
+        private final SecurityEvent event;
+        private volatile String json;
+
+        Entry(long sequence, SecurityEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public SecurityEvent getEvent() {
+            return event;
+        }
+
+        public String getJson() {
+            String json = this.json;
+            if (json == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+                try {
+                    SecurityEventJson.write(out, event);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                json = out.toString(StandardCharsets.UTF_8);
+                this.json = json;
+            }
+            return json;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package net.jirayu.fortify.notification;
+
+public enum SecurityEventType {
+    RATE_LIMIT_BLOCK("IP Address Blocked", "An IP address has been blocked due to rate limit violations", 16711680, 4),
+    IP_UNBLOCK("IP Address Unblocked", "A blocked IP address was released", 3066993, 6),
+    PATH_BLOCK("Path Access Blocked", "An attempt to access a restricted path was blocked", 15158332, 4),
+    PLAYER_LIMIT("Player Limit Reached", "A player was rejected because the player limit was reached", 15105570, 5),
+    PRESSURE_LEVEL("Pressure Level Changed", "The node changed its throttling level", 16776960, 5),
+    SUPPRESSED_DIGEST("Repeated Events Suppressed", "Repeated events were suppressed during the notification cooldown", 9807270, 5);
+
+    private final String title;
+    private final String description;
+    private final int color;
+    private final int severity;
+
+    SecurityEventType(String title, String description, int color, int severity) {
+        this.title = title;
+        this.description = description;
+        this.color = color;
+        this.severity = severity;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public int getSeverity() {
+        return severity;
+    }
+}
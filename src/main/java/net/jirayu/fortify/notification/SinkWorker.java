@@ -0,0 +1,105 @@
+package net.jirayu.fortify.notification;
+
+import net.jirayu.fortify.jfr.NotificationDeliveryEvent;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class SinkWorker {
+    private static final Logger log = LoggerFactory.getLogger(SinkWorker.class);
+
+    private final NotificationSink sink;
+    private final BlockingQueue<SecurityEvent> queue;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    SinkWorker(NotificationSink sink, FortifyScheduler scheduler) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, sink.getQueueSize()));
+
+        scheduler.startWorker("fortify-sink-" + sink.getName(), this::run);
+    }
+
+    void submit(SecurityEvent event) {
+        if (queue.offer(event)) {
+            enqueued.incrementAndGet();
+        } else if (dropped.incrementAndGet() % 1000 == 1) {
+            log.warn("Notification queue for sink {} is full, {} events dropped so far", sink.getName(), dropped.get());
+        }
+    }
+
+    NotificationSink getSink() {
+        return sink;
+    }
+
+    Map<String, Object> getInfo() {
+        Map<String, Object> info = sink.getInfo();
+        info.put("queued", queue.size());
+        info.put("enqueued", enqueued.get());
+        info.put("dropped", dropped.get());
+        info.put("delivered", delivered.get());
+        info.put("failed", failed.get());
+        return info;
+    }
+
+    private void run() {
+        int maxBatchSize = Math.max(1, sink.getMaxBatchSize());
+        List<SecurityEvent> batch = new ArrayList<>();
+
+        while (true) {
+            NotificationDeliveryEvent event = null;
+            try {
+                batch.add(queue.take());
+
+                long windowEnd = System.currentTimeMillis() + sink.getBatchWindowMillis();
+                long remaining;
+                while (batch.size() < maxBatchSize && (remaining = windowEnd - System.currentTimeMillis()) > 0) {
+                    SecurityEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                event = new NotificationDeliveryEvent();
+                event.begin();
+                sink.deliver(batch);
+                delivered.addAndGet(batch.size());
+                commit(event, batch.size(), true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                commit(event, batch.size(), false);
+                log.error("Sink {} failed to deliver {} event(s): {}", sink.getName(), batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(NotificationDeliveryEvent event, int events, boolean success) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.sink = sink.getName();
+            event.events = events;
+            event.success = success;
+            event.commit();
+        }
+    }
+}
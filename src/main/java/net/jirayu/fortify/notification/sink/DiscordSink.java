@@ -0,0 +1,173 @@
+package net.jirayu.fortify.notification.sink;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.notification.NotificationSink;
+import net.jirayu.fortify.notification.SecurityEvent;
+import net.jirayu.fortify.notification.SecurityEventJson;
+import net.jirayu.fortify.notification.SecurityEventType;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DiscordSink implements NotificationSink {
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final int SUMMARY_COLOR = 16711680;
+
+    private final NotificationConfig config;
+    private final HttpSinkSupport http;
+    private final PayloadBuffer buffer = new PayloadBuffer();
+    private final AtomicLong summarized = new AtomicLong();
+
+    public DiscordSink(NotificationConfig config, HttpInterfaceManager httpInterfaceManager) {
+        this.config = config;
+        this.http = new HttpSinkSupport(config.getDiscordWebhookUrl(), httpInterfaceManager);
+    }
+
+    @Override
+    public String getName() {
+        return "discord";
+    }
+
+    @Override
+    public void deliver(List<SecurityEvent> events) throws Exception {
+        buffer.recycle();
+        try (JsonGenerator generator = SecurityEventJson.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeStringField("username", "Fortify Security");
+            generator.writeArrayFieldStart("embeds");
+            if (events.size() == 1) {
+                writeEmbed(generator, events.get(0));
+            } else {
+                writeSummary(generator, events);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        http.post(buffer.array(), buffer.size());
+        if (events.size() > 1) {
+            summarized.addAndGet(events.size());
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return config.getQueueSize();
+    }
+
+    @Override
+    public long getBatchWindowMillis() {
+        return config.getAggregationWindow() * 1000L;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return config.getQueueSize();
+    }
+
+    @Override
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("summarized", summarized.get());
+        info.put("rateLimited", http.getRateLimited());
+        info.put("blockedUntil", http.getBlockedUntil());
+        info.put("aggregationWindow", config.getAggregationWindow());
+        return info;
+    }
+
+    private static void writeEmbed(JsonGenerator generator, SecurityEvent event) throws IOException {
+        SecurityEventType type = event.getType();
+        generator.writeStartObject();
+        generator.writeStringField("title", type.getTitle());
+        generator.writeStringField("description", type.getDescription());
+        generator.writeNumberField("color", type.getColor());
+        generator.writeArrayFieldStart("fields");
+        if (event.getIp() != null) {
+            writeField(generator, "IP Address", event.getIp(), true);
+        }
+        if (event.getPath() != null) {
+            writeField(generator, "Path", event.getPath(), true);
+        }
+        if (event.getSessionId() != null) {
+            writeField(generator, "Session ID", event.getSessionId(), true);
+        }
+        if (event.getUserId() != null) {
+            writeField(generator, "User ID", String.valueOf(event.getUserId()), true);
+        }
+        for (Map.Entry<String, String> attribute : event.getAttributes().entrySet()) {
+            writeField(generator, label(attribute.getKey()), attribute.getValue(), true);
+        }
+        writeField(generator, "Time", TIME_FORMAT.format(Instant.ofEpochMilli(event.getTimestamp())), false);
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeSummary(JsonGenerator generator, List<SecurityEvent> events) throws IOException {
+        Map<SecurityEventType, Integer> byType = new EnumMap<>(SecurityEventType.class);
+        Map<String, Integer> byIp = new HashMap<>();
+        for (SecurityEvent event : events) {
+            byType.merge(event.getType(), 1, Integer::sum);
+            if (event.getIp() != null) {
+                byIp.merge(event.getIp(), 1, Integer::sum);
+            }
+        }
+
+        StringBuilder types = new StringBuilder();
+        byType.forEach((type, count) -> types.append(type.getTitle()).append(": ").append(count).append('\n'));
+
+        StringBuilder ips = new StringBuilder();
+        byIp.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(config.getTopIps())
+                .forEach(entry -> ips.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n'));
+
+        generator.writeStartObject();
+        generator.writeStringField("title", "Security Event Summary");
+        generator.writeStringField("description", events.size() + " security events were coalesced into this message");
+        generator.writeNumberField("color", SUMMARY_COLOR);
+        generator.writeArrayFieldStart("fields");
+        writeField(generator, "Events", types.toString(), false);
+        if (ips.length() > 0) {
+            writeField(generator, "Top IP Addresses", ips.toString(), false);
+        }
+        writeField(generator, "Window", TIME_FORMAT.format(Instant.ofEpochMilli(events.get(0).getTimestamp())) +
+                " to " + TIME_FORMAT.format(Instant.ofEpochMilli(events.get(events.size() - 1).getTimestamp())), false);
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator generator, String name, String value, boolean inline)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", name);
+        generator.writeStringField("value", value);
+        generator.writeBooleanField("inline", inline);
+        generator.writeEndObject();
+    }
+
+    private static String label(String key) {
+        StringBuilder label = new StringBuilder(key.length() + 4);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (i == 0) {
+                label.append(Character.toUpperCase(c));
+            } else {
+                if (Character.isUpperCase(c)) {
+                    label.append(' ');
+                }
+                label.append(c);
+            }
+        }
+        return label.toString();
+    }
+}
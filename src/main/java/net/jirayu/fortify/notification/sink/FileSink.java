@@ -0,0 +1,144 @@
+package net.jirayu.fortify.notification.sink;
+
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.notification.NotificationSink;
+import net.jirayu.fortify.notification.SecurityEvent;
+import net.jirayu.fortify.notification.SecurityEventJson;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FileSink implements NotificationSink {
+    private final NotificationConfig.LogFile config;
+    private final Path path;
+    private final long maxBytes;
+    private final CountingStream out = new CountingStream();
+    private long size;
+    private long rotations = 0;
+
+    public FileSink(NotificationConfig.LogFile config) {
+        this.config = config;
+        this.path = Paths.get(config.getPath()).toAbsolutePath();
+        this.maxBytes = Math.max(1, config.getMaxSize()) * 1024L * 1024L;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<SecurityEvent> events) throws Exception {
+        try {
+            for (SecurityEvent event : events) {
+                if (out.target == null) {
+                    open();
+                }
+
+                long start = out.count;
+                SecurityEventJson.write(out, event);
+                out.write('\n');
+                size += out.count - start;
+
+                if (size >= maxBytes) {
+                    rotate();
+                }
+            }
+            if (out.target != null) {
+                out.target.flush();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return config.getQueueSize();
+    }
+
+    @Override
+    public long getBatchWindowMillis() {
+        return config.getBatchWindow();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return config.getMaxBatchSize();
+    }
+
+    @Override
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("path", path.toString());
+        info.put("rotations", rotations);
+        return info;
+    }
+
+    private void open() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out.target = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        size = Files.size(path);
+    }
+
+    private void rotate() throws IOException {
+        close();
+
+        int maxFiles = Math.max(1, config.getMaxFiles());
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        rotations++;
+    }
+
+    private Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void close() {
+        if (out.target == null) {
+            return;
+        }
+        try {
+            out.target.close();
+        } catch (IOException ignored) {
+        }
+        out.target = null;
+    }
+
+    private static class CountingStream extends OutputStream {
+        private OutputStream target;
+        private long count = 0;
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package net.jirayu.fortify.notification.sink;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterface;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+class HttpSinkSupport {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF = 500;
+
+    private final String url;
+    private final HttpInterfaceManager httpInterfaceManager;
+    private final AtomicLong rateLimited = new AtomicLong();
+    private volatile long blockedUntil = 0;
+
+    HttpSinkSupport(String url, HttpInterfaceManager httpInterfaceManager) {
+        this.url = url;
+        this.httpInterfaceManager = httpInterfaceManager;
+    }
+
+    void post(byte[] payload, int length) throws IOException, InterruptedException {
+        int statusCode = -1;
+        IOException lastError = null;
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long wait = blockedUntil - System.currentTimeMillis();
+            if (attempt > 1 && statusCode != 429) {
+                long backoff = RETRY_BACKOFF << (attempt - 2);
+                wait = Math.max(wait, backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+            }
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+
+            try {
+                statusCode = execute(payload, length);
+            } catch (IOException e) {
+                lastError = e;
+                statusCode = -1;
+                continue;
+            }
+
+            if (statusCode >= 200 && statusCode < 300) {
+                return;
+            }
+            if (statusCode != 429 && statusCode < 500) {
+                break;
+            }
+        }
+
+        if (lastError != null && statusCode < 0) {
+            throw lastError;
+        }
+        throw new IOException("Webhook responded with status code " + statusCode);
+    }
+
+    long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    long getBlockedUntil() {
+        return blockedUntil;
+    }
+
+    private int execute(byte[] payload, int length) throws IOException {
+        try (HttpInterface httpInterface = httpInterfaceManager.getInterface()) {
+            HttpPost httpPost = new HttpPost(url);
+            httpPost.setEntity(new ByteArrayEntity(payload, 0, length, ContentType.APPLICATION_JSON));
+
+            try (CloseableHttpResponse response = httpInterface.execute(httpPost)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                long now = System.currentTimeMillis();
+
+                if (statusCode == 429) {
+                    rateLimited.incrementAndGet();
+                    blockedUntil = now + (long) Math.ceil(headerSeconds(response, "Retry-After", 1.0) * 1000);
+                } else if ("0".equals(headerValue(response, "X-RateLimit-Remaining"))) {
+                    blockedUntil = now + (long) Math.ceil(headerSeconds(response, "X-RateLimit-Reset-After", 0) * 1000);
+                }
+                return statusCode;
+            }
+        }
+    }
+
+    private static String headerValue(CloseableHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private static double headerSeconds(CloseableHttpResponse response, String name, double fallback) {
+        String value = headerValue(response, name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Math.max(0, Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
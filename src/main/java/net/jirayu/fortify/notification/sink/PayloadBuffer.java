@@ -0,0 +1,22 @@
+package net.jirayu.fortify.notification.sink;
+
+import java.io.ByteArrayOutputStream;
+
+class PayloadBuffer extends ByteArrayOutputStream {
+    private static final int MAX_RETAINED = 1 << 20;
+
+    PayloadBuffer() {
+        super(8192);
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    void recycle() {
+        if (buf.length > MAX_RETAINED) {
+            buf = new byte[8192];
+        }
+        reset();
+    }
+}
@@ -0,0 +1,116 @@
+package net.jirayu.fortify.notification.sink;
+
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.notification.NotificationSink;
+import net.jirayu.fortify.notification.SecurityEvent;
+import net.jirayu.fortify.notification.SecurityEventJson;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SyslogSink implements NotificationSink {
+    private static final int MAX_DATAGRAM = 8192;
+
+    private final NotificationConfig.Syslog config;
+    private final byte[] header;
+    private final PayloadBuffer buffer = new PayloadBuffer();
+    private final ByteBuffer datagram = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private DatagramChannel channel;
+    private long truncated = 0;
+
+    public SyslogSink(NotificationConfig.Syslog config) {
+        this.config = config;
+        this.header = (" " + hostname() + " fortify " + ProcessHandle.current().pid() + " ")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String getName() {
+        return "syslog";
+    }
+
+    @Override
+    public void deliver(List<SecurityEvent> events) throws Exception {
+        DatagramChannel channel = getChannel();
+        for (SecurityEvent event : events) {
+            buffer.recycle();
+            int priority = config.getFacility() * 8 + event.getType().getSeverity();
+            buffer.write(("<" + priority + ">1 " + Instant.ofEpochMilli(event.getTimestamp()))
+                    .getBytes(StandardCharsets.US_ASCII));
+            buffer.write(header);
+            buffer.write((event.getType().name() + " - ").getBytes(StandardCharsets.US_ASCII));
+            SecurityEventJson.write(buffer, event);
+
+            int length = buffer.size();
+            if (length > MAX_DATAGRAM) {
+                length = MAX_DATAGRAM;
+                truncated++;
+            }
+
+            datagram.clear();
+            datagram.put(buffer.array(), 0, length);
+            datagram.flip();
+            try {
+                channel.write(datagram);
+            } catch (IOException e) {
+                closeChannel();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return config.getQueueSize();
+    }
+
+    @Override
+    public long getBatchWindowMillis() {
+        return config.getBatchWindow();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return config.getMaxBatchSize();
+    }
+
+    @Override
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("target", config.getHost() + ":" + config.getPort());
+        info.put("truncated", truncated);
+        return info;
+    }
+
+    private DatagramChannel getChannel() throws IOException {
+        if (channel == null) {
+            channel = DatagramChannel.open();
+            channel.connect(new InetSocketAddress(config.getHost(), config.getPort()));
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "-";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.jirayu.fortify.notification.sink;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.notification.NotificationSink;
+import net.jirayu.fortify.notification.SecurityEvent;
+import net.jirayu.fortify.notification.SecurityEventJson;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WebhookSink implements NotificationSink {
+    private final NotificationConfig.Webhook config;
+    private final HttpSinkSupport http;
+    private final PayloadBuffer buffer = new PayloadBuffer();
+
+    public WebhookSink(NotificationConfig.Webhook config, HttpInterfaceManager httpInterfaceManager) {
+        this.config = config;
+        this.http = new HttpSinkSupport(config.getUrl(), httpInterfaceManager);
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<SecurityEvent> events) throws Exception {
+        buffer.recycle();
+        SecurityEventJson.writeArray(buffer, events);
+        http.post(buffer.array(), buffer.size());
+    }
+
+    @Override
+    public int getQueueSize() {
+        return config.getQueueSize();
+    }
+
+    @Override
+    public long getBatchWindowMillis() {
+        return config.getBatchWindow();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return config.getMaxBatchSize();
+    }
+
+    @Override
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("rateLimited", http.getRateLimited());
+        return info;
+    }
+}
@@ -0,0 +1,178 @@
+package net.jirayu.fortify.playerlimit;
+
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class PlayerAccounting {
+    private static final Logger log = LoggerFactory.getLogger(PlayerAccounting.class);
+
+    public enum Result {
+        ADMITTED,
+        SESSION_LIMIT,
+        USER_LIMIT,
+        NODE_LIMIT
+    }
+
+    private final PolicyStore policyStore;
+    private final AtomicInteger nodePlayers = new AtomicInteger();
+    private final Map<Long, AtomicInteger> userPlayers = new ConcurrentHashMap<>();
+    private final Map<String, SessionPlayers> sessionPlayers = new ConcurrentHashMap<>();
+
+    public PlayerAccounting(PolicyStore policyStore) {
+        this.policyStore = policyStore;
+    }
+
+    public Result acquire(String sessionId, long userId, long guildId, boolean bypass) {
+        SessionPlayers session = sessionPlayers.computeIfAbsent(sessionId, k -> new SessionPlayers(userId));
+        if (session.guilds.contains(guildId)) {
+            return Result.ADMITTED;
+        }
+
+        FortifyPolicy.PlayerLimit limits = policyStore.get().getPlayerLimit();
+        boolean enforce = limits.isEnabled() && !bypass;
+        int maxPerSession = enforce ? limits.getMaxPlayers() : Integer.MAX_VALUE;
+        int maxPerUser = enforce ? unlimitedIfZero(limits.getMaxPlayersPerUser()) : Integer.MAX_VALUE;
+        int maxPerNode = enforce ? unlimitedIfZero(limits.getMaxPlayersPerNode()) : Integer.MAX_VALUE;
+
+        if (!tryIncrement(session.count, maxPerSession)) {
+            return Result.SESSION_LIMIT;
+        }
+
+        AtomicInteger user = acquireUser(userId, maxPerUser);
+        if (user == null) {
+            session.count.decrementAndGet();
+            return Result.USER_LIMIT;
+        }
+
+        if (!tryIncrement(nodePlayers, maxPerNode)) {
+            user.decrementAndGet();
+            session.count.decrementAndGet();
+            return Result.NODE_LIMIT;
+        }
+
+        if (!session.guilds.add(guildId)) {
+            nodePlayers.decrementAndGet();
+            user.decrementAndGet();
+            session.count.decrementAndGet();
+        }
+        return Result.ADMITTED;
+    }
+
+    public void release(String sessionId, long guildId) {
+        SessionPlayers session = sessionPlayers.get(sessionId);
+        if (session == null || !session.guilds.remove(guildId)) {
+            return;
+        }
+
+        session.count.decrementAndGet();
+        releaseUser(session.userId, 1);
+        nodePlayers.decrementAndGet();
+    }
+
+    public void releaseSession(String sessionId) {
+        SessionPlayers session = sessionPlayers.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+
+        int released = 0;
+        for (Long guildId : session.guilds) {
+            if (session.guilds.remove(guildId)) {
+                released++;
+            }
+        }
+
+        if (released > 0) {
+            session.count.addAndGet(-released);
+            releaseUser(session.userId, released);
+            nodePlayers.addAndGet(-released);
+            log.debug("Released {} player slots for closed session {}", released, sessionId);
+        }
+    }
+
+    public boolean hasPlayer(String sessionId, long guildId) {
+        SessionPlayers session = sessionPlayers.get(sessionId);
+        return session != null && session.guilds.contains(guildId);
+    }
+
+    public int getNodePlayers() {
+        return nodePlayers.get();
+    }
+
+    public int getUserPlayers(long userId) {
+        AtomicInteger user = userPlayers.get(userId);
+        return user != null ? user.get() : 0;
+    }
+
+    public int getSessionPlayers(String sessionId) {
+        SessionPlayers session = sessionPlayers.get(sessionId);
+        return session != null ? session.count.get() : 0;
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        FortifyPolicy.PlayerLimit limits = policyStore.get().getPlayerLimit();
+        info.put("nodePlayers", nodePlayers.get());
+        info.put("maxPlayersPerNode", limits.getMaxPlayersPerNode());
+        info.put("maxPlayersPerUser", limits.getMaxPlayersPerUser());
+        info.put("maxPlayersPerSession", limits.getMaxPlayers());
+        info.put("trackedUsers", userPlayers.size());
+        return info;
+    }
+
+    private AtomicInteger acquireUser(long userId, int max) {
+        while (true) {
+            AtomicInteger user = userPlayers.computeIfAbsent(userId, k -> new AtomicInteger());
+            if (!tryIncrement(user, max)) {
+                return null;
+            }
+            if (userPlayers.get(userId) == user) {
+                return user;
+            }
+            user.decrementAndGet();
+        }
+    }
+
+    private void releaseUser(long userId, int count) {
+        AtomicInteger user = userPlayers.get(userId);
+        if (user != null && user.addAndGet(-count) <= 0) {
+            userPlayers.computeIfPresent(userId, (k, v) -> v.get() <= 0 ? null : v);
+        }
+    }
+
+    private static int unlimitedIfZero(int max) {
+        return max > 0 ? max : Integer.MAX_VALUE;
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, int max) {
+        while (true) {
+            int current = counter.get();
+            if (current >= max) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static class SessionPlayers {
+        private final long userId;
+        private final AtomicInteger count = new AtomicInteger();
+        private final Set<Long> guilds = ConcurrentHashMap.newKeySet();
+
+        SessionPlayers(long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package net.jirayu.fortify.policy;
+
+import net.jirayu.fortify.config.PlayerLimitConfig;
+import net.jirayu.fortify.config.RateLimitConfig;
+import net.jirayu.fortify.config.ThrottleConfig;
+import net.jirayu.fortify.monitor.PressureLevel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class FortifyPolicy {
+    private static final String[] LEVELS = {null, "elevated", "high", "critical"};
+
+    private final long version;
+    private final long createdAt;
+    private final String source;
+    private final Map<String, Object> values;
+    private final RateLimit rateLimit;
+    private final PlayerLimit playerLimit;
+    private final Throttle throttle;
+
+    private FortifyPolicy(long version, long createdAt, String source, Map<String, Object> values) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.source = source;
+        this.values = values;
+        this.rateLimit = new RateLimit(values);
+        this.playerLimit = new PlayerLimit(values);
+        this.throttle = new Throttle(values);
+        for (PressureLevel level : PressureLevel.values()) {
+            rateLimit.maxRequests[level.ordinal()] = Math.max(1,
+                    (int) Math.round(rateLimit.baseMaxRequests * throttle.levels[level.ordinal()].rateLimitMultiplier));
+        }
+    }
+
+    public static FortifyPolicy compile(RateLimitConfig rateLimit, ThrottleConfig throttle, PlayerLimitConfig playerLimit) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("rateLimit.enabled", rateLimit.isEnabled());
+        values.put("rateLimit.maxRequests", rateLimit.getMaxRequests());
+        values.put("rateLimit.duration", rateLimit.getDuration());
+        values.put("rateLimit.blockThreshold", rateLimit.getBlockThreshold());
+        values.put("rateLimit.blockDuration", rateLimit.getBlockDuration());
+
+        values.put("playerLimit.enabled", playerLimit.isEnabled());
+        values.put("playerLimit.maxPlayers", playerLimit.getMaxPlayers());
+        values.put("playerLimit.closeOnExceed", playerLimit.isCloseOnExceed());
+        values.put("playerLimit.maxPlayersPerUser", playerLimit.getMaxPlayersPerUser());
+        values.put("playerLimit.maxPlayersPerNode", playerLimit.getMaxPlayersPerNode());
+
+        values.put("throttle.cpuThreshold", throttle.getCpuThreshold());
+        values.put("throttle.memoryThreshold", throttle.getMemoryThreshold());
+        values.put("throttle.gcThreshold", throttle.getGcThreshold());
+        values.put("throttle.cpuThrottledThreshold", throttle.getCpuThrottledThreshold());
+        values.put("throttle.pressureThreshold", throttle.getPressureThreshold());
+        values.put("throttle.hysteresis", throttle.getHysteresis());
+        values.put("throttle.recoveryTime", throttle.getRecoveryTime());
+        values.put("throttle.elevatedRatio", throttle.getElevatedRatio());
+        values.put("throttle.criticalRatio", throttle.getCriticalRatio());
+        putLevel(values, "elevated", throttle.getElevated());
+        putLevel(values, "high", throttle.getHigh());
+        putLevel(values, "critical", throttle.getCritical());
+
+        return new FortifyPolicy(1, System.currentTimeMillis(), "config", Collections.unmodifiableMap(values));
+    }
+
+    private static void putLevel(Map<String, Object> values, String name, ThrottleConfig.LevelPolicy level) {
+        values.put("throttle." + name + ".connectionDelay", level.getConnectionDelay());
+        values.put("throttle." + name + ".rateLimitMultiplier", level.getRateLimitMultiplier());
+        values.put("throttle." + name + ".admitNewPlayers", level.isAdmitNewPlayers());
+        values.put("throttle." + name + ".blockSearch", level.isBlockSearch());
+    }
+
+    public Builder toBuilder() {
+        return new Builder(new LinkedHashMap<>(values));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public PlayerLimit getPlayerLimit() {
+        return playerLimit;
+    }
+
+    public Throttle getThrottle() {
+        return throttle;
+    }
+
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("version", version);
+        info.put("createdAt", createdAt);
+        info.put("source", source);
+        info.put("policy", values);
+        return info;
+    }
+
+    public static final class RateLimit {
+        private final boolean enabled;
+        private final int baseMaxRequests;
+        private final int[] maxRequests = new int[PressureLevel.values().length];
+        private final int duration;
+        private final long windowMillis;
+        private final long idleMillis;
+        private final int blockThreshold;
+        private final int blockDuration;
+        private final long blockDurationMillis;
+
+        private RateLimit(Map<String, Object> values) {
+            this.enabled = (Boolean) values.get("rateLimit.enabled");
+            this.baseMaxRequests = (Integer) values.get("rateLimit.maxRequests");
+            this.duration = (Integer) values.get("rateLimit.duration");
+            this.windowMillis = duration * 1000L;
+            this.idleMillis = windowMillis * 2;
+            this.blockThreshold = (Integer) values.get("rateLimit.blockThreshold");
+            this.blockDuration = (Integer) values.get("rateLimit.blockDuration");
+            this.blockDurationMillis = blockDuration * 1000L;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getMaxRequests() {
+            return baseMaxRequests;
+        }
+
+        public int getMaxRequests(PressureLevel level) {
+            return maxRequests[level.ordinal()];
+        }
+
+        public int getDuration() {
+            return duration;
+        }
+
+        public long getWindowMillis() {
+            return windowMillis;
+        }
+
+        public long getIdleMillis() {
+            return idleMillis;
+        }
+
+        public int getBlockThreshold() {
+            return blockThreshold;
+        }
+
+        public int getBlockDuration() {
+            return blockDuration;
+        }
+
+        public long getBlockDurationMillis() {
+            return blockDurationMillis;
+        }
+    }
+
+    public static final class PlayerLimit {
+        private final boolean enabled;
+        private final int maxPlayers;
+        private final boolean closeOnExceed;
+        private final int maxPlayersPerUser;
+        private final int maxPlayersPerNode;
+
+        private PlayerLimit(Map<String, Object> values) {
+            this.enabled = (Boolean) values.get("playerLimit.enabled");
+            this.maxPlayers = (Integer) values.get("playerLimit.maxPlayers");
+            this.closeOnExceed = (Boolean) values.get("playerLimit.closeOnExceed");
+            this.maxPlayersPerUser = (Integer) values.get("playerLimit.maxPlayersPerUser");
+            this.maxPlayersPerNode = (Integer) values.get("playerLimit.maxPlayersPerNode");
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getMaxPlayers() {
+            return maxPlayers;
+        }
+
+        public boolean isCloseOnExceed() {
+            return closeOnExceed;
+        }
+
+        public int getMaxPlayersPerUser() {
+            return maxPlayersPerUser;
+        }
+
+        public int getMaxPlayersPerNode() {
+            return maxPlayersPerNode;
+        }
+    }
+
+    public static final class Throttle {
+        private final double cpuThreshold;
+        private final double memoryThreshold;
+        private final double gcThreshold;
+        private final double cpuThrottledThreshold;
+        private final double pressureThreshold;
+        private final double recoveryFactor;
+        private final int recoveryTime;
+        private final double elevatedRatio;
+        private final double criticalRatio;
+        private final Level[] levels = new Level[PressureLevel.values().length];
+
+        private Throttle(Map<String, Object> values) {
+            this.cpuThreshold = (Double) values.get("throttle.cpuThreshold");
+            this.memoryThreshold = (Double) values.get("throttle.memoryThreshold");
+            this.gcThreshold = (Double) values.get("throttle.gcThreshold");
+            this.cpuThrottledThreshold = (Double) values.get("throttle.cpuThrottledThreshold");
+            this.pressureThreshold = (Double) values.get("throttle.pressureThreshold");
+            this.recoveryFactor = 1 - (Double) values.get("throttle.hysteresis") / 100.0;
+            this.recoveryTime = (Integer) values.get("throttle.recoveryTime");
+            this.elevatedRatio = (Double) values.get("throttle.elevatedRatio");
+            this.criticalRatio = (Double) values.get("throttle.criticalRatio");
+            levels[0] = Level.NORMAL;
+            for (int i = 1; i < LEVELS.length; i++) {
+                String prefix = "throttle." + LEVELS[i] + ".";
+                levels[i] = new Level(
+                        (Integer) values.get(prefix + "connectionDelay"),
+                        (Double) values.get(prefix + "rateLimitMultiplier"),
+                        (Boolean) values.get(prefix + "admitNewPlayers"),
+                        (Boolean) values.get(prefix + "blockSearch"));
+            }
+        }
+
+        public double getCpuThreshold() {
+            return cpuThreshold;
+        }
+
+        public double getMemoryThreshold() {
+            return memoryThreshold;
+        }
+
+        public double getGcThreshold() {
+            return gcThreshold;
+        }
+
+        public double getCpuThrottledThreshold() {
+            return cpuThrottledThreshold;
+        }
+
+        public double getPressureThreshold() {
+            return pressureThreshold;
+        }
+
+        public double getRecoveryFactor() {
+            return recoveryFactor;
+        }
+
+        public int getRecoveryTime() {
+            return recoveryTime;
+        }
+
+        public double getElevatedRatio() {
+            return elevatedRatio;
+        }
+
+        public double getCriticalRatio() {
+            return criticalRatio;
+        }
+
+        public Level getLevel(PressureLevel level) {
+            return levels[level.ordinal()];
+        }
+    }
+
+    public static final class Level {
+        static final Level NORMAL = new Level(0, 1.0, true, false);
+
+        private final int connectionDelay;
+        private final double rateLimitMultiplier;
+        private final boolean admitNewPlayers;
+        private final boolean blockSearch;
+
+        private Level(int connectionDelay, double rateLimitMultiplier, boolean admitNewPlayers, boolean blockSearch) {
+            this.connectionDelay = connectionDelay;
+            this.rateLimitMultiplier = rateLimitMultiplier;
+            this.admitNewPlayers = admitNewPlayers;
+            this.blockSearch = blockSearch;
+        }
+
+        public int getConnectionDelay() {
+            return connectionDelay;
+        }
+
+        public double getRateLimitMultiplier() {
+            return rateLimitMultiplier;
+        }
+
+        public boolean isAdmitNewPlayers() {
+            return admitNewPlayers;
+        }
+
+        public boolean isBlockSearch() {
+            return blockSearch;
+        }
+    }
+
+    public static final class Builder {
+        private final Map<String, Object> values;
+
+        private Builder(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        public Builder set(String key, Object value) {
+            Object current = values.get(key);
+            if (current == null) {
+                throw new IllegalArgumentException("Unknown policy setting: " + key);
+            }
+
+            if (current instanceof Boolean && value instanceof Boolean) {
+                values.put(key, value);
+            } else if (current instanceof Integer && value instanceof Number &&
+                    ((Number) value).doubleValue() == Math.rint(((Number) value).doubleValue()) &&
+                    Math.abs(((Number) value).doubleValue()) <= Integer.MAX_VALUE) {
+                values.put(key, ((Number) value).intValue());
+            } else if (current instanceof Double && value instanceof Number) {
+                values.put(key, ((Number) value).doubleValue());
+            } else {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Builder setAll(String prefix, Map<String, Object> changes) {
+            for (Map.Entry<String, Object> entry : changes.entrySet()) {
+                String key = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
+                if (entry.getValue() instanceof Map) {
+                    setAll(key, (Map<String, Object>) entry.getValue());
+                } else {
+                    set(key, entry.getValue());
+                }
+            }
+            return this;
+        }
+
+        public List<String> validate() {
+            List<String> errors = new ArrayList<>();
+            atLeast(errors, "rateLimit.maxRequests", 1);
+            atLeast(errors, "rateLimit.duration", 1);
+            atLeast(errors, "rateLimit.blockThreshold", 1);
+            atLeast(errors, "rateLimit.blockDuration", 1);
+            atLeast(errors, "playerLimit.maxPlayers", 0);
+            atLeast(errors, "playerLimit.maxPlayersPerUser", 0);
+            atLeast(errors, "playerLimit.maxPlayersPerNode", 0);
+            atLeast(errors, "throttle.recoveryTime", 0);
+
+            for (String key : new String[]{"cpuThreshold", "memoryThreshold", "gcThreshold",
+                    "cpuThrottledThreshold", "pressureThreshold"}) {
+                if ((Double) values.get("throttle." + key) <= 0) {
+                    errors.add("throttle." + key + " must be greater than 0");
+                }
+            }
+
+            double hysteresis = (Double) values.get("throttle.hysteresis");
+            if (hysteresis < 0 || hysteresis >= 100) {
+                errors.add("throttle.hysteresis must be between 0 and 100");
+            }
+
+            double elevatedRatio = (Double) values.get("throttle.elevatedRatio");
+            double criticalRatio = (Double) values.get("throttle.criticalRatio");
+            if (elevatedRatio <= 0 || elevatedRatio > 1.0 || criticalRatio < 1.0) {
+                errors.add("throttle ratios must satisfy 0 < elevatedRatio <= 1 <= criticalRatio");
+            }
+
+            for (int i = 1; i < LEVELS.length; i++) {
+                String prefix = "throttle." + LEVELS[i] + ".";
+                atLeast(errors, prefix + "connectionDelay", 0);
+                double multiplier = (Double) values.get(prefix + "rateLimitMultiplier");
+                if (multiplier <= 0 || multiplier > 1.0) {
+                    errors.add(prefix + "rateLimitMultiplier must be greater than 0 and at most 1");
+                }
+            }
+            return errors;
+        }
+
+        private void atLeast(List<String> errors, String key, int minimum) {
+            if ((Integer) values.get(key) < minimum) {
+                errors.add(key + " must be at least " + minimum);
+            }
+        }
+
+        FortifyPolicy build(long version, String source) {
+            List<String> errors = validate();
+            if (!errors.isEmpty()) {
+                throw new PolicyValidationException(errors);
+            }
+            return new FortifyPolicy(version, System.currentTimeMillis(), source,
+                    Collections.unmodifiableMap(new LinkedHashMap<>(values)));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.jirayu.fortify.policy;
+
+import net.jirayu.fortify.audit.AuditEventType;
+import net.jirayu.fortify.audit.AuditLog;
+import net.jirayu.fortify.config.PlayerLimitConfig;
+import net.jirayu.fortify.config.RateLimitConfig;
+import net.jirayu.fortify.config.ThrottleConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class PolicyStore {
+    private static final Logger log = LoggerFactory.getLogger(PolicyStore.class);
+    private static final int HISTORY_SIZE = 20;
+
+    private final AuditLog auditLog;
+    private final ArrayDeque<FortifyPolicy> history = new ArrayDeque<>();
+    private volatile FortifyPolicy current;
+
+    public PolicyStore(RateLimitConfig rateLimitConfig, ThrottleConfig throttleConfig,
+                       PlayerLimitConfig playerLimitConfig, AuditLog auditLog) {
+        this.auditLog = auditLog;
+        this.current = FortifyPolicy.compile(rateLimitConfig, throttleConfig, playerLimitConfig);
+        history.addLast(current);
+
+        for (String error : current.toBuilder().validate()) {
+            log.warn("Configured policy setting is out of range: {}", error);
+        }
+    }
+
+    public FortifyPolicy get() {
+        return current;
+    }
+
+    public synchronized FortifyPolicy apply(FortifyPolicy.Builder candidate, Long expectedVersion, String source) {
+        if (expectedVersion != null && expectedVersion != current.getVersion()) {
+            throw new IllegalStateException("Policy is at version " + current.getVersion() +
+                    ", not " + expectedVersion);
+        }
+
+        FortifyPolicy next = candidate.build(current.getVersion() + 1, source);
+        FortifyPolicy previous = current;
+        current = next;
+
+        history.addLast(next);
+        if (history.size() > HISTORY_SIZE) {
+            history.pollFirst();
+        }
+
+        log.warn("Policy changed from version {} to {} ({})", previous.getVersion(), next.getVersion(), source);
+        auditLog.record(AuditEventType.POLICY_CHANGED, null, source, next.getVersion());
+        return next;
+    }
+
+    public synchronized FortifyPolicy rollback(Long version) {
+        FortifyPolicy target = null;
+        if (version == null) {
+            Iterator<FortifyPolicy> iterator = history.descendingIterator();
+            iterator.next();
+            target = iterator.hasNext() ? iterator.next() : null;
+        } else {
+            for (FortifyPolicy policy : history) {
+                if (policy.getVersion() == version) {
+                    target = policy;
+                }
+            }
+        }
+
+        if (target == null) {
+            throw new IllegalArgumentException(version == null
+                    ? "No previous policy version to roll back to"
+                    : "Policy version " + version + " is not in the history");
+        }
+        return apply(target.toBuilder(), null, "rollback:" + target.getVersion());
+    }
+
+    public synchronized List<Map<String, Object>> getVersions() {
+        List<Map<String, Object>> versions = new ArrayList<>();
+        Iterator<FortifyPolicy> iterator = history.descendingIterator();
+        while (iterator.hasNext()) {
+            FortifyPolicy policy = iterator.next();
+            Map<String, Object> version = new LinkedHashMap<>();
+            version.put("version", policy.getVersion());
+            version.put("createdAt", policy.getCreatedAt());
+            version.put("source", policy.getSource());
+            version.put("active", policy == current);
+            versions.add(version);
+        }
+        return versions;
+    }
+}
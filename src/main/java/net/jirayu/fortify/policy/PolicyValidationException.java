@@ -0,0 +1,16 @@
+package net.jirayu.fortify.policy;
+
+import java.util.List;
+
+public class PolicyValidationException extends IllegalArgumentException {
+    private final List<String> errors;
+
+    public PolicyValidationException(List<String> errors) {
+        super(String.join("; ", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,134 @@
+package net.jirayu.fortify.policy;
+
+import net.jirayu.fortify.monitor.PressureLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+@Service
+public class ShadowPolicies {
+    private static final Logger log = LoggerFactory.getLogger(ShadowPolicies.class);
+    public static final int MAX_CANDIDATES = 4;
+    private static final ShadowPolicy[] NONE = new ShadowPolicy[0];
+
+    private final PolicyStore policyStore;
+    private volatile ShadowPolicy[] candidates = NONE;
+    private volatile long generation;
+
+    public ShadowPolicies(PolicyStore policyStore) {
+        this.policyStore = policyStore;
+    }
+
+    public boolean isActive() {
+        return candidates.length > 0;
+    }
+
+    public void evaluatePath(String ip, String path) {
+        for (ShadowPolicy candidate : candidates) {
+            candidate.evaluatePath(ip, path);
+        }
+    }
+
+    public KeyState evaluateRate(String ip, KeyState state, PressureLevel level) {
+        ShadowPolicy[] current = candidates;
+        if (current.length == 0) {
+            return state;
+        }
+
+        long generation = this.generation;
+        if (state == null || state.generation != generation) {
+            state = new KeyState(generation);
+        }
+
+        long now = System.currentTimeMillis();
+        for (ShadowPolicy candidate : current) {
+            candidate.evaluateRate(ip, state, level, now);
+        }
+        return state;
+    }
+
+    public synchronized ShadowPolicy start(String name, Map<String, Object> changes, List<String> pathPatterns) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Shadow policy name is required");
+        }
+        for (ShadowPolicy candidate : candidates) {
+            if (candidate.getName().equals(name)) {
+                throw new IllegalArgumentException("Shadow policy " + name + " is already running");
+            }
+        }
+        if (candidates.length >= MAX_CANDIDATES) {
+            throw new IllegalArgumentException("At most " + MAX_CANDIDATES + " shadow policies can run at once");
+        }
+
+        FortifyPolicy active = policyStore.get();
+        FortifyPolicy policy = active.toBuilder().setAll("", changes).build(active.getVersion() + 1, "shadow:" + name);
+
+        Pattern[] patterns = new Pattern[pathPatterns.size()];
+        for (int i = 0; i < patterns.length; i++) {
+            try {
+                patterns[i] = Pattern.compile(pathPatterns.get(i));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid regex pattern: " + e.getMessage());
+            }
+        }
+
+        ShadowPolicy candidate = new ShadowPolicy(name, freeSlot(), policy, active.getVersion(), changes, patterns);
+        ShadowPolicy[] next = Arrays.copyOf(candidates, candidates.length + 1);
+        next[candidates.length] = candidate;
+        generation++;
+        candidates = next;
+
+        log.info("Started shadow policy {}", name);
+        return candidate;
+    }
+
+    public synchronized ShadowPolicy stop(String name) {
+        for (ShadowPolicy candidate : candidates) {
+            if (candidate.getName().equals(name)) {
+                candidates = Arrays.stream(candidates).filter(c -> c != candidate).toArray(ShadowPolicy[]::new);
+                log.info("Stopped shadow policy {}", name);
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    public List<Map<String, Object>> getInfo() {
+        List<Map<String, Object>> info = new ArrayList<>();
+        for (ShadowPolicy candidate : candidates) {
+            info.add(candidate.getInfo());
+        }
+        return info;
+    }
+
+    private int freeSlot() {
+        boolean[] used = new boolean[MAX_CANDIDATES];
+        for (ShadowPolicy candidate : candidates) {
+            used[candidate.getSlot()] = true;
+        }
+        int slot = 0;
+        while (used[slot]) {
+            slot++;
+        }
+        return slot;
+    }
+
+    public static class KeyState {
+        private final long generation;
+        final long[] windowStart = new long[MAX_CANDIDATES];
+        final int[] requests = new int[MAX_CANDIDATES];
+        final int[] violations = new int[MAX_CANDIDATES];
+        final long[] blockedUntil = new long[MAX_CANDIDATES];
+
+        private KeyState(long generation) {
+            this.generation = generation;
+        }
+    }
+}
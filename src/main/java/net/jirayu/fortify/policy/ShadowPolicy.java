@@ -0,0 +1,116 @@
+package net.jirayu.fortify.policy;
+
+import net.jirayu.fortify.monitor.PressureLevel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+public class ShadowPolicy {
+    private static final int SAMPLE_SIZE = 16;
+
+    private final String name;
+    private final int slot;
+    private final FortifyPolicy policy;
+    private final long basedOnVersion;
+    private final Map<String, Object> changes;
+    private final Pattern[] pathPatterns;
+    private final long startedAt = System.currentTimeMillis();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder pathBlocked = new LongAdder();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicReferenceArray<String> sampledKeys = new AtomicReferenceArray<>(SAMPLE_SIZE);
+
+    ShadowPolicy(String name, int slot, FortifyPolicy policy, long basedOnVersion, Map<String, Object> changes,
+                 Pattern[] pathPatterns) {
+        this.name = name;
+        this.slot = slot;
+        this.policy = policy;
+        this.basedOnVersion = basedOnVersion;
+        this.changes = changes;
+        this.pathPatterns = pathPatterns;
+    }
+
+    void evaluatePath(String ip, String path) {
+        for (Pattern pattern : pathPatterns) {
+            if (pattern.matcher(path).matches()) {
+                pathBlocked.increment();
+                sample(ip);
+                return;
+            }
+        }
+    }
+
+    void evaluateRate(String ip, ShadowPolicies.KeyState state, PressureLevel level, long now) {
+        FortifyPolicy.RateLimit limits = policy.getRateLimit();
+        if (state.blockedUntil[slot] > now) {
+            blocked.increment();
+            return;
+        }
+
+        if (now - state.windowStart[slot] > limits.getWindowMillis()) {
+            state.windowStart[slot] = now;
+            state.requests[slot] = 0;
+            state.violations[slot] = 0;
+        }
+        if (++state.requests[slot] <= limits.getMaxRequests(level)) {
+            allowed.increment();
+            return;
+        }
+
+        if (++state.violations[slot] >= limits.getBlockThreshold()) {
+            state.blockedUntil[slot] = now + limits.getBlockDurationMillis();
+            state.violations[slot] = 0;
+            blocked.increment();
+        } else {
+            limited.increment();
+        }
+        sample(ip);
+    }
+
+    private void sample(String ip) {
+        sampledKeys.lazySet((int) (samples.getAndIncrement() % SAMPLE_SIZE), ip);
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getInfo() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            String key = sampledKeys.get(i);
+            if (key != null && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        List<String> patterns = new ArrayList<>();
+        for (Pattern pattern : pathPatterns) {
+            patterns.add(pattern.pattern());
+        }
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", name);
+        info.put("startedAt", startedAt);
+        info.put("basedOnVersion", basedOnVersion);
+        info.put("changes", changes);
+        info.put("pathPatterns", patterns);
+        info.put("wouldAllow", allowed.sum());
+        info.put("wouldLimit", limited.sum());
+        info.put("wouldBlock", blocked.sum());
+        info.put("wouldBlockPath", pathBlocked.sum());
+        info.put("sampledKeys", keys);
+        return info;
+    }
+}
@@ -0,0 +1,117 @@
+package net.jirayu.fortify.ratelimit;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class BlockTable {
+    private static final Comparator<Block> EXPIRY_ORDER =
+            Comparator.comparingLong(Block::getExpiresAt).thenComparing(Block::getIp);
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Block> expiryIndex = new ConcurrentSkipListSet<>(EXPIRY_ORDER);
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Block block(String ip, long expiresAt, String reason) {
+        return blocks.compute(ip, (key, previous) -> {
+            if (previous != null) {
+                expiryIndex.remove(previous);
+            } else {
+                count.incrementAndGet();
+            }
+            Block block = new Block(ip, System.currentTimeMillis(), expiresAt, reason);
+            expiryIndex.add(block);
+            return block;
+        });
+    }
+
+    public Block get(String ip) {
+        return blocks.get(ip);
+    }
+
+    public Block remove(String ip) {
+        Block[] removed = new Block[1];
+        blocks.computeIfPresent(ip, (key, block) -> {
+            expiryIndex.remove(block);
+            count.decrementAndGet();
+            removed[0] = block;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public boolean remove(Block block) {
+        if (!blocks.remove(block.ip, block)) {
+            return false;
+        }
+        expiryIndex.remove(block);
+        count.decrementAndGet();
+        return true;
+    }
+
+    public int removeExpired(long now, Consumer<Block> onRemoved) {
+        int removed = 0;
+        Block first;
+        while ((first = firstOrNull()) != null && first.expiresAt < now) {
+            if (remove(first)) {
+                removed++;
+                onRemoved.accept(first);
+            } else {
+                expiryIndex.remove(first);
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    public NavigableSet<Block> byExpiry(long fromExpiresAt, long toExpiresAt, boolean descending) {
+        NavigableSet<Block> range = expiryIndex.subSet(key(fromExpiresAt, ""), true,
+                key(toExpiresAt, "\uffff"), true);
+        return descending ? range.descendingSet() : range;
+    }
+
+    public static Block key(long expiresAt, String ip) {
+        return new Block(ip, 0, expiresAt, null);
+    }
+
+    private Block firstOrNull() {
+        return expiryIndex.ceiling(key(Long.MIN_VALUE, ""));
+    }
+
+    public static class Block {
+        private final String ip;
+        private final long blockedAt;
+        private final long expiresAt;
+        private final String reason;
+
+        Block(String ip, long blockedAt, long expiresAt, String reason) {
+            this.ip = ip;
+            this.blockedAt = blockedAt;
+            this.expiresAt = expiresAt;
+            this.reason = reason;
+        }
+
+        public String getIp() {
+            return ip;
+        }
+
+        public long getBlockedAt() {
+            return blockedAt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
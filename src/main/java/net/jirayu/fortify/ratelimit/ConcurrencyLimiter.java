@@ -0,0 +1,203 @@
+package net.jirayu.fortify.ratelimit;
+
+import net.jirayu.fortify.config.ConcurrencyConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class ConcurrencyLimiter {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_DECAY = 0.05;
+    private static final int MAX_STRIPES = 256;
+    // 128 bytes between stripe counters, so neighbouring stripes do not share a cache line or its prefetch pair.
+    private static final int PADDING = 32;
+
+    public static final int IP_LIMIT = -1;
+    public static final int GLOBAL_LIMIT = -2;
+
+    private final ConcurrencyConfig config;
+    private final Map<String, AtomicInteger> ipCounts = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray globalStripes;
+    private final int stripes;
+    private final int stripeMask;
+    private final AtomicLong rejectedIp = new AtomicLong();
+    private final AtomicLong rejectedGlobal = new AtomicLong();
+
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowEnd = new AtomicLong(System.nanoTime() + WINDOW_NANOS);
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRtt = Double.NaN;
+
+    public ConcurrencyLimiter(ConcurrencyConfig config) {
+        this.config = config;
+        this.stripes = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, config.getStripes())));
+        this.globalStripes = new AtomicIntegerArray(stripes * PADDING);
+        this.stripeMask = stripes - 1;
+        this.limit = config.getMaxGlobal();
+        this.estimatedLimit = config.getMaxGlobal();
+
+        if (config.isEnabled()) {
+            log.info("Concurrency limiter initialized: {} in-flight per IP, {} global{}",
+                    config.getMaxPerIp(), config.getMaxGlobal(), config.isAdaptive() ? " (adaptive)" : "");
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    // Returns the global stripe holding the new slot, or IP_LIMIT / GLOBAL_LIMIT.
+    public int tryAcquire(String ip) {
+        AtomicInteger count = acquireIp(ip);
+        if (count == null) {
+            rejectedIp.incrementAndGet();
+            return IP_LIMIT;
+        }
+
+        int stripe = acquireGlobal(ip);
+        if (stripe < 0) {
+            releaseIp(ip, count);
+            rejectedGlobal.incrementAndGet();
+            return GLOBAL_LIMIT;
+        }
+        return stripe;
+    }
+
+    public void release(String ip, int stripe, long latencyNanos) {
+        globalStripes.decrementAndGet(stripe * PADDING);
+        AtomicInteger count = ipCounts.get(ip);
+        if (count != null) {
+            releaseIp(ip, count);
+        }
+
+        if (config.isAdaptive()) {
+            windowRttSum.add(latencyNanos);
+            windowSamples.increment();
+            long end = windowEnd.get();
+            long now = System.nanoTime();
+            if (now - end >= 0 && windowEnd.compareAndSet(end, now + WINDOW_NANOS)) {
+                updateLimit();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("enabled", config.isEnabled());
+        info.put("inFlight", getInFlight());
+        info.put("trackedIps", ipCounts.size());
+        info.put("limit", limit);
+        info.put("maxPerIp", config.getMaxPerIp());
+        info.put("adaptive", config.isAdaptive());
+        info.put("rejectedByIp", rejectedIp.get());
+        info.put("rejectedByGlobal", rejectedGlobal.get());
+        return info;
+    }
+
+    // Gradient limit: shrink when recent latency rises above the long-term baseline, grow by sqrt(limit) otherwise.
+    private synchronized void updateLimit() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        if (samples == 0) {
+            return;
+        }
+
+        double shortRtt = (double) rttSum / samples;
+        if (Double.isNaN(longRtt)) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += LONG_RTT_DECAY * (shortRtt - longRtt);
+        }
+
+        // Only grow while the limit is actually in use; an idle node says nothing about capacity.
+        if (getInFlight() * 2 < estimatedLimit && shortRtt <= longRtt) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING;
+        estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxGlobal(), estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    // A counter that drops to zero is retired with -1 before removal, so a racing acquire never reuses it.
+    private AtomicInteger acquireIp(String ip) {
+        int max = config.getMaxPerIp();
+        while (true) {
+            AtomicInteger count = ipCounts.get(ip);
+            if (count == null) {
+                count = ipCounts.computeIfAbsent(ip, k -> new AtomicInteger());
+            }
+
+            int current = count.get();
+            if (current < 0) {
+                ipCounts.remove(ip, count);
+                continue;
+            }
+            if (current >= max) {
+                return null;
+            }
+            if (count.compareAndSet(current, current + 1)) {
+                return count;
+            }
+        }
+    }
+
+    private void releaseIp(String ip, AtomicInteger count) {
+        if (count.decrementAndGet() == 0 && count.compareAndSet(0, -1)) {
+            ipCounts.remove(ip, count);
+        }
+    }
+
+    // The global limit is split into per-stripe shares; a full home stripe moves on to the next one, so the total
+    // never exceeds the limit and a request is only rejected once every stripe is full.
+    private int acquireGlobal(String ip) {
+        int current = limit;
+        int hash = ip.hashCode();
+        int home = (hash ^ (hash >>> 16)) & stripeMask;
+
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (home + i) & stripeMask;
+            int share = current / stripes + (stripe < current % stripes ? 1 : 0);
+            int index = stripe * PADDING;
+
+            while (true) {
+                int used = globalStripes.get(index);
+                if (used >= share) {
+                    break;
+                }
+                if (globalStripes.compareAndSet(index, used, used + 1)) {
+                    return stripe;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int getInFlight() {
+        int total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += globalStripes.get(stripe * PADDING);
+        }
+        return total;
+    }
+}
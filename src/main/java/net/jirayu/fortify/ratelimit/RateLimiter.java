@@ -1,14 +1,24 @@
 package net.jirayu.fortify.ratelimit;
 
+import net.jirayu.fortify.audit.AuditEventType;
+import net.jirayu.fortify.audit.AuditLog;
 import net.jirayu.fortify.config.RateLimitConfig;
 import net.jirayu.fortify.firewall.FirewallManager;
+import net.jirayu.fortify.jfr.BlockTransitionEvent;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.monitor.PressureLevel;
+import net.jirayu.fortify.monitor.ResourceMonitor;
+import net.jirayu.fortify.notification.NotificationService;
+import net.jirayu.fortify.policy.FortifyPolicy;
+import net.jirayu.fortify.policy.PolicyStore;
+import net.jirayu.fortify.policy.ShadowPolicies;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.HashMap;
 
 @Service
 public class RateLimiter {
@@ -16,67 +26,80 @@ public class RateLimiter {
 
     private final RateLimitConfig config;
     private final FirewallManager firewallManager;
+    private final ResourceMonitor resourceMonitor;
+    private final FortifyMetrics metrics;
+    private final NotificationService notificationService;
+    private final AuditLog auditLog;
+    private final PolicyStore policyStore;
+    private final ShadowPolicies shadowPolicies;
+    private final FortifyScheduler scheduler;
     private final Map<String, RequestTracker> requestTrackers = new ConcurrentHashMap<>();
-    private final Map<String, Long> blockedIps = new ConcurrentHashMap<>();
+    private final BlockTable blockedIps = new BlockTable();
 
-    public RateLimiter(RateLimitConfig config, FirewallManager firewallManager) {
+    public RateLimiter(RateLimitConfig config, FirewallManager firewallManager, ResourceMonitor resourceMonitor,
+                       FortifyMetrics metrics, NotificationService notificationService, AuditLog auditLog,
+                       PolicyStore policyStore, ShadowPolicies shadowPolicies, FortifyScheduler scheduler) {
         this.config = config;
         this.firewallManager = firewallManager;
+        this.resourceMonitor = resourceMonitor;
+        this.metrics = metrics;
+        this.notificationService = notificationService;
+        this.auditLog = auditLog;
+        this.policyStore = policyStore;
+        this.shadowPolicies = shadowPolicies;
+        this.scheduler = scheduler;
 
-        Thread cleanupThread = new Thread(() -> {
-            while (true) {
-                try {
-                    cleanup();
-                    Thread.sleep(60000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-        });
-        cleanupThread.setDaemon(true);
-        cleanupThread.start();
+        metrics.gauge("fortify_ratelimit_tracked_keys", "IP addresses with an active request tracker",
+                requestTrackers::size);
+        metrics.gauge("fortify_ratelimit_blocked_keys", "IP addresses currently blocked by the rate limiter",
+                blockedIps::size);
+
+        scheduler.scheduleWithFixedDelay("rate limiter cleanup", this::cleanup, 0, 60000);
 
         log.info("Rate limiter initialized with max {} requests per {} seconds",
-                config.getMaxRequests(), config.getDuration());
+                policyStore.get().getRateLimit().getMaxRequests(), policyStore.get().getRateLimit().getDuration());
     }
 
     public boolean isAllowed(String ip) {
+        PressureLevel level = resourceMonitor.getLevel();
+        RequestTracker tracker = null;
+        // Candidates see traffic from IPs the active policy blocks, since a more lenient one might allow it.
+        if (shadowPolicies.isActive()) {
+            tracker = requestTrackers.computeIfAbsent(ip, k -> new RequestTracker());
+            tracker.shadowState = shadowPolicies.evaluateRate(ip, tracker.shadowState, level);
+            tracker.lastRequestTime = System.currentTimeMillis();
+        }
+
         if (isBlocked(ip)) {
             log.debug("IP {} is currently blocked", ip);
             return false;
         }
 
-        RequestTracker tracker = requestTrackers.computeIfAbsent(ip, k -> new RequestTracker());
-        tracker.addRequest(config.getDuration() * 1000L);
+        FortifyPolicy.RateLimit limits = policyStore.get().getRateLimit();
+        int maxRequests = limits.getMaxRequests(level);
+        if (tracker == null) {
+            tracker = requestTrackers.computeIfAbsent(ip, k -> new RequestTracker());
+        }
+        tracker.addRequest(limits.getWindowMillis());
+        int requests = tracker.getRequestsInWindow();
 
-        log.debug("Rate check for IP {}: {} requests in window, limit is {}",
-                ip, tracker.getRequestsInWindow(), config.getMaxRequests());
+        log.debug("Rate check for IP {}: {} requests in window, limit is {}", ip, requests, maxRequests);
 
-        if (tracker.getRequestsInWindow() > config.getMaxRequests()) {
+        if (requests > maxRequests) {
             tracker.incrementViolations();
 
-            if (tracker.getViolations() >= config.getBlockThreshold()) {
-                long blockDurationMillis = config.getBlockDuration() * 1000L;
+            if (tracker.getViolations() >= limits.getBlockThreshold()) {
+                long blockDurationMillis = limits.getBlockDurationMillis();
                 long unblockTime = System.currentTimeMillis() + blockDurationMillis;
-                blockedIps.put(ip, unblockTime);
+                blockedIps.block(ip, unblockTime, "rate_limit");
+                recordTransition(ip, true, "rate_limit", blockDurationMillis);
 
                 log.warn("IP {} blocked for {} seconds due to rate limit violations",
-                        ip, config.getBlockDuration());
+                        ip, limits.getBlockDuration());
 
                 if (config.isBlockWithFirewall()) {
                     firewallManager.blockIp(ip);
-
-                    Thread unblockThread = new Thread(() -> {
-                        try {
-                            Thread.sleep(blockDurationMillis);
-                            firewallManager.unblockIp(ip);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    });
-                    unblockThread.setDaemon(true);
-                    unblockThread.start();
+                    scheduleFirewallUnblock(ip, blockDurationMillis);
                 }
 
                 return false;
@@ -90,15 +113,17 @@ public class RateLimiter {
     }
 
     public boolean isBlocked(String ip) {
-        Long unblockTime = blockedIps.get(ip);
-        if (unblockTime == null) {
+        BlockTable.Block block = blockedIps.get(ip);
+        if (block == null) {
             return false;
         }
 
-        if (System.currentTimeMillis() > unblockTime) {
-            blockedIps.remove(ip);
-            if (config.isBlockWithFirewall()) {
-                firewallManager.unblockIp(ip);
+        if (System.currentTimeMillis() > block.getExpiresAt()) {
+            if (blockedIps.remove(block)) {
+                recordTransition(ip, false, "expired", 0);
+                if (config.isBlockWithFirewall()) {
+                    scheduler.executeOrRetry("firewall unblock", () -> firewallManager.unblockIp(ip));
+                }
             }
             return false;
         }
@@ -109,64 +134,66 @@ public class RateLimiter {
     public int getRemainingRequests(String ip) {
         RequestTracker tracker = requestTrackers.get(ip);
         if (tracker == null) {
-            return config.getMaxRequests();
+            return getMaxRequests();
         }
 
-        int remaining = config.getMaxRequests() - tracker.getRequestsInWindow();
+        int remaining = getMaxRequests() - tracker.getRequestsInWindow();
         return Math.max(0, remaining);
     }
 
+    public int getMaxRequests() {
+        return policyStore.get().getRateLimit().getMaxRequests(resourceMonitor.getLevel());
+    }
+
     public long getWindowStart(String ip) {
         RequestTracker tracker = requestTrackers.get(ip);
         return tracker != null ? tracker.getWindowStart() : System.currentTimeMillis();
     }
 
     private void cleanup() {
+        long started = System.nanoTime();
         long now = System.currentTimeMillis();
+        int[] evicted = {0};
+        FortifyPolicy.RateLimit limits = policyStore.get().getRateLimit();
 
         requestTrackers.entrySet().removeIf(entry -> {
             RequestTracker tracker = entry.getValue();
-            if (tracker.getLastRequestTime() < now - (config.getDuration() * 2000L) &&
+            if (tracker.getLastRequestTime() < now - limits.getIdleMillis() &&
                     tracker.getViolations() == 0) {
+                evicted[0]++;
                 return true;
             }
 
-            tracker.cleanup(config.getDuration() * 1000L);
+            tracker.cleanup(limits.getWindowMillis());
             return false;
         });
 
-        blockedIps.entrySet().removeIf(entry -> {
-            boolean shouldRemove = now > entry.getValue();
-            if (shouldRemove && config.isBlockWithFirewall()) {
-                firewallManager.unblockIp(entry.getKey());
+        evicted[0] += blockedIps.removeExpired(now, block -> {
+            recordTransition(block.getIp(), false, "expired", 0);
+            if (config.isBlockWithFirewall()) {
+                scheduler.executeOrRetry("firewall unblock", () -> firewallManager.unblockIp(block.getIp()));
             }
-            return shouldRemove;
         });
+
+        metrics.recordRateLimiterCleanup(System.nanoTime() - started, evicted[0]);
     }
 
     public void manuallyBlockIp(String ip, long durationMillis) {
         long unblockTime = System.currentTimeMillis() + durationMillis;
-        blockedIps.put(ip, unblockTime);
+        blockedIps.block(ip, unblockTime, "manual");
+        recordTransition(ip, true, "manual", durationMillis);
         log.warn("IP {} manually blocked for {} milliseconds", ip, durationMillis);
 
         if (config.isBlockWithFirewall()) {
             firewallManager.blockIp(ip);
-
-            Thread unblockThread = new Thread(() -> {
-                try {
-                    Thread.sleep(durationMillis);
-                    firewallManager.unblockIp(ip);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            });
-            unblockThread.setDaemon(true);
-            unblockThread.start();
+            scheduleFirewallUnblock(ip, durationMillis);
         }
     }
 
     public void manuallyUnblockIp(String ip) {
-        blockedIps.remove(ip);
+        if (blockedIps.remove(ip) != null) {
+            recordTransition(ip, false, "manual", 0);
+        }
         log.info("IP {} manually unblocked", ip);
 
         if (config.isBlockWithFirewall()) {
@@ -174,8 +201,40 @@ public class RateLimiter {
         }
     }
 
-    public Map<String, Object> getBlockedIpsWithExpiryTime() {
-        return new HashMap<>(blockedIps);
+    public int getBlockedCount() {
+        return blockedIps.size();
+    }
+
+    public BlockTable getBlockedIps() {
+        return blockedIps;
+    }
+
+    private void scheduleFirewallUnblock(String ip, long delayMillis) {
+        scheduler.scheduleIo("firewall unblock", () -> firewallManager.unblockIp(ip), delayMillis);
+    }
+
+    private void recordTransition(String ip, boolean blocked, String reason, long durationMillis) {
+        if (!blocked) {
+            notificationService.sendUnblockNotification(ip, reason);
+        } else if ("manual".equals(reason)) {
+            notificationService.sendManualBlockNotification(ip, durationMillis);
+        }
+
+        boolean manual = "manual".equals(reason);
+        if (blocked) {
+            auditLog.record(manual ? AuditEventType.MANUAL_BLOCK : AuditEventType.RATE_LIMIT_BLOCK, ip, null, durationMillis);
+        } else {
+            auditLog.record(manual ? AuditEventType.MANUAL_UNBLOCK : AuditEventType.BLOCK_EXPIRED, ip, null, 0);
+        }
+
+        BlockTransitionEvent event = new BlockTransitionEvent();
+        if (event.shouldCommit()) {
+            event.ip = ip;
+            event.blocked = blocked;
+            event.reason = reason;
+            event.blockDuration = durationMillis;
+            event.commit();
+        }
     }
 
     private static class RequestTracker {
@@ -183,6 +242,7 @@ public class RateLimiter {
         private int violations = 0;
         private long lastRequestTime = 0;
         private long windowStart;
+        private ShadowPolicies.KeyState shadowState;
 
         public void addRequest(long windowDurationMillis) {
             long now = System.currentTimeMillis();
@@ -0,0 +1,42 @@
+package net.jirayu.fortify.ratelimit;
+
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double tokensPerMinute) {
+        this.capacity = Math.max(1, capacity);
+        this.tokensPerNano = Math.max(0, tokensPerMinute) / 60_000_000_000.0;
+        this.tokens = this.capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryConsume() {
+        refill(System.nanoTime());
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized long getSecondsUntilAvailable() {
+        refill(System.nanoTime());
+        if (tokens >= 1 || tokensPerNano == 0) {
+            return tokens >= 1 ? 0 : Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000_000.0);
+    }
+
+    public synchronized boolean isFull() {
+        refill(System.nanoTime());
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,309 @@
+package net.jirayu.fortify.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import net.jirayu.fortify.config.SchedulerConfig;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class FortifyScheduler {
+    private static final Logger log = LoggerFactory.getLogger(FortifyScheduler.class);
+    private static final String[] EXECUTORS = {"scheduler", "io"};
+    private static final long RETRY_DELAY = 100;
+    private static final long MAX_RETRY_DELAY = 5000;
+
+    private final SchedulerConfig config;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ThreadPoolExecutor io;
+    private final ThreadPoolExecutor overflow;
+    private final ThreadFactory workerFactory;
+    private final boolean virtual;
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+    private final List<ThreadPoolExecutor> dedicated = new CopyOnWriteArrayList<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger retrying = new AtomicInteger();
+
+    public FortifyScheduler(SchedulerConfig config, FortifyMetrics metrics) {
+        this.config = config;
+
+        ThreadFactory virtualFactory = config.isVirtualThreads() ? virtualThreadFactory("fortify-io-") : null;
+        this.virtual = virtualFactory != null;
+        this.workerFactory = virtual ? virtualFactory : platformThreadFactory("fortify-worker-");
+
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, config.getSchedulerThreads()),
+                platformThreadFactory("fortify-scheduler-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        int ioThreads = Math.max(1, config.getIoThreads());
+        this.io = new ThreadPoolExecutor(ioThreads, ioThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getIoQueueSize())),
+                virtual ? virtualFactory : platformThreadFactory("fortify-io-"));
+        io.allowCoreThreadTimeOut(true);
+
+        this.overflow = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getIoQueueSize())),
+                virtual ? virtualThreadFactory("fortify-io-overflow-") : platformThreadFactory("fortify-io-overflow-"));
+        overflow.allowCoreThreadTimeOut(true);
+        dedicated.add(overflow);
+
+        metrics.gauge("fortify_executor_queue_depth", "Tasks waiting in Fortify executors", "executor", EXECUTORS,
+                index -> index == 0 ? scheduler.getQueue().size() : io.getQueue().size());
+        metrics.gauge("fortify_executor_active_threads", "Threads running Fortify tasks", "executor", EXECUTORS,
+                index -> index == 0 ? scheduler.getActiveCount() : io.getActiveCount());
+        metrics.gauge("fortify_executor_workers", "Long-running Fortify worker threads", workers::size);
+
+        log.info("Fortify scheduler started: {} scheduler thread(s), {} {} I/O thread(s), queue {}",
+                scheduler.getCorePoolSize(), ioThreads, virtual ? "virtual" : "platform", config.getIoQueueSize());
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(String name, Runnable task, long initialDelayMillis,
+                                                     long delayMillis) {
+        return scheduler.scheduleWithFixedDelay(guard(name, task), Math.max(0, initialDelayMillis),
+                Math.max(1, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public ScheduledFuture<?> schedule(String name, Runnable task, long delayMillis) {
+        return scheduler.schedule(guard(name, task), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    // Periodic blocking work: the scheduler thread only hands each run to the I/O executor, and skips a tick while
+    // the previous run is still going or the executor rejects it.
+    public ScheduledFuture<?> scheduleIoWithFixedDelay(String name, Runnable task, long initialDelayMillis,
+                                                       long delayMillis) {
+        AtomicBoolean running = new AtomicBoolean();
+        Runnable run = () -> {
+            try {
+                task.run();
+            } finally {
+                running.set(false);
+            }
+        };
+        return scheduleWithFixedDelay(name, () -> {
+            if (!running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                execute(name, run);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }, initialDelayMillis, delayMillis);
+    }
+
+    public ScheduledFuture<?> scheduleIo(String name, Runnable task, long delayMillis) {
+        return scheduler.schedule(() -> executeOrRetry(name, task), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    // For work that must not be dropped, such as firewall unblocks. When the I/O executor is full the task goes to a
+    // single-thread overflow lane, so it neither waits behind nor holds up periodic I/O; only when that is full too
+    // is it retried with backoff.
+    public void executeOrRetry(String name, Runnable task) {
+        if (!offer(name, task)) {
+            if (retrying.getAndIncrement() == 0) {
+                log.warn("I/O executors saturated, retrying {} later", name);
+            }
+            retry(name, task, RETRY_DELAY);
+        }
+    }
+
+    public void execute(String name, Runnable task) {
+        try {
+            io.execute(guard(name, task));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean offer(String name, Runnable task) {
+        Runnable guarded = guard(name, task);
+        try {
+            io.execute(guarded);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+        }
+        try {
+            overflow.execute(guarded);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void retry(String name, Runnable task, long delayMillis) {
+        try {
+            scheduler.schedule(() -> {
+                if (offer(name, task)) {
+                    retrying.decrementAndGet();
+                } else {
+                    retry(name, task, Math.min(MAX_RETRY_DELAY, delayMillis * 2));
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            retrying.decrementAndGet();
+            log.warn("Fortify scheduler is shut down, running {} on the calling thread", name);
+            guard(name, task).run();
+        }
+    }
+
+    public ExecutorService newExecutor(String prefix, int threads) {
+        ThreadFactory factory = virtual ? virtualThreadFactory(prefix) : null;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), factory != null ? factory : platformThreadFactory(prefix));
+        executor.allowCoreThreadTimeOut(true);
+        dedicated.add(executor);
+        return executor;
+    }
+
+    public Thread startWorker(String name, Runnable task) {
+        Thread[] holder = new Thread[1];
+        Thread thread = workerFactory.newThread(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Worker {} stopped unexpectedly", name, e);
+            } finally {
+                workers.remove(holder[0]);
+            }
+        });
+        holder[0] = thread;
+        thread.setName(name);
+        workers.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtual;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getShutdownTimeout()));
+
+        scheduler.shutdown();
+        io.shutdown();
+        for (ThreadPoolExecutor executor : dedicated) {
+            executor.shutdown();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+
+        try {
+            scheduler.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS);
+            io.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS);
+            for (ThreadPoolExecutor executor : dedicated) {
+                executor.awaitTermination(remaining(deadline), TimeUnit.NANOSECONDS);
+            }
+            for (Thread worker : workers) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(remaining(deadline));
+                if (millis > 0) {
+                    worker.join(millis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int abandoned = scheduler.shutdownNow().size() + io.shutdownNow().size();
+        for (ThreadPoolExecutor executor : dedicated) {
+            abandoned += executor.shutdownNow().size();
+        }
+        if (abandoned > 0 || !workers.isEmpty()) {
+            log.warn("Fortify scheduler stopped with {} pending task(s) and {} running worker(s)",
+                    abandoned, workers.size());
+        }
+    }
+
+    public Map<String, Object> getInfo() {
+        Map<String, Object> schedulerInfo = new HashMap<>();
+        schedulerInfo.put("threads", scheduler.getPoolSize());
+        schedulerInfo.put("active", scheduler.getActiveCount());
+        schedulerInfo.put("queued", scheduler.getQueue().size());
+        schedulerInfo.put("completed", scheduler.getCompletedTaskCount());
+
+        Map<String, Object> ioInfo = new HashMap<>();
+        ioInfo.put("virtualThreads", virtual);
+        ioInfo.put("threads", io.getPoolSize());
+        ioInfo.put("maxThreads", io.getMaximumPoolSize());
+        ioInfo.put("active", io.getActiveCount());
+        ioInfo.put("queued", io.getQueue().size());
+        ioInfo.put("queueCapacity", io.getQueue().size() + io.getQueue().remainingCapacity());
+        ioInfo.put("completed", io.getCompletedTaskCount());
+        ioInfo.put("rejected", rejected.get());
+        ioInfo.put("overflowQueued", overflow.getQueue().size());
+        ioInfo.put("retrying", retrying.get());
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("scheduler", schedulerInfo);
+        info.put("io", ioInfo);
+        info.put("workers", workers.size());
+        info.put("failedTasks", failed.get());
+        return info;
+    }
+
+    private Runnable guard(String name, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Error running {}", name, e);
+            }
+        };
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private static ThreadFactory platformThreadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        if (Runtime.version().feature() < 21) {
+            return null;
+        }
+
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Virtual threads unavailable, using platform threads: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package net.jirayu.fortify.session;
+
+import dev.arbjerg.lavalink.api.ISocketContext;
+import net.jirayu.fortify.config.ApiConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SessionRegistry {
+    private final ApiConfig apiConfig;
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<String>> sessionsByPlayers = new ConcurrentHashMap<>();
+    private volatile SessionSnapshot snapshot = SessionSnapshot.EMPTY;
+
+    public SessionRegistry(ApiConfig apiConfig) {
+        this.apiConfig = apiConfig;
+    }
+
+    public void register(ISocketContext context, boolean allowed, boolean resumed, int players) {
+        Entry entry = new Entry(context, allowed, resumed, System.currentTimeMillis());
+        entry.players = players;
+        Entry previous = sessions.put(context.getSessionId(), entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+
+        sessionsByUser.compute(entry.userId, (userId, userSessions) -> {
+            if (userSessions == null) {
+                userSessions = ConcurrentHashMap.newKeySet();
+            }
+            userSessions.add(entry.sessionId);
+            return userSessions;
+        });
+        synchronized (entry) {
+            addToPlayerIndex(entry.players, entry.sessionId);
+        }
+    }
+
+    public void unregister(String sessionId) {
+        Entry entry = sessions.remove(sessionId);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+
+    public void updatePlayers(String sessionId, int players) {
+        Entry entry = sessions.get(sessionId);
+        if (entry == null) {
+            return;
+        }
+
+        synchronized (entry) {
+            if (entry.removed || entry.players == players) {
+                return;
+            }
+            removeFromPlayerIndex(entry.players, sessionId);
+            entry.players = players;
+            addToPlayerIndex(players, sessionId);
+        }
+    }
+
+    public ISocketContext getContext(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        return entry != null ? entry.context : null;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getSessionCount(long userId) {
+        Set<String> userSessions = sessionsByUser.get(userId);
+        return userSessions != null ? userSessions.size() : 0;
+    }
+
+    public SessionSnapshot getSnapshot() {
+        SessionSnapshot current = snapshot;
+        if (System.currentTimeMillis() - current.getCreatedAt() < apiConfig.getStatusRefreshInterval()) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = snapshot;
+            if (System.currentTimeMillis() - current.getCreatedAt() < apiConfig.getStatusRefreshInterval()) {
+                return current;
+            }
+            current = buildSnapshot();
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private SessionSnapshot buildSnapshot() {
+        List<SessionSnapshot.Summary> summaries = new ArrayList<>(sessions.size());
+        Map<Long, List<SessionSnapshot.Summary>> byUser = new HashMap<>();
+
+        List<Integer> playerCounts = new ArrayList<>(sessionsByPlayers.keySet());
+        playerCounts.sort(Collections.reverseOrder());
+
+        for (Integer players : playerCounts) {
+            Set<String> bucket = sessionsByPlayers.get(players);
+            if (bucket == null) {
+                continue;
+            }
+
+            for (String sessionId : bucket) {
+                Entry entry = sessions.get(sessionId);
+                if (entry == null) {
+                    continue;
+                }
+
+                SessionSnapshot.Summary summary = new SessionSnapshot.Summary(entry.sessionId, entry.userId,
+                        players, entry.allowed, entry.resumed, entry.connectedAt);
+                summaries.add(summary);
+                byUser.computeIfAbsent(entry.userId, k -> new ArrayList<>()).add(summary);
+            }
+        }
+
+        return new SessionSnapshot(System.currentTimeMillis(), summaries, byUser);
+    }
+
+    private void unindex(Entry entry) {
+        sessionsByUser.computeIfPresent(entry.userId, (userId, userSessions) -> {
+            userSessions.remove(entry.sessionId);
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+
+        synchronized (entry) {
+            entry.removed = true;
+            removeFromPlayerIndex(entry.players, entry.sessionId);
+        }
+    }
+
+    private void addToPlayerIndex(int players, String sessionId) {
+        sessionsByPlayers.compute(players, (k, bucket) -> {
+            if (bucket == null) {
+                bucket = ConcurrentHashMap.newKeySet();
+            }
+            bucket.add(sessionId);
+            return bucket;
+        });
+    }
+
+    private void removeFromPlayerIndex(int players, String sessionId) {
+        sessionsByPlayers.computeIfPresent(players, (k, bucket) -> {
+            bucket.remove(sessionId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private static class Entry {
+        private final ISocketContext context;
+        private final String sessionId;
+        private final long userId;
+        private final boolean allowed;
+        private final boolean resumed;
+        private final long connectedAt;
+        private int players;
+        private boolean removed;
+
+        Entry(ISocketContext context, boolean allowed, boolean resumed, long connectedAt) {
+            this.context = context;
+            this.sessionId = context.getSessionId();
+            this.userId = context.getUserId();
+            this.allowed = allowed;
+            this.resumed = resumed;
+            this.connectedAt = connectedAt;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.jirayu.fortify.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SessionSnapshot {
+    public static final SessionSnapshot EMPTY = new SessionSnapshot(0, Collections.emptyList(), Collections.emptyMap());
+
+    private final long createdAt;
+    private final Summary[] sessions;
+    private final Map<Long, Summary[]> sessionsByUser;
+    private final long totalPlayers;
+
+    SessionSnapshot(long createdAt, List<Summary> sessions, Map<Long, List<Summary>> sessionsByUser) {
+        this.createdAt = createdAt;
+        this.sessions = sessions.toArray(new Summary[0]);
+        this.sessionsByUser = new HashMap<>();
+        for (Map.Entry<Long, List<Summary>> entry : sessionsByUser.entrySet()) {
+            this.sessionsByUser.put(entry.getKey(), entry.getValue().toArray(new Summary[0]));
+        }
+
+        long players = 0;
+        for (Summary summary : this.sessions) {
+            players += summary.players;
+        }
+        this.totalPlayers = players;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getSessionCount() {
+        return sessions.length;
+    }
+
+    public int getUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public long getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    public Map<String, Object> page(int offset, int limit, Long userId, int minPlayers) {
+        Summary[] source = sessions;
+        if (userId != null) {
+            source = sessionsByUser.getOrDefault(userId, new Summary[0]);
+        }
+
+        int matched = countWithAtLeast(source, minPlayers);
+        int from = Math.min(Math.max(0, offset), matched);
+        int to = Math.min(matched, from + Math.max(0, limit));
+
+        List<Map<String, Object>> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            items.add(source[i].toMap());
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("total", sessions.length);
+        page.put("users", sessionsByUser.size());
+        page.put("players", totalPlayers);
+        page.put("matched", matched);
+        page.put("offset", from);
+        page.put("limit", limit);
+        page.put("snapshotAt", createdAt);
+        page.put("sessions", items);
+        return page;
+    }
+
+    // Sessions are ordered by player count descending, so the matches form a prefix.
+    private static int countWithAtLeast(Summary[] source, int minPlayers) {
+        int low = 0;
+        int high = source.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (source[mid].players >= minPlayers) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static class Summary {
+        private final String sessionId;
+        private final long userId;
+        private final int players;
+        private final boolean allowed;
+        private final boolean resumed;
+        private final long connectedAt;
+
+        Summary(String sessionId, long userId, int players, boolean allowed, boolean resumed, long connectedAt) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.players = players;
+            this.allowed = allowed;
+            this.resumed = resumed;
+            this.connectedAt = connectedAt;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("sessionId", sessionId);
+            map.put("userId", userId);
+            map.put("players", players);
+            map.put("isAllowed", allowed);
+            map.put("resumed", resumed);
+            map.put("connectedAt", connectedAt);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.jirayu.fortify;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.jirayu.fortify.config.ProxyConfig;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FortifyToolsTest {
+    @Test
+    void ignoresHeaderUnlessProxyIsTrusted() {
+        ProxyConfig config = new ProxyConfig();
+
+        assertEquals("10.0.0.1", FortifyTools.getIp(request("10.0.0.1", "203.0.113.7"), config));
+        assertEquals("2001:db8::1", FortifyTools.getIp(request("2001:DB8:0:0:0:0:0:1"), config));
+    }
+
+    @Test
+    void usesRightmostHopWithoutTrustedProxies() {
+        ProxyConfig config = new ProxyConfig();
+        config.setTrustProxy(true);
+
+        assertEquals("203.0.113.7", FortifyTools.getIp(request("10.0.0.1", "203.0.113.7"), config));
+        assertEquals("203.0.113.7", FortifyTools.getIp(request("10.0.0.1", "198.51.100.1, 203.0.113.7"), config));
+        assertEquals("10.0.0.1", FortifyTools.getIp(request("10.0.0.1"), config));
+        assertEquals("10.0.0.1", FortifyTools.getIp(request("10.0.0.1", "garbage"), config));
+    }
+
+    @Test
+    void walksTrustedChain() {
+        ProxyConfig config = new ProxyConfig();
+        config.setTrustProxy(true);
+        config.setTrustedProxies(new String[]{"10.0.0.0/8", "192.0.2.0/24"});
+
+        assertEquals("203.0.113.7",
+                FortifyTools.getIp(request("10.0.0.1", "198.51.100.1, 203.0.113.7, 192.0.2.10"), config));
+        assertEquals("198.51.100.1", FortifyTools.getIp(request("198.51.100.1", "203.0.113.7"), config));
+        assertEquals("192.0.2.10", FortifyTools.getIp(request("10.0.0.1", "192.0.2.10"), config));
+    }
+
+    @Test
+    void readsRepeatedHeadersAsOneList() {
+        ProxyConfig config = new ProxyConfig();
+        config.setTrustProxy(true);
+        config.setTrustedProxies(new String[]{"10.0.0.0/8"});
+
+        assertEquals("203.0.113.7", FortifyTools.getIp(request("10.0.0.1", "198.51.100.1", "203.0.113.7, 10.0.0.5"),
+                config));
+        assertEquals("198.51.100.1", FortifyTools.getIp(request("10.0.0.1", "198.51.100.1", "10.0.0.5"), config));
+    }
+
+    @Test
+    void parsesForwardedHeader() {
+        ProxyConfig config = new ProxyConfig();
+        config.setTrustProxy(true);
+        config.setProxyHeader("Forwarded");
+        config.setTrustedProxies(new String[]{"10.0.0.0/8"});
+
+        assertEquals("2001:db8::7", FortifyTools.getIp(
+                request("10.0.0.1", "for=\"[2001:db8::7]:4711\";proto=https, for=10.0.0.5"), config));
+    }
+
+    private static HttpServletRequest request(String remoteAddr, String... headers) {
+        List<String> values = List.of(headers);
+        return (HttpServletRequest) Proxy.newProxyInstance(FortifyToolsTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRemoteAddr":
+                            return remoteAddr;
+                        case "getHeaders":
+                            return Collections.enumeration(values);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,88 @@
+package net.jirayu.fortify.audit;
+
+import net.jirayu.fortify.config.AuditConfig;
+import net.jirayu.fortify.config.MetricsConfig;
+import net.jirayu.fortify.config.SchedulerConfig;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogTest {
+    @TempDir
+    Path dir;
+
+    private FortifyScheduler scheduler;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnabled(false);
+        scheduler = new FortifyScheduler(new SchedulerConfig(), new FortifyMetrics(metricsConfig));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.shutdown();
+        }
+        scheduler.shutdown();
+    }
+
+    @Test
+    void writesAndQueriesRecords() throws Exception {
+        auditLog = auditLog(dir.resolve("audit/fortify-audit.bin"));
+        auditLog.record(AuditEventType.values()[0], "2001:db8::1", "first", 1);
+        auditLog.record(AuditEventType.values()[0], "203.0.113.7", "second", 2);
+
+        List<AuditRecord> records = auditLog.query(new AuditReader.Filter(null, null, null, null), 10);
+        assertEquals(2, records.size());
+        assertEquals(2L, auditLog.getInfo().get("written"));
+    }
+
+    @Test
+    void keepsRecordsQueuedWhileTheLogCannotBeOpened() throws Exception {
+        Path blocker = Files.writeString(dir.resolve("blocker"), "not a directory");
+        auditLog = auditLog(blocker.resolve("fortify-audit.bin"));
+
+        for (int i = 0; i < 50; i++) {
+            auditLog.record(AuditEventType.values()[0], "203.0.113.7", "record " + i, i);
+        }
+        Thread.sleep(200);
+
+        assertEquals(50, auditLog.getInfo().get("pending"));
+        assertEquals(0L, auditLog.getInfo().get("written"));
+        assertEquals(0L, auditLog.getInfo().get("failed"));
+
+        Files.delete(blocker);
+        await(() -> (long) auditLog.getInfo().get("written") == 50);
+        assertEquals(0, auditLog.getInfo().get("pending"));
+    }
+
+    private AuditLog auditLog(Path path) {
+        AuditConfig config = new AuditConfig();
+        config.setEnabled(true);
+        config.setPath(path.toString());
+        config.setFlushInterval(20);
+        return new AuditLog(config, scheduler);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
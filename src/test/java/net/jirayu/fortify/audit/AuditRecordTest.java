@@ -0,0 +1,29 @@
+package net.jirayu.fortify.audit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditRecordTest {
+    @ParameterizedTest
+    @CsvSource({
+            "203.0.113.7, 203.0.113.7",
+            "::ffff:203.0.113.7, 203.0.113.7",
+            "2001:db8::1, 2001:db8::1",
+            "2001:DB8:0:0:0:0:0:1, 2001:db8::1",
+            "fe80:0:0:0:1:0:0:0, fe80::1:0:0:0"
+    })
+    void readsAddressesBackInCanonicalForm(String ip, String expected) {
+        ByteBuffer buffer = ByteBuffer.allocate(AuditRecord.SIZE);
+        new AuditRecord(1700000000000L, AuditEventType.values()[0], ip, "detail", 42).writeTo(buffer);
+        buffer.flip();
+
+        AuditRecord record = AuditRecord.readFrom(buffer);
+        assertEquals(expected, record.getIp());
+        assertEquals("detail", record.getDetail());
+        assertEquals(42, record.getValue());
+    }
+}
@@ -0,0 +1,86 @@
+package net.jirayu.fortify.geoip;
+
+import net.jirayu.fortify.config.GeoIpConfig;
+import net.jirayu.fortify.config.MetricsConfig;
+import net.jirayu.fortify.config.SchedulerConfig;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import net.jirayu.fortify.scheduler.FortifyScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GeoIpServiceTest {
+    @TempDir
+    Path dir;
+
+    private FortifyScheduler scheduler;
+    private GeoIpService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GeoIpConfig config = new GeoIpConfig();
+        config.setEnabled(true);
+        config.setCountryDatabase(MaxMindDatabaseTest.countryFixture(dir.resolve("country.mmdb"), 24, 0).toString());
+        config.setAsnDatabase(MaxMindDatabaseTest.asnFixture(dir.resolve("asn.mmdb"), 6).toString());
+        config.setCacheSize(64);
+
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnabled(false);
+        scheduler = new FortifyScheduler(new SchedulerConfig(), new FortifyMetrics(metricsConfig));
+        service = new GeoIpService(config, null, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void resolvesCountryAndAsn() {
+        GeoIpResult result = service.lookup("198.51.100.7");
+        assertNull(result.getCountry());
+        assertEquals(4200000000L, result.getAsn());
+        assertEquals("Example Networks International Backbone", result.getAsnOrganization());
+
+        assertEquals("DE", service.lookup("1.2.3.4").getCountry());
+        assertEquals("JP", service.lookup("2001:db8::1").getCountry());
+    }
+
+    @Test
+    void resolvesIpv4MappedAddressesAsIpv4() {
+        GeoIpResult result = service.lookup("::ffff:1.2.3.4");
+
+        assertEquals("DE", result.getCountry());
+        assertEquals("::ffff:1.2.3.4", result.getIp());
+    }
+
+    @Test
+    void cachesLookupsPerAddress() {
+        GeoIpResult first = service.lookup("1.2.3.4");
+        assertSame(first, service.lookup("1.2.3.4"));
+
+        GeoIpResult neighbour = service.lookup("1.2.3.5");
+        assertNotSame(first, neighbour);
+        assertEquals("DE", neighbour.getCountry());
+        assertSame(neighbour, service.lookup("1.2.3.5"));
+    }
+
+    @Test
+    void cachesMisses() {
+        GeoIpResult miss = service.lookup("8.8.8.8");
+
+        assertNull(miss.getCountry());
+        assertEquals(-1, miss.getAsn());
+        assertSame(miss, service.lookup("8.8.8.8"));
+        assertSame(GeoIpResult.UNKNOWN, service.lookup("not-an-ip"));
+    }
+}
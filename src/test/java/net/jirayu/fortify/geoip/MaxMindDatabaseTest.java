@@ -0,0 +1,140 @@
+package net.jirayu.fortify.geoip;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static net.jirayu.fortify.geoip.MmdbWriter.map;
+import static net.jirayu.fortify.geoip.MmdbWriter.pointer;
+import static net.jirayu.fortify.geoip.MmdbWriter.uint;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaxMindDatabaseTest {
+    private static final byte[][] COUNTRY = MaxMindDatabase.path("country", "iso_code");
+    private static final byte[][] REGISTERED_COUNTRY = MaxMindDatabase.path("registered_country", "iso_code");
+    private static final byte[][] ASN = MaxMindDatabase.path("autonomous_system_number");
+    private static final byte[][] ORGANIZATION = MaxMindDatabase.path("autonomous_system_organization");
+    private static final byte[][] OFFSET = MaxMindDatabase.path("offset");
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {24, 28, 32})
+    void readsEveryRecordSize(int recordSize) throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(countryFixture(dir.resolve("country.mmdb"), recordSize, 4096));
+
+        assertEquals("Fortify-Test-Country", database.getDatabaseType());
+        assertEquals(1700000000L, database.getBuildEpoch());
+        assertEquals(List.of("en"), database.getMetadata().get("languages"));
+
+        assertEquals("DE", database.readString(find(database, "1.2.3.4"), COUNTRY));
+        assertEquals("DE", database.readString(find(database, "1.2.3.255"), COUNTRY));
+        assertEquals("JP", database.readString(find(database, "2001:db8::1"), REGISTERED_COUNTRY));
+        assertNull(database.readString(find(database, "2001:db8::1"), COUNTRY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {28, 32})
+    void followsRecordsAndPointersBeyond24Bits(int recordSize) throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(countryFixture(dir.resolve("large.mmdb"), recordSize, 1 << 24));
+
+        assertEquals("DE", database.readString(find(database, "1.2.3.4"), COUNTRY));
+        assertEquals("JP", database.readString(find(database, "2001:db8::1"), REGISTERED_COUNTRY));
+    }
+
+    @Test
+    void looksUpIpv4ThroughIpv6Tree() throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(countryFixture(dir.resolve("country.mmdb"), 24, 0));
+
+        int viaIpv4 = find(database, "1.2.3.4");
+        assertTrue(viaIpv4 >= 0);
+        assertEquals(viaIpv4, database.findRecord(InetAddress.getByName("::1.2.3.4").getAddress()));
+    }
+
+    @Test
+    void missesReturnNothing() throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(countryFixture(dir.resolve("country.mmdb"), 24, 0));
+
+        int record = find(database, "8.8.8.8");
+        assertEquals(-1, record);
+        assertEquals(-1, find(database, "1.2.4.1"));
+        assertEquals(-1, find(database, "2001:db9::1"));
+        assertNull(database.readString(record, COUNTRY));
+        assertEquals(-1, database.readLong(record, ASN));
+        assertNull(database.readString(find(database, "1.2.3.4"), MaxMindDatabase.path("city", "iso_code")));
+    }
+
+    @Test
+    void decodesExtendedTypes() throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(asnFixture(dir.resolve("asn.mmdb"), 4));
+
+        int record = find(database, "198.51.100.7");
+        assertEquals(4200000000L, database.readLong(record, ASN));
+        assertEquals("Example Networks International Backbone", database.readString(record, ORGANIZATION));
+        assertEquals(-5, database.readLong(record, OFFSET));
+    }
+
+    @Test
+    void ipv4DatabaseRejectsIpv6Addresses() throws IOException {
+        MaxMindDatabase database = MaxMindDatabase.open(asnFixture(dir.resolve("asn.mmdb"), 4));
+
+        assertEquals(-1, find(database, "2001:db8::1"));
+        assertEquals(-1, find(database, "198.51.101.1"));
+    }
+
+    @Test
+    void rejectsFilesWithoutMetadata() throws IOException {
+        Path file = Files.write(dir.resolve("broken.mmdb"), new byte[1024]);
+
+        assertThrows(IOException.class, () -> MaxMindDatabase.open(file));
+    }
+
+    static Path countryFixture(Path file, int recordSize, int padding) throws IOException {
+        MmdbWriter writer = new MmdbWriter(recordSize, 6);
+        int countryKey = writer.add("country");
+        int isoCodeKey = writer.add("iso_code");
+        if (padding > 0) {
+            writer.add(new byte[padding]);
+        }
+
+        // Keys before the padding use short pointers, values after it use the longer forms.
+        int germany = writer.add("DE");
+        int isoCodeMap = writer.add(map(pointer(isoCodeKey), pointer(germany)));
+        int german = writer.add(map(pointer(countryKey), pointer(isoCodeMap)));
+        int japanese = writer.add(map("registered_country", map(pointer(isoCodeKey), "JP")));
+
+        writer.insert("1.2.3.0/24", german);
+        writer.insert("2001:db8::/32", japanese);
+        return writer.write(file, "Fortify-Test-Country");
+    }
+
+    static Path asnFixture(Path file, int ipVersion) throws IOException {
+        MmdbWriter writer = new MmdbWriter(24, ipVersion);
+        int record = writer.add(map(
+                "tags", List.of("transit", true, uint(MmdbWriter.TYPE_UINT32, 7)),
+                "anycast", false,
+                "weight", 0.5,
+                "offset", -5,
+                "autonomous_system_number", uint(MmdbWriter.TYPE_UINT64, 4200000000L),
+                "autonomous_system_organization", "Example Networks International Backbone"));
+
+        writer.insert("198.51.100.0/24", record);
+        return writer.write(file, "Fortify-Test-ASN");
+    }
+
+    private static int find(MaxMindDatabase database, String ip) throws IOException {
+        byte[] address = InetAddress.getByName(ip).getAddress();
+        return database.findRecord(address);
+    }
+}
@@ -0,0 +1,259 @@
+package net.jirayu.fortify.geoip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes small MaxMind DB files for tests, following the MaxMind DB format 2.0 spec.
+final class MmdbWriter {
+    static final int TYPE_STRING = 2;
+    static final int TYPE_DOUBLE = 3;
+    static final int TYPE_BYTES = 4;
+    static final int TYPE_UINT16 = 5;
+    static final int TYPE_UINT32 = 6;
+    static final int TYPE_MAP = 7;
+    static final int TYPE_INT32 = 8;
+    static final int TYPE_UINT64 = 9;
+    static final int TYPE_ARRAY = 11;
+    static final int TYPE_BOOLEAN = 14;
+
+    private static final byte[] METADATA_MARKER = {
+            (byte) 0xAB, (byte) 0xCD, (byte) 0xEF,
+            'M', 'a', 'x', 'M', 'i', 'n', 'd', '.', 'c', 'o', 'm'
+    };
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int recordSize;
+    private final int ipVersion;
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    private final List<int[]> nodes = new ArrayList<>();
+
+    MmdbWriter(int recordSize, int ipVersion) {
+        this.recordSize = recordSize;
+        this.ipVersion = ipVersion;
+        nodes.add(new int[]{EMPTY, EMPTY});
+    }
+
+    static Pointer pointer(int offset) {
+        return new Pointer(offset);
+    }
+
+    static Uint uint(int type, long value) {
+        return new Uint(type, value);
+    }
+
+    static Map<Object, Object> map(Object... entries) {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put(entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    // Appends a value to the data section and returns its offset, for records and pointers.
+    int add(Object value) {
+        int offset = data.size();
+        encode(data, value);
+        return offset;
+    }
+
+    void insert(String network, int offset) throws IOException {
+        int slash = network.indexOf('/');
+        byte[] address = InetAddress.getByName(network.substring(0, slash)).getAddress();
+        int prefix = Integer.parseInt(network.substring(slash + 1));
+        if (address.length == 4 && ipVersion == 6) {
+            byte[] mapped = new byte[16];
+            System.arraycopy(address, 0, mapped, 12, 4);
+            address = mapped;
+            prefix += 96;
+        }
+
+        int node = 0;
+        for (int i = 0; i < prefix; i++) {
+            int bit = (address[i >>> 3] >>> (7 - (i & 7))) & 1;
+            if (i == prefix - 1) {
+                nodes.get(node)[bit] = -1 - offset;
+                return;
+            }
+            int next = nodes.get(node)[bit];
+            if (next < 0) {
+                next = nodes.size();
+                nodes.add(new int[]{EMPTY, EMPTY});
+                nodes.get(node)[bit] = next;
+            }
+            node = next;
+        }
+    }
+
+    Path write(Path file, String databaseType) throws IOException {
+        int nodeCount = nodes.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int[] node : nodes) {
+            writeNode(out, record(node[0], nodeCount), record(node[1], nodeCount));
+        }
+        out.write(new byte[16]);
+        data.writeTo(out);
+        out.write(METADATA_MARKER);
+        encode(out, map(
+                "node_count", uint(TYPE_UINT32, nodeCount),
+                "record_size", uint(TYPE_UINT16, recordSize),
+                "ip_version", uint(TYPE_UINT16, ipVersion),
+                "database_type", databaseType,
+                "languages", List.of("en"),
+                "binary_format_major_version", uint(TYPE_UINT16, 2),
+                "binary_format_minor_version", uint(TYPE_UINT16, 0),
+                "build_epoch", uint(TYPE_UINT64, 1700000000L),
+                "description", map("en", "Fortify test fixture")));
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static long record(int value, int nodeCount) {
+        if (value == EMPTY) {
+            return nodeCount;
+        }
+        if (value < 0) {
+            return (long) nodeCount + 16 + (-1 - value);
+        }
+        return value;
+    }
+
+    private void writeNode(ByteArrayOutputStream out, long left, long right) {
+        if (Math.max(left, right) >= 1L << recordSize) {
+            throw new IllegalStateException("Record does not fit in " + recordSize + " bits");
+        }
+
+        switch (recordSize) {
+            case 24:
+                writeUnsigned(out, left, 3);
+                writeUnsigned(out, right, 3);
+                break;
+            case 28:
+                writeUnsigned(out, left & 0xFFFFFF, 3);
+                out.write((int) (((left >>> 24) << 4) | (right >>> 24)));
+                writeUnsigned(out, right & 0xFFFFFF, 3);
+                break;
+            default:
+                writeUnsigned(out, left, 4);
+                writeUnsigned(out, right, 4);
+                break;
+        }
+    }
+
+    private static void encode(ByteArrayOutputStream out, Object value) {
+        if (value instanceof Pointer) {
+            writePointer(out, ((Pointer) value).offset);
+        } else if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            writeControl(out, TYPE_STRING, bytes.length);
+            out.writeBytes(bytes);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            writeControl(out, TYPE_BYTES, bytes.length);
+            out.writeBytes(bytes);
+        } else if (value instanceof Double) {
+            writeControl(out, TYPE_DOUBLE, 8);
+            out.writeBytes(ByteBuffer.allocate(8).putDouble((Double) value).array());
+        } else if (value instanceof Integer) {
+            writeControl(out, TYPE_INT32, 4);
+            writeUnsigned(out, (Integer) value & 0xFFFFFFFFL, 4);
+        } else if (value instanceof Uint) {
+            Uint uint = (Uint) value;
+            int length = (64 - Long.numberOfLeadingZeros(uint.value) + 7) / 8;
+            writeControl(out, uint.type, length);
+            writeUnsigned(out, uint.value, length);
+        } else if (value instanceof Boolean) {
+            writeControl(out, TYPE_BOOLEAN, (Boolean) value ? 1 : 0);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeControl(out, TYPE_MAP, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                encode(out, entry.getKey());
+                encode(out, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writeControl(out, TYPE_ARRAY, list.size());
+            for (Object element : list) {
+                encode(out, element);
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot encode " + value);
+        }
+    }
+
+    private static void writeControl(ByteArrayOutputStream out, int type, int size) {
+        int control = type <= 7 ? type << 5 : 0;
+        if (size < 29) {
+            out.write(control | size);
+        } else if (size < 285) {
+            out.write(control | 29);
+        } else if (size < 65821) {
+            out.write(control | 30);
+        } else {
+            out.write(control | 31);
+        }
+
+        if (type > 7) {
+            out.write(type - 7);
+        }
+
+        if (size >= 65821) {
+            writeUnsigned(out, size - 65821, 3);
+        } else if (size >= 285) {
+            writeUnsigned(out, size - 285, 2);
+        } else if (size >= 29) {
+            out.write(size - 29);
+        }
+    }
+
+    private static void writePointer(ByteArrayOutputStream out, int offset) {
+        if (offset < 2048) {
+            out.write(0x20 | (offset >>> 8));
+            out.write(offset & 0xFF);
+        } else if (offset < 526336) {
+            int value = offset - 2048;
+            out.write(0x28 | (value >>> 16));
+            writeUnsigned(out, value & 0xFFFF, 2);
+        } else if (offset < 134744064) {
+            int value = offset - 526336;
+            out.write(0x30 | (value >>> 24));
+            writeUnsigned(out, value & 0xFFFFFF, 3);
+        } else {
+            out.write(0x38);
+            writeUnsigned(out, offset, 4);
+        }
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            out.write((int) (value >>> (i * 8)) & 0xFF);
+        }
+    }
+
+    static final class Pointer {
+        private final int offset;
+
+        private Pointer(int offset) {
+            this.offset = offset;
+        }
+    }
+
+    static final class Uint {
+        private final int type;
+        private final long value;
+
+        private Uint(int type, long value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
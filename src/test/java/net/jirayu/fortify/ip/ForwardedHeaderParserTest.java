@@ -0,0 +1,102 @@
+package net.jirayu.fortify.ip;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForwardedHeaderParserTest {
+    private static final String PEER = "10.0.0.2";
+    private static final IpIntervalSet TRUSTED = trusted("10.0.0.0/8", "2001:db8:ffff::/48");
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "203.0.113.7                                | 203.0.113.7",
+            "203.0.113.7:4711                           | 203.0.113.7",
+            "  203.0.113.7  ,                           | 203.0.113.7",
+            "2001:db8::7                                | 2001:db8::7",
+            "2001:DB8:0::7                              | 2001:db8::7",
+            "[2001:db8::7]                              | 2001:db8::7",
+            "[2001:db8::7]:4711                         | 2001:db8::7",
+            "::ffff:203.0.113.7                         | 203.0.113.7",
+            "198.51.100.1, 203.0.113.7                  | 203.0.113.7",
+            "198.51.100.1, 203.0.113.7, 10.0.0.1        | 203.0.113.7",
+            "203.0.113.7, 10.1.2.3, 10.0.0.1            | 203.0.113.7",
+            "203.0.113.7, 2001:db8:ffff::1, 10.0.0.1    | 203.0.113.7"
+    })
+    void walksForwardedForFromTheRight(String header, String expected) {
+        assertEquals(expected, walk(header, false, TRUSTED));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "for=203.0.113.7                                         | 203.0.113.7",
+            "For=203.0.113.7;proto=https                             | 203.0.113.7",
+            "proto=https;by=10.0.0.1;for=203.0.113.7                 | 203.0.113.7",
+            "for=\"203.0.113.7:4711\"                                | 203.0.113.7",
+            "for=\"[2001:db8::7]\"                                   | 2001:db8::7",
+            "for=\"[2001:db8::7]:4711\";proto=http                   | 2001:db8::7",
+            "for=198.51.100.1, for=203.0.113.7;by=10.0.0.1           | 203.0.113.7",
+            "for=203.0.113.7, for=10.0.0.1;host=\"a;b\"              | 203.0.113.7",
+            "for=203.0.113.7, for=\"[2001:db8:ffff::1]\", for=10.0.0.9 | 203.0.113.7"
+    })
+    void parsesRfc7239Elements(String header, String expected) {
+        assertEquals(expected, walk(header, true, TRUSTED));
+    }
+
+    @Test
+    void usesRightmostHopWithoutTrustedProxies() {
+        assertEquals("10.0.0.1", walk("203.0.113.7, 10.0.0.1", false, IpIntervalSet.EMPTY));
+        assertEquals("10.0.0.1", walk("for=203.0.113.7, for=10.0.0.1", true, IpIntervalSet.EMPTY));
+    }
+
+    @Test
+    void stopsAtMalformedHop() {
+        PackedIp result = new PackedIp();
+        result.parse(PEER);
+
+        assertTrue(ForwardedHeaderParser.walk("203.0.113.7, garbage, 10.0.0.1", false, TRUSTED,
+                new PackedIp(), result));
+        assertEquals("10.0.0.1", result.toCanonicalString());
+
+        result.parse(PEER);
+        assertTrue(ForwardedHeaderParser.walk("for=unknown", true, TRUSTED, new PackedIp(), result));
+        assertEquals(PEER, result.toCanonicalString());
+
+        result.parse(PEER);
+        assertTrue(ForwardedHeaderParser.walk("for=\"[2001:db8::7\"", true, TRUSTED, new PackedIp(), result));
+        assertEquals(PEER, result.toCanonicalString());
+
+        result.parse(PEER);
+        assertTrue(ForwardedHeaderParser.walk("proto=https", true, TRUSTED, new PackedIp(), result));
+        assertEquals(PEER, result.toCanonicalString());
+    }
+
+    @Test
+    void reportsWhenEveryHopIsTrusted() {
+        PackedIp result = new PackedIp();
+        result.parse(PEER);
+
+        assertFalse(ForwardedHeaderParser.walk("10.1.1.1, , 10.0.0.1", false, TRUSTED, new PackedIp(), result));
+        assertEquals("10.1.1.1", result.toCanonicalString());
+        assertFalse(ForwardedHeaderParser.walk("", false, TRUSTED, new PackedIp(), result));
+    }
+
+    private static String walk(String header, boolean rfc7239, IpIntervalSet trusted) {
+        PackedIp result = new PackedIp();
+        result.parse(PEER);
+        ForwardedHeaderParser.walk(header, rfc7239, trusted, new PackedIp(), result);
+        return result.toCanonicalString();
+    }
+
+    static IpIntervalSet trusted(String... ranges) {
+        IpIntervalSet.Builder builder = new IpIntervalSet.Builder();
+        for (String range : ranges) {
+            builder.add(range, 0, range.length());
+        }
+        return builder.build();
+    }
+}
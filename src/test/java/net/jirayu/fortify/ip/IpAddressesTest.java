@@ -0,0 +1,83 @@
+package net.jirayu.fortify.ip;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IpAddressesTest {
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0.0.0.0", "1.2.3.4", "255.255.255.255",
+            "::", "::1", "1::", "2001:db8::1", "2001:DB8:0:0:1:0:0:1", "fe80::1:2:3:4",
+            "1:2:3:4:5:6:7:8", "::ffff:1.2.3.4", "64:ff9b::192.0.2.33", "1:2:3:4:5:6:1.2.3.4"
+    })
+    void parsesLikeTheJdk(String value) throws UnknownHostException {
+        byte[] expected = InetAddress.getByName(value).getAddress();
+        byte[] parsed = IpAddresses.parse(value);
+
+        assertArrayEquals(expected, expected.length == 4 ? IpAddresses.unmapIpv4(parsed) : parsed);
+    }
+
+    @Test
+    void stripsZoneAndSurroundingSpaces() {
+        assertArrayEquals(IpAddresses.parse("fe80::1"), IpAddresses.parse("fe80::1%eth0"));
+        assertArrayEquals(IpAddresses.parse("1.2.3.4"), IpAddresses.parse("  1.2.3.4 "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", " ", "1.2.3", "1.2.3.4.5", "256.1.1.1", "01.2.3.4", "1..2.3", "1.2.3.4.",
+            ":", ":::", "1::2::3", ":1::", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7", "12345::", "g::1",
+            "1:2:3:4:5:6:7:1.2.3.4", "::1.2.3", "example.com"
+    })
+    void rejectsMalformedAddresses(String value) {
+        assertNull(IpAddresses.parse(value));
+        assertNull(IpAddresses.canonicalize(value));
+    }
+
+    @Test
+    void unmapsOnlyIpv4MappedAddresses() {
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, IpAddresses.unmapIpv4(IpAddresses.parse("::ffff:1.2.3.4")));
+        assertEquals(16, IpAddresses.unmapIpv4(IpAddresses.parse("::1.2.3.4")).length);
+        assertEquals(16, IpAddresses.unmapIpv4(IpAddresses.parse("64:ff9b::1.2.3.4")).length);
+        assertNull(IpAddresses.unmapIpv4(null));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1.2.3.4, 1.2.3.4",
+            "::ffff:1.2.3.4, 1.2.3.4",
+            "2001:DB8::1, 2001:db8::1",
+            "2001:0db8:0000:0000:0000:0000:0000:0001, 2001:db8::1",
+            "fe80::1%eth0, fe80::1"
+    })
+    void canonicalizesToClientKeyForm(String value, String expected) {
+        assertEquals(expected, IpAddresses.canonicalize(value));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1.2.3.4, 1.2.3.4",
+            "::ffff:1.2.3.4, 1.2.3.4",
+            "2001:0db8:0:0:0:0:0:1, 2001:db8::1",
+            "::, ::"
+    })
+    void formatsLikeCanonicalize(String value, String expected) {
+        assertEquals(expected, IpAddresses.format(IpAddresses.parse(value)));
+        assertEquals(expected, IpAddresses.format(IpAddresses.unmapIpv4(IpAddresses.parse(value))));
+    }
+
+    @Test
+    void formatsOnlyFullAddresses() {
+        assertNull(IpAddresses.format(null));
+        assertNull(IpAddresses.format(new byte[5]));
+    }
+}
@@ -0,0 +1,79 @@
+package net.jirayu.fortify.ip;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedIpTest {
+    @ParameterizedTest
+    @CsvSource({
+            // Lowercase hex without leading zeros
+            "2001:0DB8:0000:0000:0000:ff00:0042:8329, 2001:db8::ff00:42:8329",
+            // The longest run of zero groups is compressed
+            "2001:db8:0:0:1:0:0:0, 2001:db8:0:0:1::",
+            // Equal runs compress the first one
+            "2001:db8:0:0:1:0:0:1, 2001:db8::1:0:0:1",
+            // A single zero group is not compressed
+            "2001:db8:0:1:1:1:1:1, 2001:db8:0:1:1:1:1:1",
+            "0:0:0:0:0:0:0:0, ::",
+            "0:0:0:0:0:0:0:1, ::1",
+            "1:0:0:0:0:0:0:0, 1::",
+            "1:2:3:4:5:6:7:8, 1:2:3:4:5:6:7:8",
+            "::1.2.3.4, ::102:304",
+            // IPv4 and IPv4-mapped addresses share one key
+            "::ffff:10.0.0.1, 10.0.0.1",
+            "10.0.0.1, 10.0.0.1"
+    })
+    void formatsRfc5952(String value, String expected) {
+        PackedIp address = new PackedIp();
+        assertTrue(address.parse(value));
+        assertEquals(expected, address.toCanonicalString());
+        assertEquals(expected, PackedIp.format(address.getHigh(), address.getLow()));
+    }
+
+    @Test
+    void packsIpv4AsMapped() {
+        PackedIp address = new PackedIp();
+        assertTrue(address.parse("192.0.2.1"));
+
+        assertTrue(address.isIpv4());
+        assertEquals(0, address.getHigh());
+        assertEquals(0x0000FFFFC0000201L, address.getLow());
+    }
+
+    @Test
+    void parsesSubranges() {
+        PackedIp address = new PackedIp();
+        String value = "for=[2001:db8::7]:4711";
+
+        assertTrue(address.parse(value, 5, 16));
+        assertEquals("2001:db8::7", address.toCanonicalString());
+        assertFalse(address.isIpv4());
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        PackedIp address = new PackedIp();
+
+        assertFalse(address.parse(null));
+        assertFalse(address.parse(""));
+        assertFalse(address.parse("1.2.3.256"));
+        assertFalse(address.parse("1:::2"));
+        assertFalse(address.parse("unknown"));
+    }
+
+    @Test
+    void reusesCanonicalStrings() {
+        PackedIp first = new PackedIp();
+        PackedIp second = new PackedIp();
+        first.parse("2001:db8::42");
+        second.parse("2001:DB8:0::42");
+
+        assertSame(first.toCanonicalString(), second.toCanonicalString());
+    }
+}
@@ -0,0 +1,90 @@
+package net.jirayu.fortify.loadshed;
+
+import net.jirayu.fortify.config.LoadShedConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyShedderTest {
+    private static final int INTERVAL = 20;
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final String SEARCH = "/v4/loadsearch";
+    private static final String PLAYER_UPDATE = "/v4/sessions/abc/players/123";
+
+    @Test
+    void searchFloodTurnsSheddingOn() throws InterruptedException {
+        LatencyShedder shedder = shedder();
+        LatencyShedder.Priority search = shedder.classify(SEARCH);
+        LatencyShedder.Priority player = shedder.classify(PLAYER_UPDATE);
+        assertEquals(LatencyShedder.Priority.LOW, search);
+        assertEquals(LatencyShedder.Priority.HIGH, player);
+
+        // Searches hold every request thread while player updates stay fast once they get one.
+        for (int i = 0; i < MAX_IN_FLIGHT * 2; i++) {
+            assertFalse(shedder.shouldShed(search));
+            shedder.enter();
+        }
+        for (int round = 0; round < 3; round++) {
+            assertFalse(shedder.shouldShed(player));
+            shedder.enter();
+            shedder.record(player, TimeUnit.MILLISECONDS.toNanos(1));
+            Thread.sleep(INTERVAL);
+        }
+
+        assertTrue(shedder.shouldShed(search));
+        assertFalse(shedder.shouldShed(player));
+        assertEquals(true, shedder.getInfo().get("dropping"));
+    }
+
+    @Test
+    void fastTrafficDoesNotShed() throws InterruptedException {
+        LatencyShedder shedder = shedder();
+        LatencyShedder.Priority search = shedder.classify(SEARCH);
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < MAX_IN_FLIGHT - 1; i++) {
+                shedder.enter();
+            }
+            for (int i = 0; i < MAX_IN_FLIGHT - 1; i++) {
+                shedder.record(search, TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            Thread.sleep(INTERVAL);
+        }
+
+        assertFalse(shedder.shouldShed(search));
+    }
+
+    @Test
+    void sheddingStopsOnceFloodDrains() throws InterruptedException {
+        LatencyShedder shedder = shedder();
+        LatencyShedder.Priority search = shedder.classify(SEARCH);
+
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            shedder.enter();
+        }
+        Thread.sleep(INTERVAL * 2);
+        shedder.shouldShed(search);
+        Thread.sleep(INTERVAL);
+        assertTrue(shedder.shouldShed(search));
+
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            shedder.record(search, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        Thread.sleep(INTERVAL);
+        shedder.shouldShed(search);
+        Thread.sleep(INTERVAL);
+        assertFalse(shedder.shouldShed(search));
+    }
+
+    private static LatencyShedder shedder() {
+        LoadShedConfig config = new LoadShedConfig();
+        config.setEnabled(true);
+        config.setInterval(INTERVAL);
+        config.setMaxInFlight(MAX_IN_FLIGHT);
+        return new LatencyShedder(config);
+    }
+}
@@ -0,0 +1,140 @@
+package net.jirayu.fortify.monitor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CgroupReaderTest {
+    private static final double DELTA = 1e-9;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void computesCpuDeltasAgainstQuota() throws IOException {
+        write("cpu.max", "200000 100000\n");
+        write("cpu.stat", cpuStat(1_000_000, 100, 10, 50_000));
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        assertTrue(Double.isNaN(reader.getCpuUsage()));
+        assertEquals(2.0, reader.getSignals().get("quotaCores"));
+
+        // One second later: 1.5 of 2 cores used, 20 of 50 periods throttled for 0.25s in total.
+        write("cpu.stat", cpuStat(2_500_000, 150, 30, 300_000));
+        reader.sample(2 * SECOND);
+
+        assertEquals(75.0, reader.getCpuUsage(), DELTA);
+        assertEquals(40.0, reader.getThrottledPeriods(), DELTA);
+        assertEquals(25.0, (double) reader.getSignals().get("throttledTime"), DELTA);
+    }
+
+    @Test
+    void treatsMaxQuotaAsUnlimited() throws IOException {
+        write("cpu.max", "max 100000\n");
+        write("cpu.stat", cpuStat(0, 0, 0, 0));
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        write("cpu.stat", cpuStat(cores * 500_000L, 0, 0, 0));
+        reader.sample(2 * SECOND);
+
+        assertEquals(-1.0, reader.getSignals().get("quotaCores"));
+        assertEquals(50.0, reader.getCpuUsage(), DELTA);
+        assertEquals(0.0, reader.getThrottledPeriods(), DELTA);
+    }
+
+    @Test
+    void reportsWorkingSetAgainstMemoryLimit() throws IOException {
+        write("memory.current", "1073741824\n");
+        write("memory.max", "2147483648\n");
+        write("memory.stat", "anon 536870912\nfile 536870912\ninactive_file 268435456\nactive_file 268435456\n");
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        Map<String, Object> signals = reader.getSignals();
+        assertEquals(1073741824L, signals.get("memoryCurrent"));
+        assertEquals(2147483648L, signals.get("memoryMax"));
+        assertEquals(805306368L, signals.get("workingSet"));
+        assertEquals(37.5, reader.getMemoryUsage(), DELTA);
+    }
+
+    @Test
+    void treatsMaxMemoryAsUnlimited() throws IOException {
+        write("memory.current", "1073741824\n");
+        write("memory.max", "max\n");
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        assertEquals(-1L, reader.getSignals().get("memoryMax"));
+        assertEquals(1073741824L, reader.getSignals().get("workingSet"));
+        assertTrue(Double.isNaN(reader.getMemoryUsage()));
+    }
+
+    @Test
+    void parsesPressureAvg10() throws IOException {
+        write("cpu.pressure", "some avg10=12.34 avg60=5.00 avg300=1.00 total=123456\n" +
+                "full avg10=0.00 avg60=0.00 avg300=0.00 total=0\n");
+        write("memory.pressure", "some avg10=0.56 avg60=0.10 avg300=0.00 total=999\n" +
+                "full avg10=7.08 avg60=1.00 avg300=0.00 total=500\n");
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        assertEquals(12.34, reader.getCpuPressure(), DELTA);
+        assertEquals(0.56, reader.getMemoryPressure(), DELTA);
+        assertEquals(7.08, (double) reader.getSignals().get("memoryPressureFull"), DELTA);
+    }
+
+    @Test
+    void leavesSignalsUnsetWhenFilesAreMissing() {
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+        reader.sample(2 * SECOND);
+
+        Map<String, Object> signals = reader.getSignals();
+        assertEquals(-1.0, signals.get("quotaCores"));
+        assertTrue(Double.isNaN(reader.getCpuUsage()));
+        assertTrue(Double.isNaN(reader.getThrottledPeriods()));
+        assertEquals(-1L, signals.get("memoryCurrent"));
+        assertEquals(-1L, signals.get("workingSet"));
+        assertTrue(Double.isNaN(reader.getMemoryUsage()));
+        assertTrue(Double.isNaN(reader.getCpuPressure()));
+        assertTrue(Double.isNaN(reader.getMemoryPressure()));
+    }
+
+    @Test
+    void keepsLastValuesWhenAFileDisappears() throws IOException {
+        write("memory.current", "1000\n");
+        write("memory.max", "4000\n");
+        CgroupReader reader = new CgroupReader(dir);
+        reader.sample(SECOND);
+
+        Files.delete(dir.resolve("memory.current"));
+        reader.sample(2 * SECOND);
+
+        assertEquals(25.0, reader.getMemoryUsage(), DELTA);
+    }
+
+    private void write(String name, String content) throws IOException {
+        Files.writeString(dir.resolve(name), content);
+    }
+
+    private static String cpuStat(long usageUsec, long periods, long throttled, long throttledUsec) {
+        return "usage_usec " + usageUsec + "\n" +
+                "user_usec " + usageUsec / 2 + "\n" +
+                "system_usec " + usageUsec / 2 + "\n" +
+                "nr_periods " + periods + "\n" +
+                "nr_throttled " + throttled + "\n" +
+                "throttled_usec " + throttledUsec + "\n";
+    }
+}
@@ -0,0 +1,152 @@
+package net.jirayu.fortify.notification.sink;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpClientTools;
+import com.sedmelluq.discord.lavaplayer.tools.io.HttpInterfaceManager;
+import com.sun.net.httpserver.HttpServer;
+import net.jirayu.fortify.config.NotificationConfig;
+import net.jirayu.fortify.notification.SecurityEvent;
+import net.jirayu.fortify.notification.SecurityEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscordSinkTest {
+    private final Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+    private final List<StubRequest> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private HttpInterfaceManager httpInterfaceManager;
+    private DiscordSink sink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/webhook", exchange -> {
+            requests.add(new StubRequest(System.nanoTime(),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            StubResponse response = responses.poll();
+            int status = response != null ? response.status : 204;
+            if (response != null && response.retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", response.retryAfter);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+
+        NotificationConfig config = new NotificationConfig();
+        config.setDiscordWebhookUrl("http://" + server.getAddress().getHostString() + ":" +
+                server.getAddress().getPort() + "/webhook");
+        httpInterfaceManager = HttpClientTools.createDefaultThreadLocalManager();
+        sink = new DiscordSink(config, httpInterfaceManager);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpInterfaceManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void deliversSingleEventAsEmbed() throws Exception {
+        sink.deliver(List.of(event("203.0.113.7")));
+
+        assertEquals(1, requests.size());
+        String body = requests.get(0).body;
+        assertTrue(body.contains("\"username\":\"Fortify Security\""), body);
+        assertTrue(body.contains(SecurityEventType.RATE_LIMIT_BLOCK.getTitle()), body);
+        assertTrue(body.contains("203.0.113.7"), body);
+    }
+
+    @Test
+    void waitsForRetryAfterOn429() throws Exception {
+        responses.add(new StubResponse(429, "0.3"));
+
+        sink.deliver(List.of(event("203.0.113.7")));
+
+        assertEquals(2, requests.size());
+        assertTrue(millisBetween(0, 1) >= 250, "retried after " + millisBetween(0, 1) + "ms");
+        assertEquals(1L, sink.getInfo().get("rateLimited"));
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() throws Exception {
+        responses.add(new StubResponse(503, null));
+        responses.add(new StubResponse(502, null));
+
+        sink.deliver(List.of(event("203.0.113.7")));
+
+        assertEquals(3, requests.size());
+        assertTrue(millisBetween(0, 1) >= 450, "first retry after " + millisBetween(0, 1) + "ms");
+        assertTrue(millisBetween(1, 2) >= 950, "second retry after " + millisBetween(1, 2) + "ms");
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        responses.add(new StubResponse(400, null));
+
+        assertThrows(IOException.class, () -> sink.deliver(List.of(event("203.0.113.7"))));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void coalescesBatchIntoOneSummary() throws Exception {
+        List<SecurityEvent> batch = new ArrayList<>();
+        batch.add(event("203.0.113.7"));
+        batch.add(event("203.0.113.7"));
+        batch.add(event("198.51.100.1"));
+
+        sink.deliver(batch);
+
+        assertEquals(1, requests.size());
+        String body = requests.get(0).body;
+        assertTrue(body.contains("3 security events were coalesced"), body);
+        assertTrue(body.contains("203.0.113.7: 2"), body);
+        assertEquals(3L, sink.getInfo().get("summarized"));
+    }
+
+    private long millisBetween(int first, int second) {
+        return (requests.get(second).receivedAt - requests.get(first).receivedAt) / 1_000_000;
+    }
+
+    private static SecurityEvent event(String ip) {
+        return SecurityEvent.builder(SecurityEventType.RATE_LIMIT_BLOCK)
+                .ip(ip)
+                .path("/v4/loadtracks")
+                .build();
+    }
+
+    private static class StubResponse {
+        private final int status;
+        private final String retryAfter;
+
+        StubResponse(int status, String retryAfter) {
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    private static class StubRequest {
+        private final long receivedAt;
+        private final String body;
+
+        StubRequest(long receivedAt, String body) {
+            this.receivedAt = receivedAt;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package net.jirayu.fortify.ratelimit;
+
+import net.jirayu.fortify.config.ConcurrencyConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+    @Test
+    void limitsEachIpExactly() {
+        ConcurrencyLimiter limiter = limiter(2, 10_000);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryAcquire("203.0.113.7") >= 0);
+        }
+        assertEquals(ConcurrencyLimiter.IP_LIMIT, limiter.tryAcquire("203.0.113.7"));
+
+        // A full IP never blocks any other address, whatever it hashes to.
+        for (int i = 0; i < 2000; i++) {
+            String ip = "10." + (i >> 8) + "." + (i & 0xFF) + ".1";
+            int stripe = limiter.tryAcquire(ip);
+            assertTrue(stripe >= 0, ip);
+            limiter.release(ip, stripe, 0);
+        }
+    }
+
+    @Test
+    void fillsEveryStripeBeforeRejectingGlobally() {
+        ConcurrencyLimiter limiter = limiter(1, 37);
+        List<Integer> stripes = new ArrayList<>();
+
+        for (int i = 0; i < 37; i++) {
+            int stripe = limiter.tryAcquire("198.51.100." + i);
+            assertTrue(stripe >= 0);
+            stripes.add(stripe);
+        }
+        assertEquals(ConcurrencyLimiter.GLOBAL_LIMIT, limiter.tryAcquire("198.51.100.200"));
+        assertEquals(37, limiter.getInfo().get("inFlight"));
+
+        limiter.release("198.51.100.5", stripes.get(5), 0);
+        assertTrue(limiter.tryAcquire("198.51.100.200") >= 0);
+    }
+
+    @Test
+    void globalRejectionReturnsTheIpSlot() {
+        ConcurrencyLimiter limiter = limiter(1, 1);
+        int stripe = limiter.tryAcquire("198.51.100.1");
+
+        assertEquals(ConcurrencyLimiter.GLOBAL_LIMIT, limiter.tryAcquire("198.51.100.2"));
+        limiter.release("198.51.100.1", stripe, 0);
+        assertTrue(limiter.tryAcquire("198.51.100.2") >= 0);
+    }
+
+    @Test
+    void dropsIdleIpCounters() {
+        ConcurrencyLimiter limiter = limiter(4, 100);
+        int first = limiter.tryAcquire("203.0.113.7");
+        int second = limiter.tryAcquire("203.0.113.7");
+        assertEquals(1, limiter.getInfo().get("trackedIps"));
+
+        limiter.release("203.0.113.7", first, 0);
+        assertEquals(1, limiter.getInfo().get("trackedIps"));
+        limiter.release("203.0.113.7", second, 0);
+        assertEquals(0, limiter.getInfo().get("trackedIps"));
+        assertEquals(0, limiter.getInfo().get("inFlight"));
+    }
+
+    @Test
+    void neverExceedsLimitsUnderContention() throws InterruptedException {
+        int maxPerIp = 3;
+        int maxGlobal = 20;
+        ConcurrencyLimiter limiter = limiter(maxPerIp, maxGlobal);
+        String[] ips = {"192.0.2.1", "192.0.2.2", "192.0.2.3", "192.0.2.4", "192.0.2.5", "192.0.2.6", "192.0.2.7",
+                "192.0.2.8"};
+        AtomicInteger[] perIp = new AtomicInteger[ips.length];
+        for (int i = 0; i < ips.length; i++) {
+            perIp[i] = new AtomicInteger();
+        }
+        AtomicInteger global = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(16);
+
+        for (int t = 0; t < 16; t++) {
+            int seed = t;
+            new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int index = (seed + i) % ips.length;
+                    int stripe = limiter.tryAcquire(ips[index]);
+                    if (stripe < 0) {
+                        continue;
+                    }
+                    if (perIp[index].incrementAndGet() > maxPerIp || global.incrementAndGet() > maxGlobal) {
+                        violations.incrementAndGet();
+                    }
+                    perIp[index].decrementAndGet();
+                    global.decrementAndGet();
+                    limiter.release(ips[index], stripe, 0);
+                }
+                done.countDown();
+            }).start();
+        }
+
+        done.await();
+        assertEquals(0, violations.get());
+        assertEquals(0, limiter.getInfo().get("inFlight"));
+        assertEquals(0, limiter.getInfo().get("trackedIps"));
+    }
+
+    private static ConcurrencyLimiter limiter(int maxPerIp, int maxGlobal) {
+        ConcurrencyConfig config = new ConcurrencyConfig();
+        config.setEnabled(true);
+        config.setMaxPerIp(maxPerIp);
+        config.setMaxGlobal(maxGlobal);
+        return new ConcurrencyLimiter(config);
+    }
+}
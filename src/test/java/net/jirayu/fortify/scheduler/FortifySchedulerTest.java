@@ -0,0 +1,105 @@
+package net.jirayu.fortify.scheduler;
+
+import net.jirayu.fortify.config.MetricsConfig;
+import net.jirayu.fortify.config.SchedulerConfig;
+import net.jirayu.fortify.metrics.FortifyMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FortifySchedulerTest {
+    private FortifyScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        SchedulerConfig config = new SchedulerConfig();
+        config.setIoThreads(1);
+        config.setIoQueueSize(1);
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnabled(false);
+        scheduler = new FortifyScheduler(config, new FortifyMetrics(metricsConfig));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void runsEveryMustRunTaskWhileIoIsSaturated() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute("blocker", () -> await(release));
+        scheduler.execute("queued", () -> await(release));
+
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            scheduler.executeOrRetry("firewall unblock", done::countDown);
+        }
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void backedOffRetriesDoNotPausePeriodicIo() throws InterruptedException {
+        CountDownLatch releaseIo = new CountDownLatch(1);
+        CountDownLatch releaseOverflow = new CountDownLatch(1);
+        scheduler.execute("blocker", () -> await(releaseIo));
+        scheduler.execute("queued", () -> await(releaseIo));
+        scheduler.executeOrRetry("stuck unblock", () -> await(releaseOverflow));
+        scheduler.executeOrRetry("queued unblock", () -> { });
+        for (int i = 0; i < 3; i++) {
+            scheduler.executeOrRetry("firewall unblock", () -> { });
+        }
+        assertEquals(3, ((Map<?, ?>) scheduler.getInfo().get("io")).get("retrying"));
+
+        // Let the retries back off past 300ms, then free the I/O executor while they wait for their next attempt.
+        Thread.sleep(350);
+        releaseIo.countDown();
+
+        CountDownLatch ran = new CountDownLatch(3);
+        scheduler.scheduleIoWithFixedDelay("audit writer", ran::countDown, 0, 10);
+        assertTrue(ran.await(250, TimeUnit.MILLISECONDS));
+        releaseOverflow.countDown();
+    }
+
+    @Test
+    void skipsTicksWhileThePreviousRunIsGoing() throws InterruptedException {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch ran = new CountDownLatch(5);
+        scheduler.scheduleIoWithFixedDelay("slow", () -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            sleep(30);
+            concurrent.decrementAndGet();
+            ran.countDown();
+        }, 0, 1);
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}